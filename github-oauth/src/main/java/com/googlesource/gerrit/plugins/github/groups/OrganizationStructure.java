@@ -11,40 +11,167 @@
 // WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
 // See the License for the specific language governing permissions and
 // limitations under the License.
-
 package com.googlesource.gerrit.plugins.github.groups;
 
-import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Immutable organisations and teams of a GitHub user.
+ *
+ * <p>Organisation and team names are interned, so that the same names shared by the cached
+ * structures of many users are only kept once in memory.
+ *
+ * <p>Members of a GitHub team are also members of its parent teams: the teams inherited through the
+ * known parent teams are resolved once when the structure is built.
+ */
 public class OrganizationStructure implements Serializable {
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 3L;
+  private static final Interner<String> NAMES = Interners.newWeakInterner();
+
+  private final ImmutableMap<String, ImmutableSet<String>> directTeams;
+  private final ImmutableMap<String, ImmutableSet<String>> teams;
+  private final ImmutableMap<String, ImmutableMap<String, String>> parentTeams;
+
+  public OrganizationStructure() {
+    this(ImmutableMap.of(), ImmutableMap.of(), ImmutableMap.of());
+  }
+
+  private OrganizationStructure(
+      ImmutableMap<String, ImmutableSet<String>> directTeams,
+      ImmutableMap<String, ImmutableSet<String>> teams,
+      ImmutableMap<String, ImmutableMap<String, String>> parentTeams) {
+    this.directTeams = directTeams;
+    this.teams = teams;
+    this.parentTeams = parentTeams;
+  }
 
-  private HashMap<String, HashSet<String>> teams = new HashMap<>();
+  public static Builder builder() {
+    return new Builder();
+  }
 
-  public Set<String> put(String organisation, String team) {
-    HashSet<String> userTeams =
-        MoreObjects.firstNonNull(teams.get(organisation), new HashSet<String>());
-    userTeams.add(team);
-    return teams.put(organisation, userTeams);
+  public Builder toBuilder() {
+    Builder builder = new Builder();
+    directTeams.forEach(
+        (organisation, orgTeams) -> {
+          builder.put(organisation);
+          orgTeams.forEach(t -> builder.put(organisation, t));
+        });
+    parentTeams.forEach(
+        (organisation, orgParents) ->
+            orgParents.forEach(
+                (team, parent) -> builder.putParentTeam(organisation, team, parent)));
+    return builder;
   }
 
   public Set<String> keySet() {
     return teams.keySet();
   }
 
+  /** Teams of an organisation the user is a member of, directly or through a child team. */
   public Iterable<String> get(String organization) {
     return teams.get(organization);
   }
 
+  /** Teams of an organisation the user is a direct member of. */
+  public Iterable<String> getDirectTeams(String organization) {
+    return directTeams.get(organization);
+  }
+
+  /** Parent team of the teams of an organisation that have one, known to the user. */
+  public Map<String, String> getParentTeams(String organization) {
+    return parentTeams.getOrDefault(organization, ImmutableMap.of());
+  }
+
   @Override
   public String toString() {
     return teams.entrySet().stream()
         .map(org -> "Organization " + org.getKey() + " Teams: " + org.getValue())
         .collect(Collectors.joining(" : "));
   }
+
+  public static class Builder {
+    private final Map<String, Set<String>> teams = new LinkedHashMap<>();
+    private final Map<String, Map<String, String>> parentTeams = new LinkedHashMap<>();
+
+    public Builder put(String organisation) {
+      teams.computeIfAbsent(organisation, org -> new LinkedHashSet<>());
+      return this;
+    }
+
+    public Builder put(String organisation, String team) {
+      put(organisation);
+      teams.get(organisation).add(team);
+      return this;
+    }
+
+    public Builder putParentTeam(String organisation, String team, String parentTeam) {
+      parentTeams.computeIfAbsent(organisation, org -> new LinkedHashMap<>()).put(team, parentTeam);
+      return this;
+    }
+
+    public Builder remove(String organisation) {
+      teams.remove(organisation);
+      parentTeams.remove(organisation);
+      return this;
+    }
+
+    public Builder remove(String organisation, String team) {
+      Set<String> orgTeams = teams.get(organisation);
+      if (orgTeams != null) {
+        orgTeams.remove(team);
+      }
+      return this;
+    }
+
+    public OrganizationStructure build() {
+      ImmutableMap.Builder<String, ImmutableSet<String>> orgsDirectTeams = ImmutableMap.builder();
+      ImmutableMap.Builder<String, ImmutableSet<String>> orgsTeams = ImmutableMap.builder();
+      teams.forEach(
+          (organisation, orgTeams) -> {
+            ImmutableSet<String> direct =
+                orgTeams.stream().map(NAMES::intern).collect(ImmutableSet.toImmutableSet());
+            ImmutableSet<String> inherited =
+                withParentTeams(direct, parentTeams.getOrDefault(organisation, Map.of()));
+            orgsDirectTeams.put(NAMES.intern(organisation), direct);
+            orgsTeams.put(NAMES.intern(organisation), inherited);
+          });
+      ImmutableMap.Builder<String, ImmutableMap<String, String>> orgsParents =
+          ImmutableMap.builder();
+      parentTeams.forEach(
+          (organisation, orgParents) -> {
+            if (teams.containsKey(organisation)) {
+              ImmutableMap.Builder<String, String> parents = ImmutableMap.builder();
+              orgParents.forEach(
+                  (team, parent) -> parents.put(NAMES.intern(team), NAMES.intern(parent)));
+              orgsParents.put(NAMES.intern(organisation), parents.build());
+            }
+          });
+      return new OrganizationStructure(
+          orgsDirectTeams.build(), orgsTeams.build(), orgsParents.build());
+    }
+
+    private static ImmutableSet<String> withParentTeams(
+        ImmutableSet<String> direct, Map<String, String> orgParents) {
+      Set<String> all = new LinkedHashSet<>(direct);
+      for (String team : direct) {
+        String parent = orgParents.get(team);
+        while (parent != null && all.add(parent)) {
+          parent = orgParents.get(parent);
+        }
+      }
+      if (all.size() == direct.size()) {
+        return direct;
+      }
+      return all.stream().map(NAMES::intern).collect(ImmutableSet.toImmutableSet());
+    }
+  }
 }
@@ -0,0 +1,69 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.groups;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class OrganizationStructureTest {
+
+  @Test
+  public void shouldInheritMembershipOfAllParentTeams() {
+    OrganizationStructure orgsTeams =
+        OrganizationStructure.builder()
+            .put("someorg", "frontend")
+            .putParentTeam("someorg", "frontend", "developers")
+            .putParentTeam("someorg", "developers", "engineering")
+            .putParentTeam("someorg", "backend", "developers")
+            .build();
+
+    assertEquals(List.of("frontend", "developers", "engineering"), list(orgsTeams.get("someorg")));
+    assertEquals(List.of("frontend"), list(orgsTeams.getDirectTeams("someorg")));
+  }
+
+  @Test
+  public void shouldStopAtParentTeamsCycles() {
+    OrganizationStructure orgsTeams =
+        OrganizationStructure.builder()
+            .put("someorg", "a")
+            .putParentTeam("someorg", "a", "b")
+            .putParentTeam("someorg", "b", "a")
+            .build();
+
+    assertEquals(Set.of("a", "b"), Set.copyOf(list(orgsTeams.get("someorg"))));
+  }
+
+  @Test
+  public void shouldDropInheritedTeamsWhenLeavingTheChildTeam() {
+    OrganizationStructure orgsTeams =
+        OrganizationStructure.builder()
+            .put("someorg", "Everyone")
+            .put("someorg", "frontend")
+            .putParentTeam("someorg", "frontend", "developers")
+            .build()
+            .toBuilder()
+            .remove("someorg", "frontend")
+            .build();
+
+    assertEquals(List.of("Everyone"), list(orgsTeams.get("someorg")));
+  }
+
+  private static List<String> list(Iterable<String> teams) {
+    return ImmutableList.copyOf(teams);
+  }
+}
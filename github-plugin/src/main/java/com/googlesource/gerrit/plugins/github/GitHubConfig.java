@@ -18,7 +18,9 @@ import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.server.config.AllProjectsName;
+import com.google.gerrit.server.config.ConfigUtil;
 import com.google.gerrit.server.config.GerritServerConfig;
+import com.google.gerrit.server.config.ScheduleConfig;
 import com.google.gerrit.server.config.SitePaths;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
@@ -26,6 +28,8 @@ import com.google.inject.Singleton;
 import com.googlesource.gerrit.plugins.github.oauth.GitHubOAuthConfig;
 import java.net.MalformedURLException;
 import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.jgit.lib.Config;
 
 @Singleton
@@ -44,6 +48,26 @@ public class GitHubConfig extends GitHubOAuthConfig {
   private static final String CONF_WEBHOOK_SECRET = "webhookSecret";
   private static final String CONF_WEBHOOK_USER = "webhookUser";
   private static final String CONF_IMPORT_ACCOUNT_ID = "importAccountId";
+  private static final String CONF_PULL_REQUEST_MIRROR = "pullRequestMirror";
+  private static final String CONF_WEBHOOK_THREADS = "webhookThreads";
+  private static final String CONF_WEBHOOK_QUEUE_SIZE = "webhookQueueSize";
+  private static final String CONF_WEBHOOK_MAX_ATTEMPTS = "webhookMaxAttempts";
+  private static final String CONF_WEBHOOK_RETRY_BACKOFF = "webhookRetryBackoff";
+  private static final String CONF_WEBHOOK_JOURNAL_SEGMENT_SIZE = "webhookJournalSegmentSize";
+  private static final String CONF_WEBHOOK_JOURNAL_MAX_SEGMENTS = "webhookJournalMaxSegments";
+  private static final String CONF_WEBHOOK_DELIVERY_DEDUP_WINDOW = "webhookDeliveryDedupWindow";
+  private static final String CONF_WEBHOOK_DELIVERY_DEDUP_SIZE = "webhookDeliveryDedupSize";
+  private static final String CONF_WEBHOOK_PULL_REQUEST_DEBOUNCE = "webhookPullRequestDebounce";
+  private static final String CONF_GROUPS_REFRESH_THREADS = "groupsRefreshThreads";
+  private static final String CONF_GROUP_SUGGEST_LIMIT = "groupSuggestLimit";
+  private static final String CONF_GROUPS_WARM_UP_USERS = "groupsWarmUpUsers";
+  private static final String CONF_GROUPS_WARM_UP_ACTIVE_WITHIN = "groupsWarmUpActiveWithin";
+  private static final String CONF_GROUPS_WARM_UP_INTERVAL = "groupsWarmUpInterval";
+  private static final String CONF_GROUPS_WARM_UP_START_TIME = "groupsWarmUpStartTime";
+  private static final String CONF_GROUPS_LOADER = "groupsLoader";
+  private static final String CONF_GROUPS_BROADCAST_DIRECTORY = "groupsBroadcastDirectory";
+  private static final String CONF_GROUPS_BROADCAST_POLL_INTERVAL = "groupsBroadcastPollInterval";
+  private static final String CONF_GROUPS_NEGATIVE_CACHE_TTL = "groupsNegativeCacheTtl";
   private static final String DEFAULT_SERVER = "default";
 
   public final Path gitDir;
@@ -58,8 +82,33 @@ public class GitHubConfig extends GitHubOAuthConfig {
   public final String webhookSecret;
   public final String webhookUser;
   public final Account.Id importAccountId;
+  public final boolean pullRequestMirror;
+  public final int webhookThreads;
+  public final int webhookQueueSize;
+  public final int webhookMaxAttempts;
+  public final long webhookRetryBackoffMsec;
+  public final long webhookJournalSegmentSize;
+  public final int webhookJournalMaxSegments;
+  public final long webhookDeliveryDedupWindowMsec;
+  public final int webhookDeliveryDedupSize;
+  public final long webhookPullRequestDebounceMsec;
+  public final int groupsRefreshThreads;
+  public final int groupSuggestLimit;
+  public final int groupsWarmUpUsers;
+  public final long groupsWarmUpActiveWithinMsec;
+  public final Optional<ScheduleConfig.Schedule> groupsWarmUpSchedule;
+  public final GroupsLoader groupsLoader;
+  public final Path groupsBroadcastDirectory;
+  public final long groupsBroadcastPollIntervalMsec;
+  public final long groupsNegativeCacheTtlMsec;
   private final Table<String, String, NextPage> wizardFromTo = HashBasedTable.create();
 
+  /** GitHub API used for loading the organisations and teams of the users. */
+  public enum GroupsLoader {
+    REST,
+    GRAPHQL
+  }
+
   public static class NextPage {
     public final String uri;
     public final boolean redirect;
@@ -101,6 +150,77 @@ public class GitHubConfig extends GitHubOAuthConfig {
     webhookSecret = config.getString(CONF_SECTION, null, CONF_WEBHOOK_SECRET);
     webhookUser = config.getString(CONF_SECTION, null, CONF_WEBHOOK_USER);
     importAccountId = Account.id(config.getInt(CONF_SECTION, CONF_IMPORT_ACCOUNT_ID, 1000000));
+    pullRequestMirror = config.getBoolean(CONF_SECTION, CONF_PULL_REQUEST_MIRROR, false);
+    webhookThreads =
+        Math.max(
+            config.getInt(
+                CONF_SECTION, CONF_WEBHOOK_THREADS, Runtime.getRuntime().availableProcessors()),
+            1);
+    webhookQueueSize = Math.max(config.getInt(CONF_SECTION, CONF_WEBHOOK_QUEUE_SIZE, 100), 1);
+    webhookMaxAttempts = config.getInt(CONF_SECTION, CONF_WEBHOOK_MAX_ATTEMPTS, 5);
+    webhookRetryBackoffMsec =
+        ConfigUtil.getTimeUnit(
+            config,
+            CONF_SECTION,
+            null,
+            CONF_WEBHOOK_RETRY_BACKOFF,
+            TimeUnit.SECONDS.toMillis(30),
+            TimeUnit.MILLISECONDS);
+    webhookJournalSegmentSize =
+        config.getLong(CONF_SECTION, CONF_WEBHOOK_JOURNAL_SEGMENT_SIZE, 16 * 1024 * 1024);
+    webhookJournalMaxSegments = config.getInt(CONF_SECTION, CONF_WEBHOOK_JOURNAL_MAX_SEGMENTS, 8);
+    webhookDeliveryDedupWindowMsec =
+        ConfigUtil.getTimeUnit(
+            config,
+            CONF_SECTION,
+            null,
+            CONF_WEBHOOK_DELIVERY_DEDUP_WINDOW,
+            TimeUnit.HOURS.toMillis(1),
+            TimeUnit.MILLISECONDS);
+    webhookDeliveryDedupSize = config.getInt(CONF_SECTION, CONF_WEBHOOK_DELIVERY_DEDUP_SIZE, 10000);
+    webhookPullRequestDebounceMsec =
+        ConfigUtil.getTimeUnit(
+            config,
+            CONF_SECTION,
+            null,
+            CONF_WEBHOOK_PULL_REQUEST_DEBOUNCE,
+            0,
+            TimeUnit.MILLISECONDS);
+    groupsRefreshThreads = Math.max(config.getInt(CONF_SECTION, CONF_GROUPS_REFRESH_THREADS, 2), 1);
+    groupSuggestLimit = Math.max(config.getInt(CONF_SECTION, CONF_GROUP_SUGGEST_LIMIT, 100), 1);
+    groupsWarmUpUsers = config.getInt(CONF_SECTION, CONF_GROUPS_WARM_UP_USERS, 1000);
+    groupsWarmUpActiveWithinMsec =
+        ConfigUtil.getTimeUnit(
+            config,
+            CONF_SECTION,
+            null,
+            CONF_GROUPS_WARM_UP_ACTIVE_WITHIN,
+            TimeUnit.DAYS.toMillis(7),
+            TimeUnit.MILLISECONDS);
+    groupsWarmUpSchedule =
+        ScheduleConfig.builder(config, CONF_SECTION)
+            .setKeyInterval(CONF_GROUPS_WARM_UP_INTERVAL)
+            .setKeyStartTime(CONF_GROUPS_WARM_UP_START_TIME)
+            .buildSchedule();
+    groupsLoader = config.getEnum(CONF_SECTION, null, CONF_GROUPS_LOADER, GroupsLoader.REST);
+    groupsBroadcastDirectory =
+        site.resolve(config.getString(CONF_SECTION, null, CONF_GROUPS_BROADCAST_DIRECTORY));
+    groupsBroadcastPollIntervalMsec =
+        ConfigUtil.getTimeUnit(
+            config,
+            CONF_SECTION,
+            null,
+            CONF_GROUPS_BROADCAST_POLL_INTERVAL,
+            TimeUnit.SECONDS.toMillis(5),
+            TimeUnit.MILLISECONDS);
+    groupsNegativeCacheTtlMsec =
+        ConfigUtil.getTimeUnit(
+            config,
+            CONF_SECTION,
+            null,
+            CONF_GROUPS_NEGATIVE_CACHE_TTL,
+            TimeUnit.MINUTES.toMillis(15),
+            TimeUnit.MILLISECONDS);
   }
 
   private void parseWizardFlow(String[] wizardFlows, String server) {
@@ -19,6 +19,7 @@ import com.google.gerrit.extensions.registration.DynamicSet;
 import com.google.gerrit.extensions.webui.JavaScriptPlugin;
 import com.google.gerrit.extensions.webui.WebUiPlugin;
 import com.google.gerrit.httpd.AllRequestFilter;
+import com.google.gerrit.lifecycle.LifecycleModule;
 import com.google.inject.Scopes;
 import com.google.inject.TypeLiteral;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
@@ -34,6 +35,9 @@ import com.googlesource.gerrit.plugins.github.git.MagicRefCheckStep;
 import com.googlesource.gerrit.plugins.github.git.ProtectedBranchesCheckStep;
 import com.googlesource.gerrit.plugins.github.git.PullRequestImportJob;
 import com.googlesource.gerrit.plugins.github.git.ReplicateProjectStep;
+import com.googlesource.gerrit.plugins.github.notification.WebhookEventHandlerModule;
+import com.googlesource.gerrit.plugins.github.notification.WebhookEventProcessor;
+import com.googlesource.gerrit.plugins.github.notification.WebhookExecutor;
 import com.googlesource.gerrit.plugins.github.notification.WebhookServlet;
 import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
 import com.googlesource.gerrit.plugins.github.oauth.PooledHttpClientProvider;
@@ -102,7 +106,17 @@ public class GuiceHttpModule extends ServletModule {
     serve("*.css", "*.js", "*.png", "*.jpg", "*.woff", "*.gif", "*.ttf")
         .with(VelocityStaticServlet.class);
     serve("*.gh").with(VelocityControllerServlet.class);
+    install(new WebhookEventHandlerModule());
     serve("/webhook").with(WebhookServlet.class);
+    install(
+        new LifecycleModule() {
+          @Override
+          protected void configure() {
+            // Stopped in reverse order: the journal is closed once the workers are drained
+            listener().to(WebhookEventProcessor.class);
+            listener().to(WebhookExecutor.class);
+          }
+        });
 
     serve("/static/*").with(VelocityViewServlet.class);
     filterRegex("(?!/webhook).*").through(GitHubOAuthFilter.class);
@@ -14,10 +14,13 @@
 
 package com.googlesource.gerrit.plugins.github;
 
+import com.google.gerrit.extensions.annotations.Exports;
 import com.google.gerrit.extensions.registration.DynamicSet;
 import com.google.gerrit.extensions.restapi.RestApiModule;
 import com.google.gerrit.extensions.webui.TopMenu;
 import com.google.gerrit.server.account.GroupBackend;
+import com.google.gerrit.server.change.ReviewerSuggestion;
+import com.google.gerrit.server.config.ConfigResource;
 import com.google.gerrit.server.events.EventListener;
 import com.google.gerrit.server.project.ProjectResource;
 import com.google.gson.Gson;
@@ -25,10 +28,15 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Scopes;
 import com.google.inject.TypeLiteral;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
+import com.googlesource.gerrit.plugins.github.git.GitHubAccountResolver;
+import com.googlesource.gerrit.plugins.github.git.PrunePullRequestRefs;
+import com.googlesource.gerrit.plugins.github.git.PullRequestChangesCache;
 import com.googlesource.gerrit.plugins.github.group.GitHubGroupBackend;
 import com.googlesource.gerrit.plugins.github.group.GitHubGroupMembership;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupReviewerSuggestion;
 import com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache;
 import com.googlesource.gerrit.plugins.github.group.GitHubOrganisationGroup;
+import com.googlesource.gerrit.plugins.github.notification.ReplayWebhookEvents;
 import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
 import com.googlesource.gerrit.plugins.github.oauth.IdentifiedUserGitHubLoginProvider;
 import com.googlesource.gerrit.plugins.github.oauth.UserScopedProvider;
@@ -46,9 +54,14 @@ public class GuiceModule extends AbstractModule {
         .to(IdentifiedUserGitHubLoginProvider.class);
 
     install(GitHubGroupsCache.module());
+    install(PullRequestChangesCache.module());
+    install(GitHubAccountResolver.module());
 
     DynamicSet.bind(binder(), TopMenu.class).to(GitHubTopMenu.class);
     DynamicSet.bind(binder(), GroupBackend.class).to(GitHubGroupBackend.class);
+    bind(ReviewerSuggestion.class)
+        .annotatedWith(Exports.named("groups"))
+        .to(GitHubGroupReviewerSuggestion.class);
     DynamicSet.bind(binder(), EventListener.class).to(ReplicationStatusListener.class);
 
     install(new FactoryModuleBuilder().build(GitHubOrganisationGroup.Factory.class));
@@ -59,6 +72,9 @@ public class GuiceModule extends AbstractModule {
           @Override
           protected void configure() {
             get(ProjectResource.PROJECT_KIND, "replication").to(ListProjectReplicationStatus.class);
+            post(ProjectResource.PROJECT_KIND, "prune-pull-request-refs")
+                .to(PrunePullRequestRefs.class);
+            post(ConfigResource.CONFIG_KIND, "replay-webhook-events").to(ReplayWebhookEvents.class);
           }
         });
 
@@ -0,0 +1,151 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import com.google.common.cache.Cache;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.server.account.AccountCache;
+import com.google.gerrit.server.account.AccountImporter;
+import com.google.gerrit.server.account.AccountState;
+import com.google.gerrit.server.account.externalids.ExternalId;
+import com.google.gerrit.server.account.externalids.ExternalIds;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.config.AuthConfig;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import org.eclipse.jgit.errors.ConfigInvalidException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves GitHub users to Gerrit accounts, registering the ones that do not exist yet.
+ *
+ * <p>The resolution is done once per distinct login and the results are kept in a bounded in-memory
+ * cache shared by all the import jobs.
+ */
+@Singleton
+public class GitHubAccountResolver {
+  private static final Logger LOG = LoggerFactory.getLogger(GitHubAccountResolver.class);
+  private static final String CACHE_NAME = "github_accounts";
+
+  public static Module module() {
+    return new CacheModule() {
+      @Override
+      protected void configure() {
+        cache(CACHE_NAME, String.class, Account.Id.class);
+        bind(GitHubAccountResolver.class);
+      }
+    };
+  }
+
+  private final Cache<String, Account.Id> accountIdByLogin;
+  private final ExternalIds externalIds;
+  private final AccountImporter accountImporter;
+  private final AccountCache accountCache;
+  private final boolean userNameCaseInsensitive;
+
+  @Inject
+  GitHubAccountResolver(
+      @Named(CACHE_NAME) Cache<String, Account.Id> accountIdByLogin,
+      ExternalIds externalIds,
+      AccountImporter accountImporter,
+      AccountCache accountCache,
+      AuthConfig authConfig) {
+    this.accountIdByLogin = accountIdByLogin;
+    this.externalIds = externalIds;
+    this.accountImporter = accountImporter;
+    this.accountCache = accountCache;
+    this.userNameCaseInsensitive = authConfig.isUserNameCaseInsensitive();
+  }
+
+  /**
+   * Resolve all the GitHub users to their Gerrit account, registering the missing ones.
+   *
+   * @param users GitHub users, possibly repeated
+   * @return Gerrit account id by GitHub login, for every login of the users, whatever its case
+   */
+  public Map<String, Account.Id> resolve(Collection<GitHubUser> users)
+      throws IOException, ConfigInvalidException {
+    Map<String, GitHubUser> usersByKey = new LinkedHashMap<>();
+    for (GitHubUser user : users) {
+      usersByKey.putIfAbsent(cacheKey(user.login), user);
+    }
+
+    Map<String, Account.Id> accountIdByKey =
+        new HashMap<>(accountIdByLogin.getAllPresent(usersByKey.keySet()));
+    for (Map.Entry<String, GitHubUser> userEntry : usersByKey.entrySet()) {
+      if (!accountIdByKey.containsKey(userEntry.getKey())) {
+        Account.Id accountId = getOrRegisterAccount(userEntry.getValue());
+        accountIdByLogin.put(userEntry.getKey(), accountId);
+        accountIdByKey.put(userEntry.getKey(), accountId);
+      }
+    }
+
+    Map<String, Account.Id> accountIdByGitHubLogin = new HashMap<>();
+    for (GitHubUser user : users) {
+      accountIdByGitHubLogin.put(user.login, accountIdByKey.get(cacheKey(user.login)));
+    }
+    return accountIdByGitHubLogin;
+  }
+
+  /**
+   * Find the Gerrit username of a GitHub user, without registering any account.
+   *
+   * @param login GitHub login
+   * @return username of the Gerrit account of the GitHub user, empty when the user has no Gerrit
+   *     account or the account has no username
+   * @throws IOException if the external ids cannot be read
+   */
+  public Optional<String> findUsername(String login) throws IOException {
+    return lookupAccount(login).flatMap(accountCache::get).flatMap(AccountState::userName);
+  }
+
+  private Account.Id getOrRegisterAccount(GitHubUser user)
+      throws IOException, ConfigInvalidException {
+    Optional<Account.Id> accountId = lookupAccount(user.login);
+    if (accountId.isPresent()) {
+      return accountId.get();
+    }
+
+    synchronized (this) {
+      // Another job may have registered the same user in the meantime
+      accountId = lookupAccount(user.login);
+      if (accountId.isPresent()) {
+        return accountId.get();
+      }
+      LOG.info("Registering new Gerrit account for GitHub user '{}'", user.login);
+      return accountImporter.importAccount(user.login, user.name, user.email);
+    }
+  }
+
+  /** A failure to read the external ids is not a missing account, which would be registered. */
+  private Optional<Account.Id> lookupAccount(String login) throws IOException {
+    return externalIds
+        .get(ExternalId.Key.create(ExternalId.SCHEME_GERRIT, login, userNameCaseInsensitive))
+        .map(ExternalId::accountId);
+  }
+
+  private String cacheKey(String login) {
+    return userNameCaseInsensitive ? login.toLowerCase(Locale.US) : login;
+  }
+}
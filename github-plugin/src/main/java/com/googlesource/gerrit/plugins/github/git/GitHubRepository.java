@@ -13,8 +13,8 @@
 // limitations under the License.
 package com.googlesource.gerrit.plugins.github.git;
 
-import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
 import com.googlesource.gerrit.plugins.github.GitHubURL;
 import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
 import com.googlesource.gerrit.plugins.github.oauth.ScopedProvider;
@@ -31,6 +31,11 @@ public class GitHubRepository extends GHRepository {
   public interface Factory {
     GitHubRepository create(
         @Assisted("organisation") String organisation, @Assisted("repository") String repository);
+
+    GitHubRepository create(
+        @Assisted("organisation") String organisation,
+        @Assisted("repository") String repository,
+        GitHubLogin ghLogin);
   }
 
   private final String organisation;
@@ -53,17 +58,26 @@ public class GitHubRepository extends GHRepository {
     return repository;
   }
 
-  @Inject
+  @AssistedInject
   public GitHubRepository(
       ScopedProvider<GitHubLogin> ghLoginProvider,
       @GitHubURL String gitHubUrl,
       @Assisted("organisation") String organisation,
       @Assisted("repository") String repository)
       throws IOException {
+    this(gitHubUrl, organisation, repository, ghLoginProvider.get());
+  }
+
+  @AssistedInject
+  public GitHubRepository(
+      @GitHubURL String gitHubUrl,
+      @Assisted("organisation") String organisation,
+      @Assisted("repository") String repository,
+      @Assisted GitHubLogin ghLogin)
+      throws IOException {
     this.cloneUrl = gitHubUrl + "/" + organisation + "/" + repository + ".git";
     this.organisation = organisation;
     this.repository = repository;
-    GitHubLogin ghLogin = ghLoginProvider.get();
     GitHub gh = ghLogin.getHub();
     this.username = ghLogin.getMyself().getLogin();
     this.password = ghLogin.getAccessToken();
@@ -0,0 +1,143 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import com.google.common.util.concurrent.Striped;
+import com.google.gerrit.extensions.annotations.PluginData;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.transport.RefSpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bare mirrors of GitHub repositories, kept under the plugin data directory.
+ *
+ * <p>Pull request heads are fetched incrementally from GitHub into the mirror and then fetched
+ * locally into the Gerrit repository. Their refs are removed from the mirror once the pull requests
+ * have been imported, whilst the branches are kept to speed up the next fetches.
+ */
+@Singleton
+public class GitHubRepositoryMirrors {
+  private static final Logger log = LoggerFactory.getLogger(GitHubRepositoryMirrors.class);
+  private static final String MIRRORS_DIR = "mirrors";
+  private static final RefSpec ALL_BRANCHES = new RefSpec("+refs/heads/*:refs/heads/*");
+
+  private final Path mirrorsDir;
+  private final boolean enabled;
+  private final Striped<Lock> mirrorLocks = Striped.lock(64);
+
+  @Inject
+  GitHubRepositoryMirrors(@PluginData Path pluginData, GitHubConfig config) {
+    this.mirrorsDir = pluginData.resolve(MIRRORS_DIR);
+    this.enabled = config.pullRequestMirror;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Fetch the heads of the pull requests from GitHub into the local mirror of the repository,
+   * creating the mirror when needed.
+   *
+   * @return the location of the mirror to fetch from
+   */
+  public Path fetchPullRequests(
+      GitHubRepository ghRepository, List<Integer> pullRequestIds, ProgressMonitor progressMonitor)
+      throws IOException, GitAPIException {
+    Path mirrorPath = mirrorPath(ghRepository.getOrganisation(), ghRepository.getRepository());
+    Lock mirrorLock = mirrorLocks.get(mirrorPath);
+    mirrorLock.lock();
+    try (Repository mirror = openOrCreate(mirrorPath);
+        Git git = Git.wrap(mirror)) {
+      List<RefSpec> refSpecs = new ArrayList<>();
+      refSpecs.add(ALL_BRANCHES);
+      for (int pullRequestId : pullRequestIds) {
+        refSpecs.add(
+            new RefSpec("+" + pullRequestRef(pullRequestId) + ":" + pullRequestRef(pullRequestId)));
+      }
+      git.fetch()
+          .setRemote(ghRepository.getCloneUrl())
+          .setRefSpecs(refSpecs)
+          .setProgressMonitor(progressMonitor)
+          .setCredentialsProvider(ghRepository.getCredentialsProvider())
+          .call();
+      return mirrorPath;
+    } finally {
+      mirrorLock.unlock();
+    }
+  }
+
+  /** Remove the ref of an imported pull request from the mirror of its repository, if any. */
+  public void prunePullRequest(String organisation, String repository, int pullRequestId)
+      throws IOException {
+    Path mirrorPath = mirrorPath(organisation, repository);
+    if (!Files.exists(mirrorPath)) {
+      return;
+    }
+    Lock mirrorLock = mirrorLocks.get(mirrorPath);
+    mirrorLock.lock();
+    try (Repository mirror = openOrCreate(mirrorPath)) {
+      String refName = pullRequestRef(pullRequestId);
+      if (mirror.exactRef(refName) == null) {
+        return;
+      }
+      RefUpdate refUpdate = mirror.updateRef(refName);
+      refUpdate.setForceUpdate(true);
+      RefUpdate.Result result = refUpdate.delete();
+      if (result != RefUpdate.Result.FORCED && result != RefUpdate.Result.NO_CHANGE) {
+        log.warn("Unable to delete {} from GitHub mirror {}: {}", refName, mirrorPath, result);
+      }
+    } finally {
+      mirrorLock.unlock();
+    }
+  }
+
+  public static String pullRequestRef(int pullRequestId) {
+    return "refs/pull/" + pullRequestId + "/head";
+  }
+
+  private Path mirrorPath(String organisation, String repository) throws IOException {
+    Path mirrorPath = mirrorsDir.resolve(organisation).resolve(repository + ".git").normalize();
+    if (!mirrorPath.startsWith(mirrorsDir)) {
+      throw new IOException("Invalid GitHub repository name " + organisation + "/" + repository);
+    }
+    return mirrorPath;
+  }
+
+  private static Repository openOrCreate(Path mirrorPath) throws IOException {
+    Repository mirror =
+        new FileRepositoryBuilder().setGitDir(mirrorPath.toFile()).setBare().build();
+    if (!Files.exists(mirrorPath)) {
+      log.info("Creating GitHub mirror repository {}", mirrorPath);
+      Files.createDirectories(mirrorPath.getParent());
+      mirror.create(true);
+    }
+    return mirror;
+  }
+}
@@ -0,0 +1,60 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import com.google.gerrit.entities.Change;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/** Gerrit changes created out of a GitHub pull request, as of its last imported head. */
+public class ImportedPullRequest {
+  private final int[] changeIds;
+  private final String lastHead;
+
+  public ImportedPullRequest(Set<Integer> changeIds, String lastHead) {
+    this.changeIds = changeIds.stream().mapToInt(Integer::intValue).toArray();
+    this.lastHead = lastHead;
+  }
+
+  public List<Change.Id> getChangeIds() {
+    return Arrays.stream(changeIds).mapToObj(Change::id).collect(Collectors.toList());
+  }
+
+  public String getLastHead() {
+    return lastHead;
+  }
+
+  public boolean isImportedAt(String headSha) {
+    return lastHead != null && lastHead.equals(headSha);
+  }
+
+  ImportedPullRequest withImport(List<Change.Id> newChangeIds, String headSha) {
+    Set<Integer> allChangeIds = new LinkedHashSet<>();
+    Arrays.stream(changeIds).forEach(allChangeIds::add);
+    newChangeIds.forEach(id -> allChangeIds.add(id.get()));
+    return new ImportedPullRequest(allChangeIds, headSha);
+  }
+
+  @Override
+  public String toString() {
+    return "ImportedPullRequest [changeIds="
+        + Arrays.toString(changeIds)
+        + ", lastHead="
+        + lastHead
+        + "]";
+  }
+}
@@ -0,0 +1,85 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.plugins.github.git;
+
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.server.cache.serialize.CacheSerializer;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binary layout of the {@link ImportedPullRequest} persisted in the pull requests cache.
+ *
+ * <p>Counts and change numbers are written as varints, the last imported head as a length-prefixed
+ * UTF-8 string, empty when unknown:
+ *
+ * <pre>
+ * format version
+ * changes count, change numbers...
+ * last head
+ * </pre>
+ */
+enum ImportedPullRequestSerializer implements CacheSerializer<ImportedPullRequest> {
+  INSTANCE;
+
+  private static final int FORMAT_VERSION = 1;
+
+  @Override
+  public byte[] serialize(ImportedPullRequest imported) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+      out.writeUInt32NoTag(FORMAT_VERSION);
+      List<Change.Id> changeIds = imported.getChangeIds();
+      out.writeUInt32NoTag(changeIds.size());
+      for (Change.Id changeId : changeIds) {
+        out.writeUInt32NoTag(changeId.get());
+      }
+      out.writeStringNoTag(imported.getLastHead() == null ? "" : imported.getLastHead());
+      out.flush();
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public ImportedPullRequest deserialize(byte[] in) {
+    try {
+      CodedInputStream input = CodedInputStream.newInstance(in);
+      int version = input.readUInt32();
+      if (version != FORMAT_VERSION) {
+        throw new IllegalArgumentException(
+            "Unsupported ImportedPullRequest format version " + version);
+      }
+
+      int changes = input.readUInt32();
+      Set<Integer> changeIds = new LinkedHashSet<>();
+      for (int i = 0; i < changes; i++) {
+        changeIds.add(input.readUInt32());
+      }
+      String lastHead = input.readString();
+      return new ImportedPullRequest(changeIds, lastHead.isEmpty() ? null : lastHead);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Failed to deserialize ImportedPullRequest", e);
+    }
+  }
+}
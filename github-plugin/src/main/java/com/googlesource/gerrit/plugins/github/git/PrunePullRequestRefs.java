@@ -0,0 +1,65 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import com.google.gerrit.extensions.restapi.AuthException;
+import com.google.gerrit.extensions.restapi.Response;
+import com.google.gerrit.extensions.restapi.RestModifyView;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.permissions.GlobalPermission;
+import com.google.gerrit.server.permissions.PermissionBackend;
+import com.google.gerrit.server.permissions.PermissionBackendException;
+import com.google.gerrit.server.project.ProjectResource;
+import com.google.inject.Inject;
+import java.io.IOException;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Maintenance REST endpoint pruning the leftover pull request refs of a project, but the ones still
+ * used by import jobs.
+ */
+public class PrunePullRequestRefs
+    implements RestModifyView<ProjectResource, PrunePullRequestRefs.Input> {
+  public static class Input {}
+
+  public static class Result {
+    public int pruned;
+  }
+
+  private final GitRepositoryManager repoManager;
+  private final PullRequestRefs pullRequestRefs;
+  private final PermissionBackend permissionBackend;
+
+  @Inject
+  public PrunePullRequestRefs(
+      GitRepositoryManager repoManager,
+      PullRequestRefs pullRequestRefs,
+      PermissionBackend permissionBackend) {
+    this.repoManager = repoManager;
+    this.pullRequestRefs = pullRequestRefs;
+    this.permissionBackend = permissionBackend;
+  }
+
+  @Override
+  public Response<Result> apply(ProjectResource resource, Input input)
+      throws AuthException, PermissionBackendException, IOException {
+    permissionBackend.currentUser().check(GlobalPermission.ADMINISTRATE_SERVER);
+
+    Result result = new Result();
+    try (Repository gitRepo = repoManager.openRepository(resource.getNameKey())) {
+      result.pruned = pullRequestRefs.prune(resource.getNameKey(), gitRepo);
+    }
+    return Response.ok(result);
+  }
+}
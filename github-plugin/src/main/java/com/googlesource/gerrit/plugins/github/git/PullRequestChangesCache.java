@@ -0,0 +1,119 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import com.google.common.cache.Cache;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.extensions.common.ChangeInfo;
+import com.google.gerrit.extensions.events.ChangeDeletedListener;
+import com.google.gerrit.extensions.registration.DynamicSet;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.cache.serialize.StringCacheSerializer;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persistent mapping of GitHub pull requests to the Gerrit changes imported from them.
+ *
+ * <p>Keyed by {@code organisation/repository#number}, it allows to tell whether a pull request head
+ * has been already imported without going through the change index.
+ *
+ * <p>The entry of a pull request is dropped when any of its changes is deleted, so that the pull
+ * request can be imported again. Entries not updated for {@value #CACHE_MAX_AGE_DAYS} days are
+ * dropped as well, so that the pull requests left untouched on GitHub do not grow the cache
+ * forever: importing them again goes back to comparing the fetched commits with the existing
+ * changes.
+ */
+@Singleton
+public class PullRequestChangesCache implements ChangeDeletedListener {
+  private static final String CACHE_NAME = "pull_requests";
+  private static final long CACHE_MAX_AGE_DAYS = 90;
+  private static final long CACHE_DISK_LIMIT_BYTES = 64L << 20;
+
+  public static Module module() {
+    return new CacheModule() {
+      @Override
+      protected void configure() {
+        persist(CACHE_NAME, String.class, ImportedPullRequest.class)
+            .version(1)
+            .keySerializer(StringCacheSerializer.INSTANCE)
+            .valueSerializer(ImportedPullRequestSerializer.INSTANCE)
+            .expireAfterWrite(Duration.ofDays(CACHE_MAX_AGE_DAYS))
+            .diskLimit(CACHE_DISK_LIMIT_BYTES);
+        bind(PullRequestChangesCache.class);
+        DynamicSet.bind(binder(), ChangeDeletedListener.class).to(PullRequestChangesCache.class);
+      }
+    };
+  }
+
+  private final Cache<String, ImportedPullRequest> byPullRequest;
+
+  @Inject
+  PullRequestChangesCache(@Named(CACHE_NAME) Cache<String, ImportedPullRequest> byPullRequest) {
+    this.byPullRequest = byPullRequest;
+  }
+
+  public Optional<ImportedPullRequest> get(String organisation, String repository, int prNumber) {
+    return Optional.ofNullable(byPullRequest.getIfPresent(key(organisation, repository, prNumber)));
+  }
+
+  public boolean isImported(String organisation, String repository, int prNumber, String headSha) {
+    return get(organisation, repository, prNumber)
+        .map(imported -> imported.isImportedAt(headSha))
+        .orElse(false);
+  }
+
+  public synchronized void put(
+      String organisation,
+      String repository,
+      int prNumber,
+      String headSha,
+      List<Change.Id> changeIds) {
+    if (changeIds.isEmpty()) {
+      return;
+    }
+    String key = key(organisation, repository, prNumber);
+    ImportedPullRequest imported =
+        Optional.ofNullable(byPullRequest.getIfPresent(key))
+            .orElseGet(() -> new ImportedPullRequest(Collections.emptySet(), null));
+    byPullRequest.put(key, imported.withImport(changeIds, headSha));
+  }
+
+  public void invalidate(String organisation, String repository, int prNumber) {
+    byPullRequest.invalidate(key(organisation, repository, prNumber));
+  }
+
+  @Override
+  public void onChangeDeleted(ChangeDeletedListener.Event event) {
+    ChangeInfo change = event.getChange();
+    int separator = change.project.indexOf('/');
+    Optional<Integer> prNumber = PullRequestLifecycle.pullRequestNumber(change.topic);
+    if (separator > 0 && prNumber.isPresent()) {
+      invalidate(
+          change.project.substring(0, separator),
+          change.project.substring(separator + 1),
+          prNumber.get());
+    }
+  }
+
+  private static String key(String organisation, String repository, int prNumber) {
+    return organisation + "/" + repository + "#" + prNumber;
+  }
+}
@@ -20,42 +20,28 @@ import com.google.gerrit.entities.Account;
 import com.google.gerrit.entities.Change.Id;
 import com.google.gerrit.entities.Project;
 import com.google.gerrit.entities.Project.NameKey;
-import com.google.gerrit.extensions.restapi.BadRequestException;
-import com.google.gerrit.extensions.restapi.ResourceConflictException;
-import com.google.gerrit.extensions.restapi.UnprocessableEntityException;
-import com.google.gerrit.server.account.AccountImporter;
-import com.google.gerrit.server.account.externalids.ExternalId;
-import com.google.gerrit.server.account.externalids.ExternalIds;
-import com.google.gerrit.server.config.AuthConfig;
 import com.google.gerrit.server.git.GitRepositoryManager;
 import com.google.gerrit.server.project.ProjectCache;
 import com.google.gerrit.server.project.ProjectState;
-import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
 import com.googlesource.gerrit.plugins.github.git.GitJobStatus.Code;
 import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
 import com.googlesource.gerrit.plugins.github.oauth.ScopedProvider;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import org.eclipse.jgit.api.FetchCommand;
-import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
-import org.eclipse.jgit.api.errors.InvalidRemoteException;
-import org.eclipse.jgit.api.errors.TransportException;
-import org.eclipse.jgit.errors.ConfigInvalidException;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ProgressMonitor;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevSort;
 import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.transport.RefSpec;
 import org.kohsuke.github.GHPullRequest;
 import org.kohsuke.github.GHPullRequestCommitDetail;
 import org.kohsuke.github.GHRepository;
-import org.kohsuke.github.GHUser;
-import org.kohsuke.github.GitUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -67,55 +53,101 @@ public class PullRequestImportJob implements GitJob, ProgressMonitor {
         @Assisted("organisation") String organisation,
         @Assisted("name") String repository,
         @Assisted int pullRequestId,
-        @Assisted PullRequestImportType importType);
+        @Assisted PullRequestsFetch pullRequestsFetch);
+
+    PullRequestImportJob create(
+        @Assisted("index") int jobIndex,
+        @Assisted("organisation") String organisation,
+        @Assisted("name") String repository,
+        @Assisted int pullRequestId,
+        @Assisted PullRequestsFetch pullRequestsFetch,
+        @Assisted GitHubLogin ghLogin);
   }
 
   private static final Logger LOG = LoggerFactory.getLogger(PullRequestImportJob.class);
 
-  private static final String TOPIC_FORMAT = "GitHub #%d";
-
   private final GitHubRepository ghRepository;
   private final GitHubLogin ghLogin;
   private final String organisation;
   private final String repoName;
   private final int prId;
   private final GitRepositoryManager repoMgr;
-  private final AuthConfig authConfig;
   private final int jobIndex;
-  private final ExternalIds externalIds;
+  private final GitHubAccountResolver accountResolver;
+  private final PullRequestChangesCache pullRequestChangesCache;
+  private final PullRequestsFetch pullRequestsFetch;
+  private final GitHubRepositoryMirrors mirrors;
+  private final PullRequestRefs pullRequestRefs;
   private PullRequestCreateChange createChange;
   private Optional<Project> project;
   private GitJobStatus status;
-  private boolean cancelRequested;
-  private AccountImporter accountImporter;
+  private volatile boolean cancelRequested;
 
-  @Inject
+  @AssistedInject
   public PullRequestImportJob(
       GitRepositoryManager repoMgr,
       PullRequestCreateChange createChange,
       ProjectCache projectCache,
-      AccountImporter accountImporter,
+      GitHubAccountResolver accountResolver,
       GitHubRepository.Factory gitHubRepoFactory,
       ScopedProvider<GitHubLogin> ghLoginProvider,
-      ExternalIds externalIds,
-      AuthConfig authConfig,
+      PullRequestChangesCache pullRequestChangesCache,
+      GitHubRepositoryMirrors mirrors,
+      PullRequestRefs pullRequestRefs,
       @Assisted("index") int jobIndex,
       @Assisted("organisation") String organisation,
       @Assisted("name") String repoName,
-      @Assisted int pullRequestId) {
-    this.authConfig = authConfig;
+      @Assisted int pullRequestId,
+      @Assisted PullRequestsFetch pullRequestsFetch) {
+    this(
+        repoMgr,
+        createChange,
+        projectCache,
+        accountResolver,
+        gitHubRepoFactory,
+        pullRequestChangesCache,
+        mirrors,
+        pullRequestRefs,
+        jobIndex,
+        organisation,
+        repoName,
+        pullRequestId,
+        pullRequestsFetch,
+        ghLoginProvider.get());
+  }
+
+  /** Import job running on behalf of an explicit GitHub login, outside of any HTTP session. */
+  @AssistedInject
+  public PullRequestImportJob(
+      GitRepositoryManager repoMgr,
+      PullRequestCreateChange createChange,
+      ProjectCache projectCache,
+      GitHubAccountResolver accountResolver,
+      GitHubRepository.Factory gitHubRepoFactory,
+      PullRequestChangesCache pullRequestChangesCache,
+      GitHubRepositoryMirrors mirrors,
+      PullRequestRefs pullRequestRefs,
+      @Assisted("index") int jobIndex,
+      @Assisted("organisation") String organisation,
+      @Assisted("name") String repoName,
+      @Assisted int pullRequestId,
+      @Assisted PullRequestsFetch pullRequestsFetch,
+      @Assisted GitHubLogin ghLogin) {
     this.jobIndex = jobIndex;
     this.repoMgr = repoMgr;
-    this.ghLogin = ghLoginProvider.get();
+    this.ghLogin = ghLogin;
     this.organisation = organisation;
     this.repoName = repoName;
     this.prId = pullRequestId;
     this.createChange = createChange;
     this.project = fetchGerritProject(projectCache, organisation, repoName);
-    this.ghRepository = gitHubRepoFactory.create(organisation, repoName);
+    this.ghRepository = gitHubRepoFactory.create(organisation, repoName, ghLogin);
     this.status = new GitJobStatus(jobIndex);
-    this.accountImporter = accountImporter;
-    this.externalIds = externalIds;
+    this.accountResolver = accountResolver;
+    this.pullRequestChangesCache = pullRequestChangesCache;
+    this.pullRequestsFetch = pullRequestsFetch;
+    this.mirrors = mirrors;
+    this.pullRequestRefs = pullRequestRefs;
   }
 
   private Optional<Project> fetchGerritProject(
@@ -126,19 +158,32 @@ public class PullRequestImportJob implements GitJob, ProgressMonitor {
 
   @Override
   public void run() {
+    pullRequestRefs.register(this);
     try {
       status.update(GitJobStatus.Code.SYNC);
       exitWhenCancelled();
       GHPullRequest pr = fetchGitHubPullRequestInfo();
+      Optional<ImportedPullRequest> imported =
+          pullRequestChangesCache.get(organisation, repoName, prId);
+      if (imported.isPresent() && imported.get().isImportedAt(pr.getHead().getSha())) {
+        status.update(
+            GitJobStatus.Code.COMPLETE,
+            "Imported",
+            "PullRequest already imported as Changes " + imported.get().getChangeIds());
+        return;
+      }
 
       exitWhenCancelled();
-      try (Repository gitRepo =
-          repoMgr.openRepository(Project.nameKey(organisation + "/" + repoName))) {
+      try (Repository gitRepo = openRepository()) {
         exitWhenCancelled();
         fetchGitHubPullRequest(gitRepo, pr);
 
         exitWhenCancelled();
         List<Id> changeIds = addPullRequestToChange(pr, gitRepo);
+        pullRequestChangesCache.put(organisation, repoName, prId, pr.getHead().getSha(), changeIds);
+        if (mirrors.isEnabled()) {
+          mirrors.prunePullRequest(organisation, repoName, prId);
+        }
         status.update(
             GitJobStatus.Code.COMPLETE, "Imported", "PullRequest imported as Changes " + changeIds);
       }
@@ -154,10 +199,38 @@ public class PullRequestImportJob implements GitJob, ProgressMonitor {
               + repoName
               + " was failed",
           e);
+      pullRequestChangesCache.invalidate(organisation, repoName, prId);
       status.update(GitJobStatus.Code.FAILED, "Failed", e.getLocalizedMessage());
+    } finally {
+      deletePullRequestRef();
+      pullRequestRefs.unregister(this);
     }
   }
 
+  /**
+   * The head of the pull request may have been fetched for another job of the same shared fetch,
+   * whatever the outcome of this one: its ref is deleted once the import is over.
+   */
+  private void deletePullRequestRef() {
+    if (!pullRequestsFetch.done(prId)) {
+      return;
+    }
+    try (Repository gitRepo = openRepository()) {
+      pullRequestRefs.delete(gitRepo, prId);
+    } catch (IOException e) {
+      LOG.warn(
+          "Unable to delete the ref of pull request {} from repository {}/{}",
+          prId,
+          organisation,
+          repoName,
+          e);
+    }
+  }
+
+  private Repository openRepository() throws IOException {
+    return repoMgr.openRepository(Project.nameKey(organisation + "/" + repoName));
+  }
+
   private List<Id> addPullRequestToChange(GHPullRequest pr, Repository gitRepo) throws Exception {
     String destinationBranch = REFS_HEADS + pr.getBase().getRef();
     List<Id> prChanges = Lists.newArrayList();
@@ -169,19 +242,24 @@ public class PullRequestImportJob implements GitJob, ProgressMonitor {
       walk.markStart(walk.lookupCommit(prHeadObjectId));
       walk.sort(RevSort.REVERSE);
 
+      List<GHPullRequestCommitDetail> ghCommitDetails = pr.listCommits().toList();
+      List<GitHubUser> gitHubUsers = Lists.newArrayList();
+      for (GHPullRequestCommitDetail ghCommitDetail : ghCommitDetails) {
+        gitHubUsers.add(GitHubUser.from(pr.getUser(), ghCommitDetail.getCommit().getAuthor()));
+      }
+      status.update(Code.SYNC, "Accounts", "Resolving Gerrit accounts of PullRequest authors");
+      Map<String, Account.Id> accountIdByLogin = accountResolver.resolve(gitHubUsers);
+
       int patchNr = 1;
-      for (GHPullRequestCommitDetail ghCommitDetail : pr.listCommits()) {
+      for (int i = 0; i < ghCommitDetails.size(); i++) {
+        GHPullRequestCommitDetail ghCommitDetail = ghCommitDetails.get(i);
         status.update(
             Code.SYNC,
             "Patch #" + patchNr,
             "Patch#" + patchNr + ": Inserting PullRequest into Gerrit");
         RevCommit revCommit = walk.parseCommit(ObjectId.fromString(ghCommitDetail.getSha()));
 
-        GHUser prUser = pr.getUser();
-        GitUser commitAuthor = ghCommitDetail.getCommit().getAuthor();
-        GitHubUser gitHubUser = GitHubUser.from(prUser, commitAuthor);
-
-        Account.Id pullRequestOwner = getOrRegisterAccount(gitHubUser);
+        Account.Id pullRequestOwner = accountIdByLogin.get(gitHubUsers.get(i).login);
         if (project.isPresent()) {
           Id changeId =
               createChange.addCommitToChange(
@@ -191,7 +269,7 @@ public class PullRequestImportJob implements GitJob, ProgressMonitor {
                   pullRequestOwner,
                   revCommit,
                   getChangeMessage(pr),
-                  String.format(TOPIC_FORMAT, Integer.valueOf(pr.getNumber())));
+                  PullRequestLifecycle.topic(pr.getNumber()));
           if (changeId != null) {
             prChanges.add(changeId);
           }
@@ -202,39 +280,6 @@ public class PullRequestImportJob implements GitJob, ProgressMonitor {
     }
   }
 
-  private com.google.gerrit.entities.Account.Id getOrRegisterAccount(GitHubUser author)
-      throws BadRequestException,
-          ResourceConflictException,
-          UnprocessableEntityException,
-          IOException,
-          ConfigInvalidException {
-    return getOrRegisterAccount(author.login, author.name, author.email);
-  }
-
-  private com.google.gerrit.entities.Account.Id getOrRegisterAccount(
-      String login, String name, String email)
-      throws BadRequestException,
-          ResourceConflictException,
-          UnprocessableEntityException,
-          IOException,
-          ConfigInvalidException {
-    Optional<ExternalId> gerritId = externalIdByScheme(ExternalId.SCHEME_GERRIT, login);
-    if (gerritId.isPresent()) {
-      return gerritId.get().accountId();
-    }
-    return accountImporter.importAccount(login, name, email);
-  }
-
-  private Optional<ExternalId> externalIdByScheme(String scheme, String id) {
-    try {
-      return externalIds.get(
-          ExternalId.Key.create(scheme, id, authConfig.isUserNameCaseInsensitive()));
-    } catch (IOException e) {
-      LOG.error("Unable to get external id for " + scheme + ":" + id, e);
-      return Optional.empty();
-    }
-  }
-
   private String getChangeMessage(GHPullRequest pr) {
     return "GitHub Pull Request: "
         + pr.getHtmlUrl()
@@ -251,19 +296,9 @@ public class PullRequestImportJob implements GitJob, ProgressMonitor {
   }
 
   private void fetchGitHubPullRequest(Repository gitRepo, GHPullRequest pr)
-      throws GitAPIException, InvalidRemoteException, TransportException {
+      throws IOException, GitAPIException {
     status.update(Code.SYNC, "Fetching", "Fetching PullRequests from GitHub");
-
-    try (Git git = Git.wrap(gitRepo)) {
-      FetchCommand fetch = git.fetch();
-      fetch.setRemote(ghRepository.getCloneUrl());
-      fetch.setRefSpecs(
-          new RefSpec(
-              "+refs/pull/" + pr.getNumber() + "/head:refs/remotes/origin/pr/" + pr.getNumber()));
-      fetch.setProgressMonitor(this);
-      fetch.setCredentialsProvider(ghRepository.getCredentialsProvider());
-      fetch.call();
-    }
+    pullRequestsFetch.fetch(prId, gitRepo, ghRepository, mirrors, this);
   }
 
   private GHPullRequest fetchGitHubPullRequestInfo() throws IOException {
@@ -287,6 +322,10 @@ public class PullRequestImportJob implements GitJob, ProgressMonitor {
     return organisation;
   }
 
+  public int getPullRequestId() {
+    return prId;
+  }
+
   public GHRepository getGHRepository() throws IOException {
     if (ghLogin.getMyself().getLogin().equals(organisation)) {
       return ghLogin.getMyself().getRepository(repoName);
@@ -24,12 +24,22 @@ public class PullRequestImporter extends BatchImporter {
   private static final Logger log = LoggerFactory.getLogger(PullRequestImporter.class);
 
   private final PullRequestImportJob.Factory prImportJobProvider;
+  private final PullRequestRefs pullRequestRefs;
 
   @Inject
   public PullRequestImporter(
-      JobExecutor executor, IdentifiedUser user, PullRequestImportJob.Factory prImportJobProvider) {
+      JobExecutor executor,
+      IdentifiedUser user,
+      PullRequestImportJob.Factory prImportJobProvider,
+      PullRequestRefs pullRequestRefs) {
     super(executor, user);
     this.prImportJobProvider = prImportJobProvider;
+    this.pullRequestRefs = pullRequestRefs;
+  }
+
+  public void importPullRequest(int idx, String organisation, String repoName, int pullRequestId) {
+    importPullRequest(
+        idx, organisation, repoName, pullRequestId, PullRequestsFetch.single(pullRequestId));
   }
 
   public void importPullRequest(
@@ -37,11 +47,13 @@ public class PullRequestImporter extends BatchImporter {
       String organisation,
       String repoName,
       int pullRequestId,
-      PullRequestImportType importType) {
+      PullRequestsFetch pullRequestsFetch) {
     try {
       PullRequestImportJob pullRequestImportJob =
-          prImportJobProvider.create(idx, organisation, repoName, pullRequestId, importType);
+          prImportJobProvider.create(idx, organisation, repoName, pullRequestId, pullRequestsFetch);
       log.debug("New Pull request import job created: " + pullRequestImportJob);
+      // Queued jobs may already have their pull request fetched by another job
+      pullRequestRefs.register(pullRequestImportJob);
       schedule(idx, pullRequestImportJob);
     } catch (Throwable e) {
       schedule(idx, new ErrorJob(idx, organisation, repoName, e));
@@ -0,0 +1,221 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.PatchSet;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.restapi.RestApiException;
+import com.google.gerrit.index.query.Predicate;
+import com.google.gerrit.server.ChangeMessagesUtil;
+import com.google.gerrit.server.IdentifiedUser;
+import com.google.gerrit.server.change.AbandonOp;
+import com.google.gerrit.server.change.WorkInProgressOp;
+import com.google.gerrit.server.extensions.events.ChangeRestored;
+import com.google.gerrit.server.query.change.ChangeData;
+import com.google.gerrit.server.query.change.ChangePredicates;
+import com.google.gerrit.server.query.change.InternalChangeQuery;
+import com.google.gerrit.server.update.BatchUpdate;
+import com.google.gerrit.server.update.BatchUpdateOp;
+import com.google.gerrit.server.update.ChangeContext;
+import com.google.gerrit.server.update.PostUpdateContext;
+import com.google.gerrit.server.update.UpdateException;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies the lifecycle of a GitHub pull request to the Gerrit changes imported from it.
+ *
+ * <p>The changes are found by the topic of the pull request and updated with a single {@link
+ * BatchUpdate} per pull request.
+ */
+@Singleton
+public class PullRequestLifecycle {
+  private static final Logger logger = LoggerFactory.getLogger(PullRequestLifecycle.class);
+  private static final String TOPIC_PREFIX = "GitHub #";
+  private static final String TOPIC_FORMAT = TOPIC_PREFIX + "%d";
+  private static final String TAG_PULL_REQUEST =
+      ChangeMessagesUtil.AUTOGENERATED_TAG_PREFIX + "github:pull-request";
+
+  private final Provider<InternalChangeQuery> queryProvider;
+  private final BatchUpdate.Factory updateFactory;
+  private final Provider<IdentifiedUser> identifiedUser;
+  private final AbandonOp.Factory abandonOpFactory;
+  private final WorkInProgressOp.Factory wipOpFactory;
+  private final ChangeMessagesUtil cmUtil;
+  private final ChangeRestored changeRestored;
+
+  @Inject
+  PullRequestLifecycle(
+      Provider<InternalChangeQuery> queryProvider,
+      BatchUpdate.Factory updateFactory,
+      Provider<IdentifiedUser> identifiedUser,
+      AbandonOp.Factory abandonOpFactory,
+      WorkInProgressOp.Factory wipOpFactory,
+      ChangeMessagesUtil cmUtil,
+      ChangeRestored changeRestored) {
+    this.queryProvider = queryProvider;
+    this.updateFactory = updateFactory;
+    this.identifiedUser = identifiedUser;
+    this.abandonOpFactory = abandonOpFactory;
+    this.wipOpFactory = wipOpFactory;
+    this.cmUtil = cmUtil;
+    this.changeRestored = changeRestored;
+  }
+
+  /** Topic of the changes imported from a pull request. */
+  public static String topic(int prNumber) {
+    return String.format(TOPIC_FORMAT, Integer.valueOf(prNumber));
+  }
+
+  /** Number of the pull request a change has been imported from, out of its topic. */
+  public static Optional<Integer> pullRequestNumber(String topic) {
+    if (topic == null || !topic.startsWith(TOPIC_PREFIX)) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(Integer.valueOf(topic.substring(TOPIC_PREFIX.length())));
+    } catch (NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Abandon the open changes of a closed pull request.
+   *
+   * @return number of changes abandoned
+   */
+  public int abandon(Project.NameKey project, int prNumber, String message) throws IOException {
+    return update(
+        project,
+        prNumber,
+        cd -> cd.change().isNew(),
+        cd -> abandonOpFactory.create(identifiedUser.get().state(), message));
+  }
+
+  /**
+   * Restore the abandoned changes of a reopened pull request.
+   *
+   * @return number of changes restored
+   */
+  public int restore(Project.NameKey project, int prNumber, String message) throws IOException {
+    return update(project, prNumber, cd -> cd.change().isAbandoned(), cd -> new RestoreOp(message));
+  }
+
+  /**
+   * Add a message to the open changes of an edited pull request.
+   *
+   * @return number of changes updated
+   */
+  public int addMessage(Project.NameKey project, int prNumber, String message) throws IOException {
+    return update(project, prNumber, cd -> cd.change().isNew(), cd -> new MessageOp(message));
+  }
+
+  /**
+   * Set the open changes of a pull request as work in progress, or ready for review.
+   *
+   * @return number of changes updated
+   */
+  public int setWorkInProgress(Project.NameKey project, int prNumber, boolean workInProgress)
+      throws IOException {
+    return update(
+        project,
+        prNumber,
+        cd -> cd.change().isNew() && cd.change().isWorkInProgress() != workInProgress,
+        cd -> wipOpFactory.create(workInProgress, new WorkInProgressOp.Input()));
+  }
+
+  private int update(
+      Project.NameKey project,
+      int prNumber,
+      java.util.function.Predicate<ChangeData> filter,
+      Function<ChangeData, BatchUpdateOp> opFactory)
+      throws IOException {
+    String topic = topic(prNumber);
+    List<ChangeData> changes =
+        queryProvider
+            .get()
+            .query(
+                Predicate.and(
+                    ChangePredicates.project(project), ChangePredicates.exactTopic(topic)))
+            .stream()
+            .filter(filter)
+            .collect(Collectors.toList());
+    if (changes.isEmpty()) {
+      return 0;
+    }
+
+    try (BatchUpdate bu = updateFactory.create(project, identifiedUser.get(), Instant.now())) {
+      for (ChangeData cd : changes) {
+        bu.addOp(cd.getId(), opFactory.apply(cd));
+      }
+      bu.execute();
+    } catch (UpdateException | RestApiException e) {
+      throw new IOException("Unable to update the changes of " + project + " " + topic, e);
+    }
+    logger.info("Updated {} changes of {} {}", changes.size(), project, topic);
+    return changes.size();
+  }
+
+  private class RestoreOp implements BatchUpdateOp {
+    private final String message;
+    private Change change;
+    private PatchSet patchSet;
+
+    RestoreOp(String message) {
+      this.message = message;
+    }
+
+    @Override
+    public boolean updateChange(ChangeContext ctx) {
+      change = ctx.getChange();
+      if (!change.isAbandoned()) {
+        return false;
+      }
+      patchSet = ctx.getNotes().getCurrentPatchSet();
+      ctx.getUpdate(change.currentPatchSetId()).setStatus(Change.Status.NEW);
+      cmUtil.setChangeMessage(ctx, "Restored\n\n" + message, ChangeMessagesUtil.TAG_RESTORE);
+      return true;
+    }
+
+    @Override
+    public void postUpdate(PostUpdateContext ctx) {
+      changeRestored.fire(
+          ctx.getChangeData(change), patchSet, ctx.getAccount(), message, ctx.getWhen());
+    }
+  }
+
+  private class MessageOp implements BatchUpdateOp {
+    private final String message;
+
+    MessageOp(String message) {
+      this.message = message;
+    }
+
+    @Override
+    public boolean updateChange(ChangeContext ctx) {
+      cmUtil.setChangeMessage(ctx, message, TAG_PULL_REQUEST);
+      return true;
+    }
+  }
+}
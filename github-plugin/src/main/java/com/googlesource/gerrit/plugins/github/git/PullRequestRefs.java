@@ -0,0 +1,130 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import com.google.gerrit.entities.Project;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.eclipse.jgit.lib.BatchRefUpdate;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.ReceiveCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Lifecycle of the refs created in the Gerrit repositories when fetching pull requests. */
+@Singleton
+public class PullRequestRefs {
+  private static final Logger log = LoggerFactory.getLogger(PullRequestRefs.class);
+
+  public static final String PULL_REQUEST_REFS_PREFIX = "refs/remotes/origin/pr/";
+
+  /** Import jobs queued or running, whose pull request refs are not to be pruned. */
+  private final Set<PullRequestImportJob> importJobs = ConcurrentHashMap.newKeySet();
+
+  public static String localRef(int pullRequestId) {
+    return PULL_REQUEST_REFS_PREFIX + pullRequestId;
+  }
+
+  /** The ref of the pull request of the job is in use until the job is unregistered. */
+  void register(PullRequestImportJob importJob) {
+    importJobs.add(importJob);
+  }
+
+  void unregister(PullRequestImportJob importJob) {
+    importJobs.remove(importJob);
+  }
+
+  /** Delete the ref of a pull request whose changes have been created, if it exists. */
+  public void delete(Repository gitRepo, int pullRequestId) throws IOException {
+    String refName = localRef(pullRequestId);
+    Ref ref = gitRepo.exactRef(refName);
+    if (ref == null) {
+      return;
+    }
+
+    RefUpdate refUpdate = gitRepo.updateRef(refName);
+    refUpdate.setExpectedOldObjectId(ref.getObjectId());
+    refUpdate.setForceUpdate(true);
+    RefUpdate.Result result = refUpdate.delete();
+    switch (result) {
+      case FORCED:
+      case NO_CHANGE:
+        log.debug("Deleted pull request ref {} from {}", refName, gitRepo.getDirectory());
+        break;
+      default:
+        log.warn(
+            "Unable to delete pull request ref {} from {}: {}",
+            refName,
+            gitRepo.getDirectory(),
+            result);
+    }
+  }
+
+  /**
+   * Delete all the pull request refs left in the repository with a single batch update, but the
+   * ones of the import jobs queued or running.
+   *
+   * @return number of refs deleted
+   */
+  public int prune(Project.NameKey project, Repository gitRepo) throws IOException {
+    List<Ref> refs = gitRepo.getRefDatabase().getRefsByPrefix(PULL_REQUEST_REFS_PREFIX);
+    // Listed after the refs, so that the refs fetched in the meantime are also in use
+    Set<String> refsInUse =
+        importJobs.stream()
+            .filter(job -> project.get().equals(job.getOrganisation() + "/" + job.getRepository()))
+            .map(job -> localRef(job.getPullRequestId()))
+            .collect(Collectors.toSet());
+    refs =
+        refs.stream()
+            .filter(ref -> !refsInUse.contains(ref.getName()))
+            .collect(Collectors.toList());
+    if (refs.isEmpty()) {
+      return 0;
+    }
+
+    BatchRefUpdate batchUpdate = gitRepo.getRefDatabase().newBatchUpdate();
+    batchUpdate.setAtomic(false);
+    for (Ref ref : refs) {
+      batchUpdate.addCommand(
+          new ReceiveCommand(ref.getObjectId(), ObjectId.zeroId(), ref.getName()));
+    }
+    try (RevWalk walk = new RevWalk(gitRepo)) {
+      batchUpdate.execute(walk, NullProgressMonitor.INSTANCE);
+    }
+
+    int pruned = 0;
+    for (ReceiveCommand command : batchUpdate.getCommands()) {
+      if (command.getResult() == ReceiveCommand.Result.OK) {
+        pruned++;
+      } else {
+        log.warn(
+            "Unable to prune pull request ref {} from {}: {}",
+            command.getRefName(),
+            gitRepo.getDirectory(),
+            command.getResult());
+      }
+    }
+    log.info("Pruned {} pull request refs from {}", pruned, gitRepo.getDirectory());
+    return pruned;
+  }
+}
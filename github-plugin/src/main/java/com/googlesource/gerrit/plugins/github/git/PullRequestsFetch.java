@@ -0,0 +1,200 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Sets;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.eclipse.jgit.api.FetchCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.transport.RefSpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fetch of the heads of a set of pull requests of the same repository.
+ *
+ * <p>The fetch is shared by all the import jobs of the pull requests: the first job that needs it
+ * fetches all the heads with a single negotiation and pack transfer, the others reuse its outcome.
+ * When one of the heads cannot be fetched, e.g. because GitHub does not advertise it anymore, the
+ * heads are fetched again one at a time, so that only the import of that pull request fails. When
+ * the repository mirrors are enabled, the heads are fetched through the local mirror of the GitHub
+ * repository. Either way each head is fetched into a temporary {@link PullRequestRefs} ref of the
+ * Gerrit repository, which keeps its objects until the changes are created.
+ *
+ * <p>The jobs tell when their import is over with {@link #done(int)}, so that the heads of the pull
+ * requests already imported are left out of a fetch that did not happen yet.
+ */
+public class PullRequestsFetch {
+  private static final Logger log = LoggerFactory.getLogger(PullRequestsFetch.class);
+
+  private final ImmutableSortedSet<Integer> pullRequestIds;
+  private final Map<Integer, Exception> fetchFailures = new HashMap<>();
+  private final Set<Integer> done = new HashSet<>();
+  private boolean fetched;
+
+  public PullRequestsFetch(Collection<Integer> pullRequestIds) {
+    this.pullRequestIds = ImmutableSortedSet.copyOf(pullRequestIds);
+  }
+
+  public static PullRequestsFetch single(int pullRequestId) {
+    return new PullRequestsFetch(List.of(pullRequestId));
+  }
+
+  public synchronized void fetch(
+      int pullRequestId,
+      Repository gitRepo,
+      GitHubRepository ghRepository,
+      GitHubRepositoryMirrors mirrors,
+      ProgressMonitor progressMonitor)
+      throws IOException, GitAPIException {
+    if (!fetched) {
+      ImmutableSortedSet<Integer> ids =
+          ImmutableSortedSet.copyOf(Sets.difference(pullRequestIds, done));
+      try {
+        fetch(ids, gitRepo, ghRepository, mirrors, progressMonitor);
+      } catch (IOException | GitAPIException e) {
+        // A fetch interrupted by the cancellation of one job can be retried by the other ones
+        if (progressMonitor.isCancelled()) {
+          throw e;
+        }
+        if (ids.size() == 1) {
+          fetchFailures.put(ids.first(), e);
+        } else {
+          log.warn(
+              "Unable to fetch pull requests {} of {} together: fetching them one at a time",
+              ids,
+              ghRepository.getCloneUrl(),
+              e);
+          fetchSeparately(ids, gitRepo, ghRepository, mirrors, progressMonitor, e);
+        }
+      }
+      fetched = true;
+    }
+
+    Exception fetchFailure = fetchFailures.get(pullRequestId);
+    if (fetchFailure instanceof IOException) {
+      throw (IOException) fetchFailure;
+    } else if (fetchFailure instanceof GitAPIException) {
+      throw (GitAPIException) fetchFailure;
+    }
+  }
+
+  /**
+   * The import of a pull request is over, whatever its outcome.
+   *
+   * @return true if its head may have been fetched, and its ref is to be deleted
+   */
+  public synchronized boolean done(int pullRequestId) {
+    done.add(pullRequestId);
+    return fetched;
+  }
+
+  private void fetchSeparately(
+      ImmutableSortedSet<Integer> ids,
+      Repository gitRepo,
+      GitHubRepository ghRepository,
+      GitHubRepositoryMirrors mirrors,
+      ProgressMonitor progressMonitor,
+      Exception groupFailure)
+      throws IOException, GitAPIException {
+    Map<Integer, Exception> failures = new HashMap<>();
+    for (int pullRequestId : ids) {
+      try {
+        fetch(
+            ImmutableSortedSet.of(pullRequestId), gitRepo, ghRepository, mirrors, progressMonitor);
+      } catch (IOException | GitAPIException e) {
+        failures.put(pullRequestId, e);
+      }
+    }
+    if (progressMonitor.isCancelled()) {
+      if (groupFailure instanceof IOException) {
+        throw (IOException) groupFailure;
+      }
+      throw (GitAPIException) groupFailure;
+    }
+    fetchFailures.putAll(failures);
+  }
+
+  private void fetch(
+      ImmutableSortedSet<Integer> ids,
+      Repository gitRepo,
+      GitHubRepository ghRepository,
+      GitHubRepositoryMirrors mirrors,
+      ProgressMonitor progressMonitor)
+      throws IOException, GitAPIException {
+    if (mirrors.isEnabled()) {
+      fetchThroughMirror(ids, gitRepo, ghRepository, mirrors, progressMonitor);
+    } else {
+      fetchFromGitHub(ids, gitRepo, ghRepository, progressMonitor);
+    }
+  }
+
+  private void fetchFromGitHub(
+      ImmutableSortedSet<Integer> ids,
+      Repository gitRepo,
+      GitHubRepository ghRepository,
+      ProgressMonitor progressMonitor)
+      throws GitAPIException {
+    try (Git git = Git.wrap(gitRepo)) {
+      FetchCommand fetch = git.fetch();
+      fetch.setRemote(ghRepository.getCloneUrl());
+      fetch.setRefSpecs(ids.stream().map(PullRequestsFetch::refSpec).collect(Collectors.toList()));
+      fetch.setProgressMonitor(progressMonitor);
+      fetch.setCredentialsProvider(ghRepository.getCredentialsProvider());
+      fetch.call();
+    }
+  }
+
+  private void fetchThroughMirror(
+      ImmutableSortedSet<Integer> ids,
+      Repository gitRepo,
+      GitHubRepository ghRepository,
+      GitHubRepositoryMirrors mirrors,
+      ProgressMonitor progressMonitor)
+      throws IOException, GitAPIException {
+    Path mirrorPath = mirrors.fetchPullRequests(ghRepository, ids.asList(), progressMonitor);
+    try (Git git = Git.wrap(gitRepo)) {
+      git.fetch()
+          .setRemote(mirrorPath.toUri().toString())
+          .setRefSpecs(ids.stream().map(PullRequestsFetch::refSpec).collect(Collectors.toList()))
+          .setProgressMonitor(progressMonitor)
+          .call();
+    }
+  }
+
+  private static RefSpec refSpec(int pullRequestId) {
+    return new RefSpec(
+        "+"
+            + GitHubRepositoryMirrors.pullRequestRef(pullRequestId)
+            + ":"
+            + PullRequestRefs.localRef(pullRequestId));
+  }
+
+  @Override
+  public String toString() {
+    return "PullRequestsFetch " + pullRequestIds;
+  }
+}
@@ -0,0 +1,196 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.server.IdentifiedUser;
+import com.google.gerrit.server.extensions.events.GitReferenceUpdated;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
+import java.io.IOException;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.errors.RepositoryNotFoundException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.transport.FetchResult;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.TagOpt;
+import org.eclipse.jgit.transport.TrackingRefUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the branches and tags of the imported repositories in sync with the ones updated on GitHub.
+ *
+ * <p>Only the refs notified as updated are fetched, and the matching ref-updated events are fired,
+ * so that the cost of the sync is proportional to what changed. Refs are only fast-forwarded,
+ * unless GitHub notifies a forced update, so that the commits not replicated yet to GitHub are not
+ * lost.
+ */
+@Singleton
+public class RepositoryRefsSync {
+  private static final Logger logger = LoggerFactory.getLogger(RepositoryRefsSync.class);
+  private static final ImmutableList<String> SYNCED_REFS_PREFIXES =
+      ImmutableList.of(RefNames.REFS_HEADS, RefNames.REFS_TAGS);
+
+  private final GitRepositoryManager repoManager;
+  private final GitHubRepository.Factory ghRepoFactory;
+  private final GitReferenceUpdated referenceUpdated;
+  private final Provider<IdentifiedUser> identifiedUser;
+
+  @Inject
+  RepositoryRefsSync(
+      GitRepositoryManager repoManager,
+      GitHubRepository.Factory ghRepoFactory,
+      GitReferenceUpdated referenceUpdated,
+      Provider<IdentifiedUser> identifiedUser) {
+    this.repoManager = repoManager;
+    this.ghRepoFactory = ghRepoFactory;
+    this.referenceUpdated = referenceUpdated;
+    this.identifiedUser = identifiedUser;
+  }
+
+  /**
+   * Fetch a ref updated on GitHub into the Gerrit repository imported from it.
+   *
+   * @param newId new value of the ref on GitHub, or null if unknown
+   * @param force true if the ref can be updated with a non-fast-forward
+   * @return false if the repository has not been imported or the ref is not synced
+   */
+  public boolean update(
+      String organisation,
+      String repository,
+      String refName,
+      @Nullable ObjectId newId,
+      boolean force,
+      GitHubLogin login)
+      throws IOException {
+    if (!isSynced(refName)) {
+      return false;
+    }
+
+    Project.NameKey project = Project.nameKey(organisation + "/" + repository);
+    try (Repository gitRepo = repoManager.openRepository(project)) {
+      Ref current = gitRepo.exactRef(refName);
+      if (newId != null && current != null && newId.equals(current.getObjectId())) {
+        logger.debug("{}:{} already up to date at {}", project, refName, newId.name());
+        return true;
+      }
+
+      GitHubRepository ghRepository = ghRepoFactory.create(organisation, repository, login);
+      FetchResult result;
+      try (Git git = Git.wrap(gitRepo)) {
+        result =
+            git.fetch()
+                .setRemote(ghRepository.getCloneUrl())
+                .setCredentialsProvider(ghRepository.getCredentialsProvider())
+                .setRefSpecs(new RefSpec(refName + ":" + refName).setForceUpdate(force))
+                .setTagOpt(TagOpt.NO_TAGS)
+                .call();
+      } catch (GitAPIException e) {
+        throw new IOException("Unable to fetch " + refName + " into " + project, e);
+      }
+
+      TrackingRefUpdate update = result.getTrackingRefUpdate(refName);
+      if (update == null) {
+        return true;
+      }
+      switch (update.getResult()) {
+        case NEW:
+        case FAST_FORWARD:
+        case FORCED:
+          fireReferenceUpdated(project, refName, update.getOldObjectId(), update.getNewObjectId());
+          return true;
+        case NO_CHANGE:
+          return true;
+        case REJECTED:
+          logger.warn(
+              "{}:{} not fast-forwarded to {}: diverged from GitHub",
+              project,
+              refName,
+              update.getNewObjectId().name());
+          return false;
+        default:
+          throw new IOException(
+              "Unable to update " + refName + " of " + project + ": " + update.getResult());
+      }
+    } catch (RepositoryNotFoundException e) {
+      logger.debug("{} has not been imported: {} not synced", project, refName);
+      return false;
+    }
+  }
+
+  /**
+   * Delete a ref deleted on GitHub from the Gerrit repository imported from it.
+   *
+   * @return false if the repository has not been imported or the ref is not synced
+   */
+  public boolean delete(String organisation, String repository, String refName) throws IOException {
+    if (!isSynced(refName)) {
+      return false;
+    }
+
+    Project.NameKey project = Project.nameKey(organisation + "/" + repository);
+    try (Repository gitRepo = repoManager.openRepository(project)) {
+      Ref current = gitRepo.exactRef(refName);
+      if (current == null) {
+        return true;
+      }
+      // Bare repositories let the branch of HEAD be deleted, leaving HEAD dangling
+      Ref head = gitRepo.exactRef(Constants.HEAD);
+      if (head != null && head.isSymbolic() && refName.equals(head.getTarget().getName())) {
+        logger.warn("{}:{} is the HEAD of the repository and cannot be deleted", project, refName);
+        return false;
+      }
+
+      RefUpdate refUpdate = gitRepo.updateRef(refName);
+      refUpdate.setExpectedOldObjectId(current.getObjectId());
+      refUpdate.setForceUpdate(true);
+      RefUpdate.Result result = refUpdate.delete();
+      switch (result) {
+        case FORCED:
+          fireReferenceUpdated(project, refName, current.getObjectId(), ObjectId.zeroId());
+          return true;
+        case NO_CHANGE:
+        case NEW:
+          return true;
+        default:
+          throw new IOException("Unable to delete " + refName + " of " + project + ": " + result);
+      }
+    } catch (RepositoryNotFoundException e) {
+      logger.debug("{} has not been imported: {} not synced", project, refName);
+      return false;
+    }
+  }
+
+  private void fireReferenceUpdated(
+      Project.NameKey project, String refName, ObjectId oldId, ObjectId newId) {
+    logger.info("{}:{} updated from {} to {}", project, refName, oldId.name(), newId.name());
+    referenceUpdated.fire(project, refName, oldId, newId, identifiedUser.get().state());
+  }
+
+  private static boolean isSynced(String refName) {
+    return SYNCED_REFS_PREFIXES.stream().anyMatch(refName::startsWith);
+  }
+}
@@ -0,0 +1,256 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupsCacheUpdate.Type;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Broadcast through a directory shared by all the Gerrit nodes, like an NFS mount.
+ *
+ * <p>Each change is dropped as a file named {@code <millis>-<node>-<sequence>}, written aside and
+ * then atomically moved into the directory. Every node polls the directory every {@code
+ * github.groupsBroadcastPollInterval} and applies the files of the other nodes it has not seen yet.
+ * The files existing when the node starts are not applied, nor the files older than the last change
+ * of the same user written by this node, which is more recent. Nodes remove their own files after
+ * ten minutes, and the files of the nodes that went away after twenty.
+ */
+@Singleton
+public class FileDropGroupsCacheBroadcast implements GitHubGroupsCacheBroadcast, LifecycleListener {
+  private static final Logger log = LoggerFactory.getLogger(FileDropGroupsCacheBroadcast.class);
+  private static final long RETENTION_MSEC = TimeUnit.MINUTES.toMillis(10);
+  private static final String TMP_PREFIX = ".";
+  private static final int FORMAT_VERSION = 1;
+
+  private final Path directory;
+  private final long pollIntervalMsec;
+  private final LongSupplier clock;
+  private final String nodeId = UUID.randomUUID().toString().replace("-", "");
+  private final AtomicLong sequence = new AtomicLong();
+  private final Map<String, Long> appliedFiles = new HashMap<>();
+  private final Map<String, Long> lastPublishedMsecByUser = new ConcurrentHashMap<>();
+  private volatile long lastPublishedAllMsec;
+  private volatile Consumer<GitHubGroupsCacheUpdate> subscriber = update -> {};
+  private ScheduledExecutorService poller;
+
+  @Inject
+  FileDropGroupsCacheBroadcast(GitHubConfig config) {
+    this(
+        config.groupsBroadcastDirectory,
+        config.groupsBroadcastPollIntervalMsec,
+        System::currentTimeMillis);
+  }
+
+  @VisibleForTesting
+  FileDropGroupsCacheBroadcast(Path directory, long pollIntervalMsec, LongSupplier clock) {
+    this.directory = directory;
+    this.pollIntervalMsec = pollIntervalMsec;
+    this.clock = clock;
+  }
+
+  @Override
+  public void start() {
+    if (directory == null) {
+      return;
+    }
+
+    try {
+      Files.createDirectories(directory);
+      long now = clock.getAsLong();
+      for (String name : list()) {
+        appliedFiles.put(name, now);
+      }
+    } catch (IOException e) {
+      log.error("Cannot read GitHub groups cache broadcast directory {}", directory, e);
+    }
+
+    poller =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("GitHub-Groups-Broadcast").build());
+    poller.scheduleWithFixedDelay(
+        this::poll, pollIntervalMsec, pollIntervalMsec, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() {
+    if (poller != null) {
+      poller.shutdownNow();
+    }
+  }
+
+  @Override
+  public void publish(GitHubGroupsCacheUpdate update) {
+    long nowMsec = clock.getAsLong();
+    if (update.getType() == Type.INVALIDATE_ALL) {
+      lastPublishedAllMsec = nowMsec;
+    } else {
+      lastPublishedMsecByUser.merge(update.getUsername(), nowMsec, Math::max);
+    }
+    String name = String.format("%013d-%s-%d", nowMsec, nodeId, sequence.incrementAndGet());
+    Path tmpFile = directory.resolve(TMP_PREFIX + name);
+    try {
+      Files.write(tmpFile, encode(update));
+      Files.move(tmpFile, directory.resolve(name), ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.warn("Cannot broadcast {} to the other nodes", update, e);
+    }
+  }
+
+  @Override
+  public void subscribe(Consumer<GitHubGroupsCacheUpdate> subscriber) {
+    this.subscriber = subscriber;
+  }
+
+  /** Apply the changes dropped by the other nodes since the last poll and clean up old files. */
+  @VisibleForTesting
+  synchronized void poll() {
+    try {
+      long now = clock.getAsLong();
+      for (String name : list()) {
+        if (appliedFiles.containsKey(name)) {
+          continue;
+        }
+
+        String[] parts = name.split("-");
+        long createdMsec = parts.length == 3 ? parseLong(parts[0]) : 0;
+        boolean own = parts.length == 3 && parts[1].equals(nodeId);
+        if (now - createdMsec > (own ? RETENTION_MSEC : 2 * RETENTION_MSEC)) {
+          Files.deleteIfExists(directory.resolve(name));
+        } else if (!own) {
+          apply(name, createdMsec);
+          appliedFiles.put(name, now);
+        }
+      }
+      appliedFiles.values().removeIf(appliedMsec -> now - appliedMsec > 2 * RETENTION_MSEC);
+      lastPublishedMsecByUser
+          .values()
+          .removeIf(publishedMsec -> now - publishedMsec > 2 * RETENTION_MSEC);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Cannot poll GitHub groups cache broadcast directory {}", directory, e);
+    }
+  }
+
+  private void apply(String name, long createdMsec) throws IOException {
+    GitHubGroupsCacheUpdate update;
+    try {
+      update = decode(Files.readAllBytes(directory.resolve(name)));
+    } catch (NoSuchFileException e) {
+      return;
+    } catch (IOException | IllegalArgumentException e) {
+      log.warn("Ignoring invalid GitHub groups cache broadcast file {}", name, e);
+      return;
+    }
+    if (update.getType() != Type.INVALIDATE_ALL && createdMsec < lastLocalChangeMsec(update)) {
+      log.debug("Skipping {} from {}, older than the last change made by this node", update, name);
+      return;
+    }
+    log.debug("Applying {} from {}", update, name);
+    subscriber.accept(update);
+  }
+
+  private long lastLocalChangeMsec(GitHubGroupsCacheUpdate update) {
+    return Math.max(
+        lastPublishedAllMsec, lastPublishedMsecByUser.getOrDefault(update.getUsername(), 0L));
+  }
+
+  private List<String> list() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .map(file -> file.getFileName().toString())
+          .filter(name -> !name.startsWith(TMP_PREFIX))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static long parseLong(String value) {
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  @VisibleForTesting
+  static byte[] encode(GitHubGroupsCacheUpdate update) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(FORMAT_VERSION);
+      out.writeUTF(update.getType().name());
+      if (update.getType() != Type.INVALIDATE_ALL) {
+        out.writeUTF(update.getUsername());
+      }
+      if (update.getType() == Type.PUT) {
+        byte[] orgsTeams =
+            OrganizationStructureSerializer.INSTANCE.serialize(update.getOrgsTeams());
+        out.writeInt(orgsTeams.length);
+        out.write(orgsTeams);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  @VisibleForTesting
+  static GitHubGroupsCacheUpdate decode(byte[] bytes) throws IOException {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+      int version = in.readByte();
+      if (version != FORMAT_VERSION) {
+        throw new IllegalArgumentException("Unsupported broadcast format version " + version);
+      }
+      switch (Type.valueOf(in.readUTF())) {
+        case PUT:
+          String username = in.readUTF();
+          byte[] orgsTeams = new byte[in.readInt()];
+          in.readFully(orgsTeams);
+          return GitHubGroupsCacheUpdate.put(
+              username, OrganizationStructureSerializer.INSTANCE.deserialize(orgsTeams));
+        case INVALIDATE:
+          return GitHubGroupsCacheUpdate.invalidate(in.readUTF());
+        case INVALIDATE_ALL:
+        default:
+          return GitHubGroupsCacheUpdate.invalidateAll();
+      }
+    }
+  }
+}
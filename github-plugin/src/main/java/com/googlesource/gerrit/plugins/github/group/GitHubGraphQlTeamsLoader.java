@@ -0,0 +1,264 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.CharMatcher;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubHttpConnector;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.kohsuke.github.GHRateLimit;
+
+/**
+ * Loads the organisations of a GitHub user, with the teams the user belongs to and their parent
+ * teams, through the GitHub GraphQL API.
+ *
+ * <p>Organisations and their teams are fetched together, 100 organisations and 100 teams per page.
+ * Only the organisations with more teams than a page need further requests.
+ *
+ * <p>Teams are filtered by the GitHub login of the owner of the access token, which may differ from
+ * the Gerrit username. The first page is requested with the login seen by the previous load of the
+ * user, or with the Gerrit username, and is requested again only when the viewer login returned
+ * along with it is a different one.
+ *
+ * <p>The rate limit returned in the headers of each response is kept in {@link
+ * GitHubGroupsRateLimits}.
+ */
+@Singleton
+class GitHubGraphQlTeamsLoader {
+  private static final int PAGE_SIZE = 100;
+
+  /** Levels of parent teams fetched along with each team of the user. */
+  private static final int PARENT_TEAMS_DEPTH = 5;
+
+  private static final String TEAMS_FIELDS =
+      "pageInfo { hasNextPage endCursor } nodes { name "
+          + parentTeamFields(PARENT_TEAMS_DEPTH)
+          + " }";
+
+  @VisibleForTesting
+  static final String ORGANISATIONS_QUERY =
+      "query($login: String!, $cursor: String) { viewer { login organizations(first: "
+          + PAGE_SIZE
+          + ", after: $cursor) { pageInfo { hasNextPage endCursor } nodes { login teams(first: "
+          + PAGE_SIZE
+          + ", userLogins: [$login]) { "
+          + TEAMS_FIELDS
+          + " } } } } }";
+
+  @VisibleForTesting
+  static final String TEAMS_QUERY =
+      "query($organisation: String!, $login: String!, $cursor: String) {"
+          + " organization(login: $organisation) { teams(first: "
+          + PAGE_SIZE
+          + ", userLogins: [$login], after: $cursor) { "
+          + TEAMS_FIELDS
+          + " } } }";
+
+  private final GitHubHttpConnector httpConnector;
+  private final GitHubGroupsRateLimits rateLimits;
+  private final String graphQlUrl;
+  private final Map<String, String> gitHubLoginByUsername = new ConcurrentHashMap<>();
+
+  @Inject
+  GitHubGraphQlTeamsLoader(
+      GitHubHttpConnector httpConnector, GitHubGroupsRateLimits rateLimits, GitHubConfig config) {
+    this.httpConnector = httpConnector;
+    this.rateLimits = rateLimits;
+    this.graphQlUrl = graphQlUrl(config.gitHubApiUrl);
+  }
+
+  /**
+   * GraphQL endpoint of the GitHub API: {@code https://api.github.com/graphql} for GitHub.com and
+   * {@code https://<host>/api/graphql} for GitHub Enterprise, whose REST API is under {@code
+   * /api/v3}.
+   */
+  @VisibleForTesting
+  static String graphQlUrl(String apiUrl) {
+    apiUrl = CharMatcher.is('/').trimTrailingFrom(apiUrl);
+    return (apiUrl.endsWith("/v3") ? apiUrl.substring(0, apiUrl.length() - 2) : apiUrl + "/")
+        + "graphql";
+  }
+
+  void load(String username, String accessToken, OrganizationStructure.Builder orgsTeams)
+      throws IOException {
+    String viewerLogin = gitHubLoginByUsername.getOrDefault(username, username);
+    JsonObject viewer = queryOrganisations(username, accessToken, viewerLogin, null);
+    String actualLogin = viewerLogin(viewer);
+    if (!actualLogin.equalsIgnoreCase(viewerLogin)) {
+      gitHubLoginByUsername.put(username, actualLogin);
+      viewerLogin = actualLogin;
+      viewer = queryOrganisations(username, accessToken, viewerLogin, null);
+    }
+
+    while (true) {
+      JsonObject organisations = viewer.getAsJsonObject("organizations");
+      for (JsonElement node : organisations.getAsJsonArray("nodes")) {
+        if (!node.isJsonObject()) {
+          continue;
+        }
+        JsonObject organisation = node.getAsJsonObject();
+        String login = organisation.get("login").getAsString();
+        orgsTeams.put(login, GitHubGroupsCache.EVERYONE_TEAM_NAME);
+        JsonObject teams = organisation.getAsJsonObject("teams");
+        addTeams(login, teams, orgsTeams);
+        String teamsCursor = endCursor(teams);
+        while (teamsCursor != null) {
+          teamsCursor =
+              loadTeams(username, viewerLogin, accessToken, login, teamsCursor, orgsTeams);
+        }
+      }
+      String cursor = endCursor(organisations);
+      if (cursor == null) {
+        return;
+      }
+      viewer = queryOrganisations(username, accessToken, viewerLogin, cursor);
+    }
+  }
+
+  private JsonObject queryOrganisations(
+      String username, String accessToken, String viewerLogin, String cursor) throws IOException {
+    JsonObject variables = new JsonObject();
+    variables.addProperty("login", viewerLogin);
+    variables.addProperty("cursor", cursor);
+    return query(username, accessToken, ORGANISATIONS_QUERY, variables).getAsJsonObject("viewer");
+  }
+
+  private String loadTeams(
+      String username,
+      String viewerLogin,
+      String accessToken,
+      String organisation,
+      String cursor,
+      OrganizationStructure.Builder orgsTeams)
+      throws IOException {
+    JsonObject variables = new JsonObject();
+    variables.addProperty("organisation", organisation);
+    variables.addProperty("login", viewerLogin);
+    variables.addProperty("cursor", cursor);
+    JsonObject teams =
+        query(username, accessToken, TEAMS_QUERY, variables)
+            .getAsJsonObject("organization")
+            .getAsJsonObject("teams");
+    addTeams(organisation, teams, orgsTeams);
+    return endCursor(teams);
+  }
+
+  @VisibleForTesting
+  static String viewerLogin(JsonObject viewer) throws IOException {
+    JsonElement login = viewer != null ? viewer.get("login") : null;
+    if (login == null || !login.isJsonPrimitive()) {
+      throw new IOException("GitHub GraphQL API returned no login for the access token");
+    }
+    return login.getAsString();
+  }
+
+  private static String parentTeamFields(int depth) {
+    return depth == 0 ? "" : "parentTeam { name " + parentTeamFields(depth - 1) + "}";
+  }
+
+  @VisibleForTesting
+  static void addTeams(
+      String organisation, JsonObject teams, OrganizationStructure.Builder orgsTeams) {
+    for (JsonElement node : teams.getAsJsonArray("nodes")) {
+      JsonObject team = node.getAsJsonObject();
+      String name = team.get("name").getAsString();
+      orgsTeams.put(organisation, name);
+      JsonElement parentTeam = team.get("parentTeam");
+      while (parentTeam != null && parentTeam.isJsonObject()) {
+        JsonObject parent = parentTeam.getAsJsonObject();
+        String parentName = parent.get("name").getAsString();
+        orgsTeams.putParentTeam(organisation, name, parentName);
+        name = parentName;
+        parentTeam = parent.get("parentTeam");
+      }
+    }
+  }
+
+  @VisibleForTesting
+  static String endCursor(JsonObject connection) {
+    JsonObject pageInfo = connection.getAsJsonObject("pageInfo");
+    return pageInfo.get("hasNextPage").getAsBoolean()
+        ? pageInfo.get("endCursor").getAsString()
+        : null;
+  }
+
+  private JsonObject query(String username, String accessToken, String query, JsonObject variables)
+      throws IOException {
+    JsonObject request = new JsonObject();
+    request.addProperty("query", query);
+    request.add("variables", variables);
+
+    HttpURLConnection conn = httpConnector.connect(URI.create(graphQlUrl).toURL());
+    try {
+      conn.setRequestMethod("POST");
+      conn.setDoOutput(true);
+      conn.setRequestProperty("Authorization", "bearer " + accessToken);
+      conn.setRequestProperty("Content-Type", "application/json");
+      try (OutputStream out = conn.getOutputStream()) {
+        out.write(request.toString().getBytes(UTF_8));
+      }
+
+      int status = conn.getResponseCode();
+      updateRateLimit(username, conn);
+      if (status != HttpURLConnection.HTTP_OK) {
+        throw new IOException("GitHub GraphQL API returned HTTP status " + status);
+      }
+      try (Reader in = new InputStreamReader(conn.getInputStream(), UTF_8)) {
+        return data(JsonParser.parseReader(in).getAsJsonObject());
+      }
+    } catch (JsonParseException | IllegalStateException | ClassCastException e) {
+      throw new IOException("Invalid response from GitHub GraphQL API", e);
+    } finally {
+      conn.disconnect();
+    }
+  }
+
+  private void updateRateLimit(String username, HttpURLConnection conn) {
+    int limit = conn.getHeaderFieldInt("X-RateLimit-Limit", -1);
+    int remaining = conn.getHeaderFieldInt("X-RateLimit-Remaining", -1);
+    if (limit >= 0 && remaining >= 0) {
+      rateLimits.update(
+          username,
+          new GHRateLimit.Record(
+              limit, remaining, conn.getHeaderFieldLong("X-RateLimit-Reset", 0)));
+    }
+  }
+
+  @VisibleForTesting
+  static JsonObject data(JsonObject response) throws IOException {
+    JsonArray errors = response.getAsJsonArray("errors");
+    if (errors != null && errors.size() > 0) {
+      throw new IOException("GitHub GraphQL API errors: " + errors);
+    }
+    return response.getAsJsonObject("data");
+  }
+}
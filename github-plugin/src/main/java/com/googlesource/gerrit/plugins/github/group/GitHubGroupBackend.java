@@ -19,8 +19,6 @@ import static com.googlesource.gerrit.plugins.github.group.GitHubGroup.NAME_PREF
 import static com.googlesource.gerrit.plugins.github.group.GitHubGroup.UUID_PREFIX;
 
 import com.google.common.base.Strings;
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.ImmutableSet.Builder;
 import com.google.gerrit.entities.AccountGroup;
 import com.google.gerrit.entities.AccountGroup.UUID;
 import com.google.gerrit.entities.GroupDescription.Basic;
@@ -31,9 +29,9 @@ import com.google.gerrit.server.account.GroupMembership;
 import com.google.gerrit.server.project.ProjectState;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,15 +41,21 @@ public class GitHubGroupBackend implements GroupBackend {
   private final GitHubGroupMembership.Factory ghMembershipProvider;
   private final GitHubGroupsCache ghOrganisationCache;
   private final Provider<CurrentUser> currentUserProvider;
+  private final GitHubConfig config;
+  private final GitHubGroupsActiveUsers activeUsers;
 
   @Inject
   GitHubGroupBackend(
       GitHubGroupMembership.Factory ghMembershipProvider,
       GitHubGroupsCache ghOrganisationCache,
-      Provider<CurrentUser> currentUserProvider) {
+      Provider<CurrentUser> currentUserProvider,
+      GitHubConfig config,
+      GitHubGroupsActiveUsers activeUsers) {
     this.ghMembershipProvider = ghMembershipProvider;
     this.ghOrganisationCache = ghOrganisationCache;
     this.currentUserProvider = currentUserProvider;
+    this.config = config;
+    this.activeUsers = activeUsers;
   }
 
   @Override
@@ -79,35 +83,12 @@ public class GitHubGroupBackend implements GroupBackend {
     return listByPrefix(orgNamePrefix);
   }
 
-  public Set<GroupReference> listByPrefix(String orgNamePrefix) {
+  public Collection<GroupReference> listByPrefix(String orgNamePrefix) {
     try {
       log.debug("Listing user's organisations starting with '{}'", orgNamePrefix);
-
-      String[] namePrefixParts = orgNamePrefix.toLowerCase().split("/");
-      String orgNamePrefixLowercase = namePrefixParts.length > 0 ? namePrefixParts[0] : "";
-      String teamNameLowercase = namePrefixParts.length > 1 ? namePrefixParts[1] : "";
-
-      Set<String> ghOrgs = ghOrganisationCache.getOrganizationsForCurrentUser();
-      log.debug("Full list of user's organisations: {}", ghOrgs);
-
-      Builder<GroupReference> orgGroups = new ImmutableSet.Builder<>();
-      for (String organizationName : ghOrgs) {
-        if (organizationName.toLowerCase().startsWith(orgNamePrefixLowercase)) {
-          GroupReference teamGroupRef = GitHubOrganisationGroup.groupReference(organizationName);
-
-          if ((orgNamePrefixLowercase.length() > 0 && orgNamePrefix.endsWith("/"))
-              || teamNameLowercase.length() > 0) {
-            for (String teamName : ghOrganisationCache.getTeamsForCurrentUser(organizationName)) {
-              if (teamName.toLowerCase().startsWith(teamNameLowercase)) {
-                orgGroups.add(GitHubTeamGroup.groupReference(teamGroupRef, teamName));
-              }
-            }
-          } else {
-            orgGroups.add(teamGroupRef);
-          }
-        }
-      }
-      return orgGroups.build();
+      return ghOrganisationCache
+          .getSuggestionsForCurrentUser()
+          .suggest(orgNamePrefix, config.groupSuggestLimit);
     } catch (ExecutionException e) {
       log.warn("Cannot get GitHub organisations matching '" + orgNamePrefix + "'", e);
     }
@@ -128,6 +109,7 @@ public class GitHubGroupBackend implements GroupBackend {
     if (Strings.isNullOrEmpty(username)) {
       return GroupMembership.EMPTY;
     }
+    activeUsers.seen(username);
     return ghMembershipProvider.get(username);
   }
 }
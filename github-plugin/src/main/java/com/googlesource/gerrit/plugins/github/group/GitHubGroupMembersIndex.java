@@ -0,0 +1,111 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.Sets;
+import com.google.gerrit.entities.AccountGroup;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Inverted index of the GitHub organisation and team groups to the usernames of their members.
+ *
+ * <p>Built incrementally out of the memberships of the users loaded, reloaded or updated in the
+ * {@link GitHubGroupsCache}, it only knows the members whose memberships have been written to the
+ * cache since the plugin started. Reading the cache does not touch the index.
+ *
+ * <p>Only the group UUIDs of each user are kept, not the cached structures. Updates of different
+ * users run concurrently: each user and each group is updated atomically on its own.
+ */
+@Singleton
+public class GitHubGroupMembersIndex {
+  private static final Interner<String> GROUP_UUIDS = Interners.newWeakInterner();
+
+  private final ConcurrentMap<String, ImmutableSet<String>> groupsByUser =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Set<String>> membersByGroup = new ConcurrentHashMap<>();
+
+  /** Set the organisations and teams of a user, replacing the previous ones. */
+  public void update(String username, OrganizationStructure orgsTeams) {
+    ImmutableSet<String> groups = groupUUIDs(orgsTeams);
+    groupsByUser.compute(
+        username,
+        (user, previousGroups) -> {
+          reindex(user, previousGroups == null ? ImmutableSet.of() : previousGroups, groups);
+          return groups.isEmpty() ? null : groups;
+        });
+  }
+
+  /** Forget the organisations and teams of a user. */
+  public void remove(String username) {
+    groupsByUser.computeIfPresent(
+        username,
+        (user, previousGroups) -> {
+          reindex(user, previousGroups, ImmutableSet.of());
+          return null;
+        });
+  }
+
+  /** Forget the organisations and teams of all users. */
+  public void clear() {
+    groupsByUser.keySet().forEach(this::remove);
+  }
+
+  /** Usernames of the known members of a GitHub organisation or team group. */
+  public Set<String> getMembers(AccountGroup.UUID groupUUID) {
+    Set<String> members = membersByGroup.get(groupUUID.get());
+    return members == null ? ImmutableSet.of() : ImmutableSet.copyOf(members);
+  }
+
+  private void reindex(String username, Set<String> previousGroups, Set<String> groups) {
+    for (String group : Sets.difference(previousGroups, groups)) {
+      membersByGroup.computeIfPresent(
+          group,
+          (g, members) -> {
+            members.remove(username);
+            return members.isEmpty() ? null : members;
+          });
+    }
+    for (String group : Sets.difference(groups, previousGroups)) {
+      membersByGroup.compute(
+          group,
+          (g, members) -> {
+            Set<String> added = members == null ? ConcurrentHashMap.newKeySet() : members;
+            added.add(username);
+            return added;
+          });
+    }
+  }
+
+  private static ImmutableSet<String> groupUUIDs(OrganizationStructure orgsTeams) {
+    ImmutableSet.Builder<String> groups = ImmutableSet.builder();
+    for (String organisation : orgsTeams.keySet()) {
+      AccountGroup.UUID orgUUID = GitHubOrganisationGroup.uuid(organisation);
+      groups.add(GROUP_UUIDS.intern(orgUUID.get()));
+      Iterable<String> teams = orgsTeams.get(organisation);
+      if (teams != null) {
+        for (String team : teams) {
+          groups.add(GROUP_UUIDS.intern(GitHubTeamGroup.uuid(orgUUID, team).get()));
+        }
+      }
+    }
+    return groups.build();
+  }
+}
@@ -0,0 +1,82 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import static com.googlesource.gerrit.plugins.github.group.GitHubGroup.NAME_PREFIX;
+import static com.googlesource.gerrit.plugins.github.group.GitHubGroup.UUID_PREFIX;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.AccountGroup;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.account.AccountCache;
+import com.google.gerrit.server.account.AccountState;
+import com.google.gerrit.server.change.ReviewerSuggestion;
+import com.google.gerrit.server.change.SuggestedReviewer;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.Set;
+
+/**
+ * Suggests as reviewers the members of the GitHub organisation or team typed in the reviewers box,
+ * for example {@code github/myorg/myteam}.
+ *
+ * <p>Gerrit cannot list the members of the {@code github/} groups, hence adding the group itself as
+ * reviewer fails. Only the members known to {@link GitHubGroupMembersIndex} are suggested.
+ */
+@Singleton
+public class GitHubGroupReviewerSuggestion implements ReviewerSuggestion {
+  private static final double MEMBER_SCORE = 1.0;
+
+  private final GitHubGroupsCache groupsCache;
+  private final AccountCache accountCache;
+
+  @Inject
+  GitHubGroupReviewerSuggestion(GitHubGroupsCache groupsCache, AccountCache accountCache) {
+    this.groupsCache = groupsCache;
+    this.accountCache = accountCache;
+  }
+
+  @Override
+  public Set<SuggestedReviewer> suggestReviewers(
+      Project.NameKey project,
+      @Nullable Change.Id changeId,
+      @Nullable String query,
+      Set<Account.Id> candidates) {
+    if (query == null || !query.startsWith(NAME_PREFIX) || query.length() == NAME_PREFIX.length()) {
+      return ImmutableSet.of();
+    }
+
+    AccountGroup.UUID groupUUID =
+        AccountGroup.uuid(UUID_PREFIX + query.substring(NAME_PREFIX.length()));
+    ImmutableSet.Builder<SuggestedReviewer> reviewers = ImmutableSet.builder();
+    for (String username : groupsCache.getMembersOfGroup(groupUUID)) {
+      accountCache
+          .getByUsername(username)
+          .map(AccountState::account)
+          .filter(Account::isActive)
+          .ifPresent(account -> reviewers.add(suggested(account.id())));
+    }
+    return reviewers.build();
+  }
+
+  private static SuggestedReviewer suggested(Account.Id accountId) {
+    SuggestedReviewer reviewer = new SuggestedReviewer();
+    reviewer.account = accountId;
+    reviewer.score = MEMBER_SCORE;
+    return reviewer;
+  }
+}
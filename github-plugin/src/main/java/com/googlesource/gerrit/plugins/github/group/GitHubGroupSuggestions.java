@@ -0,0 +1,149 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gerrit.entities.GroupReference;
+import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Suggestions of the GitHub organisation and team groups of a user, by prefix of their names.
+ *
+ * <p>Built once out of the cached organisations and teams of the user, it keeps their lowercase
+ * names sorted next to their group references. A prefix is then resolved with a binary search of
+ * the range of names starting with it, returning a view of the references in range.
+ */
+public class GitHubGroupSuggestions {
+  private static final Comparator<String> BY_LOWERCASE_NAME =
+      Comparator.comparing((String name) -> name.toLowerCase())
+          .thenComparing(Comparator.naturalOrder());
+
+  private final String[] orgNames;
+  private final List<GroupReference> orgRefs;
+  private final String[][] teamNames;
+  private final List<List<GroupReference>> teamRefs;
+
+  public GitHubGroupSuggestions(OrganizationStructure orgsTeams) {
+    Map<String, GroupReference> orgs = new TreeMap<>(BY_LOWERCASE_NAME);
+    orgsTeams.keySet().forEach(org -> orgs.put(org, GitHubOrganisationGroup.groupReference(org)));
+
+    int size = orgs.size();
+    orgNames = new String[size];
+    ImmutableList.Builder<GroupReference> orgRefsBuilder = ImmutableList.builder();
+    teamNames = new String[size][];
+    ImmutableList.Builder<List<GroupReference>> teamRefsBuilder = ImmutableList.builder();
+    int i = 0;
+    for (Map.Entry<String, GroupReference> org : orgs.entrySet()) {
+      orgNames[i] = org.getKey().toLowerCase();
+      orgRefsBuilder.add(org.getValue());
+
+      String[] teams = teamsOf(orgsTeams, org.getKey());
+      teamNames[i] = new String[teams.length];
+      ImmutableList.Builder<GroupReference> orgTeamRefs = ImmutableList.builder();
+      for (int t = 0; t < teams.length; t++) {
+        teamNames[i][t] = teams[t].toLowerCase();
+        orgTeamRefs.add(GitHubTeamGroup.groupReference(org.getValue(), teams[t]));
+      }
+      teamRefsBuilder.add(orgTeamRefs.build());
+      i++;
+    }
+    orgRefs = orgRefsBuilder.build();
+    teamRefs = teamRefsBuilder.build();
+  }
+
+  /**
+   * Groups matching a prefix of their name, without the {@code github/} prefix.
+   *
+   * <p>A prefix without any {@code /} matches the organisations, whilst {@code org/team} matches
+   * the teams starting with {@code team} of the organisations starting with {@code org}.
+   *
+   * @param namePrefix prefix of the organisation or team name
+   * @param limit maximum number of groups returned
+   * @return groups matching the prefix, sorted by name
+   */
+  public List<GroupReference> suggest(String namePrefix, int limit) {
+    String[] namePrefixParts = namePrefix.toLowerCase().split("/");
+    String orgPrefix = namePrefixParts.length > 0 ? namePrefixParts[0] : "";
+    String teamPrefix = namePrefixParts.length > 1 ? namePrefixParts[1] : "";
+    int from = lowerBound(orgNames, orgPrefix);
+    int to = upperBound(orgNames, orgPrefix, from);
+
+    if ((orgPrefix.isEmpty() || !namePrefix.endsWith("/")) && teamPrefix.isEmpty()) {
+      return orgRefs.subList(from, from + Math.min(to - from, limit));
+    }
+
+    if (to - from == 1) {
+      return teamsByPrefix(from, teamPrefix, limit);
+    }
+
+    ImmutableList.Builder<GroupReference> teams = ImmutableList.builder();
+    int remaining = limit;
+    for (int org = from; org < to && remaining > 0; org++) {
+      List<GroupReference> orgTeams = teamsByPrefix(org, teamPrefix, remaining);
+      teams.addAll(orgTeams);
+      remaining -= orgTeams.size();
+    }
+    return teams.build();
+  }
+
+  private List<GroupReference> teamsByPrefix(int org, String teamPrefix, int limit) {
+    String[] names = teamNames[org];
+    int from = lowerBound(names, teamPrefix);
+    int to = upperBound(names, teamPrefix, from);
+    return teamRefs.get(org).subList(from, from + Math.min(to - from, limit));
+  }
+
+  private static String[] teamsOf(OrganizationStructure orgsTeams, String org) {
+    Iterable<String> teams = orgsTeams.get(org);
+    if (teams == null) {
+      return new String[0];
+    }
+    String[] sortedTeams = ImmutableList.copyOf(teams).toArray(new String[0]);
+    Arrays.sort(sortedTeams, BY_LOWERCASE_NAME);
+    return sortedTeams;
+  }
+
+  private static int lowerBound(String[] sortedNames, String prefix) {
+    int low = 0;
+    int high = sortedNames.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sortedNames[mid].compareTo(prefix) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private static int upperBound(String[] sortedNames, String prefix, int from) {
+    int low = from;
+    int high = sortedNames.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sortedNames[mid].startsWith(prefix)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,173 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.gerrit.extensions.annotations.PluginData;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Users recently checked for their GitHub groups, with the time they were last seen and the time
+ * their groups were last written to the cache.
+ *
+ * <p>Kept in memory and saved under the plugin data directory, so that the memberships of the most
+ * active users can be loaded again in advance after a restart, unless they are still fresh.
+ */
+@Singleton
+public class GitHubGroupsActiveUsers {
+  private static final Logger log = LoggerFactory.getLogger(GitHubGroupsActiveUsers.class);
+  private static final String ACTIVE_USERS_FILE = "groups-active-users";
+  private static final String LOADED_USERS_FILE = "groups-loaded-users";
+
+  private final Path activeUsersFile;
+  private final Path loadedUsersFile;
+  private final LongSupplier clock;
+  private final Map<String, Long> lastSeenByUsername = new ConcurrentHashMap<>();
+  private final Map<String, Long> lastLoadedByUsername = new ConcurrentHashMap<>();
+
+  @Inject
+  GitHubGroupsActiveUsers(@PluginData Path pluginData) {
+    this(pluginData, System::currentTimeMillis);
+  }
+
+  @VisibleForTesting
+  GitHubGroupsActiveUsers(Path pluginData, LongSupplier clock) {
+    this.activeUsersFile = pluginData.resolve(ACTIVE_USERS_FILE);
+    this.loadedUsersFile = pluginData.resolve(LOADED_USERS_FILE);
+    this.clock = clock;
+  }
+
+  public void seen(String username) {
+    lastSeenByUsername.put(username, clock.getAsLong());
+  }
+
+  /** Record that the groups of the user have just been written to the cache. */
+  public void loaded(String username) {
+    lastLoadedByUsername.put(username, clock.getAsLong());
+  }
+
+  /** Forget when the groups of the user were written, after they are dropped from the cache. */
+  public void forgetLoaded(String username) {
+    lastLoadedByUsername.remove(username);
+  }
+
+  /** Forget when the groups of all users were written, after the whole cache is dropped. */
+  public void forgetAllLoaded() {
+    lastLoadedByUsername.clear();
+  }
+
+  /**
+   * Whether the groups of the user have been written to the cache within a time window.
+   *
+   * @param withinMsec maximum time since the groups have been written
+   */
+  public boolean loadedWithin(String username, long withinMsec) {
+    Long lastLoaded = lastLoadedByUsername.get(username);
+    return lastLoaded != null && clock.getAsLong() - lastLoaded < withinMsec;
+  }
+
+  /**
+   * Most recently seen users.
+   *
+   * @param activeWithinMsec maximum time since the users have been last seen
+   * @param limit maximum number of users returned
+   * @return usernames, the most recently seen first
+   */
+  public List<String> mostRecent(long activeWithinMsec, int limit) {
+    long seenAfter = clock.getAsLong() - activeWithinMsec;
+    return lastSeenByUsername.entrySet().stream()
+        .filter(user -> user.getValue() >= seenAfter)
+        .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+        .limit(limit)
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toList());
+  }
+
+  /** Read the users saved by a previous run, one {@code <millis> <username>} per line. */
+  public void load() {
+    read(activeUsersFile, lastSeenByUsername);
+    read(loadedUsersFile, lastLoadedByUsername);
+  }
+
+  /**
+   * Save the users seen within a time window, forgetting the others.
+   *
+   * @param activeWithinMsec maximum time since the users have been last seen
+   */
+  public void save(long activeWithinMsec) {
+    long seenAfter = clock.getAsLong() - activeWithinMsec;
+    lastSeenByUsername.values().removeIf(lastSeen -> lastSeen < seenAfter);
+    lastLoadedByUsername.keySet().retainAll(lastSeenByUsername.keySet());
+
+    write(activeUsersFile, lastSeenByUsername);
+    write(loadedUsersFile, lastLoadedByUsername);
+  }
+
+  private static void read(Path file, Map<String, Long> millisByUsername) {
+    if (!Files.exists(file)) {
+      return;
+    }
+
+    try {
+      for (String line : Files.readAllLines(file, UTF_8)) {
+        int separator = line.indexOf(' ');
+        if (separator <= 0) {
+          continue;
+        }
+        try {
+          millisByUsername.merge(
+              line.substring(separator + 1),
+              Long.parseLong(line.substring(0, separator)),
+              Math::max);
+        } catch (NumberFormatException e) {
+          log.warn("Ignoring invalid line '{}' of {}", line, file);
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Cannot read users from {}", file, e);
+    }
+  }
+
+  private static void write(Path file, Map<String, Long> millisByUsername) {
+    Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(file.getParent());
+      try (BufferedWriter out = Files.newBufferedWriter(tmpFile, UTF_8)) {
+        for (Map.Entry<String, Long> user : millisByUsername.entrySet()) {
+          out.write(user.getValue() + " " + user.getKey());
+          out.newLine();
+        }
+      }
+      Files.move(tmpFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.warn("Cannot save users to {}", file, e);
+    }
+  }
+}
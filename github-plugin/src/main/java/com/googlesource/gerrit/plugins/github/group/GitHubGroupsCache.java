@@ -15,20 +15,31 @@
 package com.googlesource.gerrit.plugins.github.group;
 
 import static com.googlesource.gerrit.plugins.github.group.CurrentUsernameProvider.CURRENT_USERNAME;
+import static java.time.temporal.ChronoUnit.HOURS;
 import static java.time.temporal.ChronoUnit.MINUTES;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.gerrit.entities.AccountGroup.UUID;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.lifecycle.LifecycleModule;
 import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.cache.serialize.StringCacheSerializer;
+import com.google.gerrit.server.config.ConfigUtil;
 import com.google.inject.Inject;
 import com.google.inject.Module;
 import com.google.inject.Provider;
+import com.google.inject.Scopes;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
 import com.google.inject.name.Names;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.GitHubConfig.GroupsLoader;
 import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
 import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
 import com.googlesource.gerrit.plugins.github.oauth.UserScopedProvider;
@@ -40,33 +51,93 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.eclipse.jgit.lib.Config;
 import org.kohsuke.github.GHTeam;
+import org.kohsuke.github.GitHub;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @Singleton
-public class GitHubGroupsCache {
+public class GitHubGroupsCache implements LifecycleListener {
   private static final Logger log = LoggerFactory.getLogger(GitHubGroupsCache.class);
   private static final String ORGS_CACHE_NAME = "groups";
   protected static final long GROUPS_CACHE_TTL_MINS = 60;
+  protected static final long GROUPS_CACHE_MAX_AGE_HOURS = 24;
   public static final String EVERYONE_TEAM_NAME = "Everyone";
+  private static final OrganizationStructure NO_ORGANISATIONS = new OrganizationStructure();
+
+  /** The user has no GitHub login: nothing can be loaded, and nothing is cached. */
+  static class NoGitHubLoginException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    NoGitHubLoginException(String username) {
+      super("Cannot login to GitHub on behalf of '" + username + "'");
+    }
+  }
 
   public static class OrganisationLoader extends CacheLoader<String, OrganizationStructure> {
     private static final Logger logger = LoggerFactory.getLogger(OrganisationLoader.class);
     private final UserScopedProvider<GitHubLogin> ghLoginProvider;
+    private final GitHubGroupsRefreshExecutor refreshExecutor;
+    private final GitHubGraphQlTeamsLoader graphQlLoader;
+    private final GitHubGroupsRateLimits rateLimits;
+    private final GitHubGroupsCacheBroadcast broadcast;
+    private final GitHubGroupsActiveUsers activeUsers;
+    private final GitHubGroupMembersIndex membersIndex;
+    private final GitHubConfig config;
 
     @Inject
-    public OrganisationLoader(UserScopedProvider<GitHubLogin> ghLoginProvider) {
+    public OrganisationLoader(
+        UserScopedProvider<GitHubLogin> ghLoginProvider,
+        GitHubGroupsRefreshExecutor refreshExecutor,
+        GitHubGraphQlTeamsLoader graphQlLoader,
+        GitHubGroupsRateLimits rateLimits,
+        GitHubGroupsCacheBroadcast broadcast,
+        GitHubGroupsActiveUsers activeUsers,
+        GitHubGroupMembersIndex membersIndex,
+        GitHubConfig config) {
       this.ghLoginProvider = ghLoginProvider;
+      this.refreshExecutor = refreshExecutor;
+      this.graphQlLoader = graphQlLoader;
+      this.rateLimits = rateLimits;
+      this.broadcast = broadcast;
+      this.activeUsers = activeUsers;
+      this.membersIndex = membersIndex;
+      this.config = config;
     }
 
+    /** Load the memberships of a user from GitHub and share them with the other nodes. */
     @Override
     public OrganizationStructure load(String username) throws Exception {
-      OrganizationStructure orgsTeams = new OrganizationStructure();
       GitHubLogin ghLogin = ghLoginProvider.get(username);
       if (ghLogin == null) {
-        logger.warn("Cannot login to GitHub on behalf of '{}'", username);
-        return orgsTeams;
+        logger.debug("Cannot login to GitHub on behalf of '{}'", username);
+        throw new NoGitHubLoginException(username);
+      }
+
+      OrganizationStructure orgsTeams = load(username, ghLogin);
+      activeUsers.loaded(username);
+      membersIndex.update(username, orgsTeams);
+      broadcast.publish(GitHubGroupsCacheUpdate.put(username, orgsTeams));
+      return orgsTeams;
+    }
+
+    OrganizationStructure load(String username, GitHubLogin ghLogin) throws IOException {
+      OrganizationStructure.Builder orgsTeams = OrganizationStructure.builder();
+      if (config.groupsLoader == GroupsLoader.GRAPHQL) {
+        try {
+          logger.debug("Getting organisations/teams of user '{}' with GraphQL", username);
+          graphQlLoader.load(username, ghLogin.getAccessToken(), orgsTeams);
+          return loaded(username, orgsTeams);
+        } catch (IOException e) {
+          logger.warn(
+              "Cannot get organisations/teams of user '{}' with GraphQL: falling back to REST API",
+              username,
+              e);
+          orgsTeams = OrganizationStructure.builder();
+        }
       }
 
       try {
@@ -78,14 +149,47 @@ public class GitHubGroupsCache {
         loadOrganisations(username, orgsTeams, ghLogin);
       }
 
-      logger.debug("GitHub user '{}' belongs to: {}", username, orgsTeams);
-      return orgsTeams;
+      return loaded(username, orgsTeams);
+    }
+
+    private static OrganizationStructure loaded(
+        String username, OrganizationStructure.Builder orgsTeams) {
+      OrganizationStructure loaded = orgsTeams.build();
+      logger.debug("GitHub user '{}' belongs to: {}", username, loaded);
+      return loaded;
+    }
+
+    /**
+     * Reload the organisations and teams of a user in background, whilst the cache keeps serving
+     * the previous value. When the reload fails, the previous value stays in the cache until it
+     * expires.
+     *
+     * <p>A user who no longer has a GitHub login belongs to no organisation from now on: the
+     * previous value is replaced straight away, instead of failing the reload and keeping it until
+     * it expires.
+     */
+    @Override
+    public ListenableFuture<OrganizationStructure> reload(
+        String username, OrganizationStructure oldValue) {
+      return refreshExecutor.submit(
+          () -> {
+            try {
+              return load(username);
+            } catch (NoGitHubLoginException e) {
+              membersIndex.remove(username);
+              broadcast.publish(GitHubGroupsCacheUpdate.put(username, NO_ORGANISATIONS));
+              return NO_ORGANISATIONS;
+            }
+          });
     }
 
     private void loadOrganisationsAndTeams(
-        String username, OrganizationStructure orgsTeams, GitHubLogin ghLogin) throws IOException {
+        String username, OrganizationStructure.Builder orgsTeams, GitHubLogin ghLogin)
+        throws IOException {
       logger.debug("Getting list of organisations/teams for user '{}'", username);
-      Map<String, Set<GHTeam>> myOrganisationsLogins = ghLogin.getHub().getMyTeams();
+      GitHub hub = ghLogin.getHub();
+      Map<String, Set<GHTeam>> myOrganisationsLogins = hub.getMyTeams();
+      updateRateLimit(username, hub);
       for (Entry<String, Set<GHTeam>> teamsOrg : myOrganisationsLogins.entrySet()) {
         orgsTeams.put(teamsOrg.getKey(), EVERYONE_TEAM_NAME);
         for (GHTeam team : teamsOrg.getValue()) {
@@ -94,8 +198,18 @@ public class GitHubGroupsCache {
       }
     }
 
+    /**
+     * Keep the rate limit returned in the headers of the last response. Deprecated in favour of
+     * rate limit checkers, it is the only way of reading them without calling GitHub again.
+     */
+    @SuppressWarnings("deprecation")
+    private void updateRateLimit(String username, GitHub hub) {
+      rateLimits.update(username, hub.lastRateLimit().getCore());
+    }
+
     private void loadOrganisations(
-        String username, OrganizationStructure orgsTeams, GitHubLogin ghLogin) throws IOException {
+        String username, OrganizationStructure.Builder orgsTeams, GitHubLogin ghLogin)
+        throws IOException {
       logger.debug("Getting list of public organisations for user '{}'", username);
       Set<String> organisations = ghLogin.getMyOrganisationsLogins(username);
       for (String org : organisations) {
@@ -112,42 +226,80 @@ public class GitHubGroupsCache {
             .annotatedWith(Names.named(CurrentUsernameProvider.CURRENT_USERNAME))
             .toProvider(CurrentUsernameProvider.class);
         persist(ORGS_CACHE_NAME, String.class, OrganizationStructure.class)
-            .expireAfterWrite(Duration.of(GROUPS_CACHE_TTL_MINS, MINUTES))
+            .version(1)
+            .keySerializer(StringCacheSerializer.INSTANCE)
+            .valueSerializer(OrganizationStructureSerializer.INSTANCE)
+            .expireAfterWrite(Duration.of(GROUPS_CACHE_MAX_AGE_HOURS, HOURS))
+            .refreshAfterWrite(Duration.of(GROUPS_CACHE_TTL_MINS, MINUTES))
             .loader(OrganisationLoader.class);
         bind(GitHubGroupsCache.class);
+        bind(GitHubGroupsCacheBroadcast.class)
+            .toProvider(GitHubGroupsCacheBroadcastProvider.class)
+            .in(Scopes.SINGLETON);
+        install(
+            new LifecycleModule() {
+              @Override
+              protected void configure() {
+                listener().to(GitHubGroupsRefreshExecutor.class);
+                listener().to(GitHubGroupsCache.class);
+                listener().to(GitHubGroupsCacheWarmUp.class);
+                listener().to(FileDropGroupsCacheBroadcast.class);
+              }
+            });
       }
     };
   }
 
   private final LoadingCache<String, OrganizationStructure> orgTeamsByUsername;
   private final Provider<String> usernameProvider;
+  private final GitHubGroupMembersIndex membersIndex;
+  private final GitHubGroupsCacheBroadcast broadcast;
+  private final GitHubGroupsNegativeCache negativeCache;
+  private final GitHubGroupsActiveUsers activeUsers;
+  private final Cache<OrganizationStructure, GitHubGroupSuggestions> suggestionsByOrgTeams =
+      CacheBuilder.newBuilder().weakKeys().build();
 
   @Inject
   @VisibleForTesting
   public GitHubGroupsCache(
       @Named(ORGS_CACHE_NAME) LoadingCache<String, OrganizationStructure> byUsername,
-      @Named(CURRENT_USERNAME) Provider<String> usernameProvider) {
+      @Named(CURRENT_USERNAME) Provider<String> usernameProvider,
+      GitHubGroupMembersIndex membersIndex,
+      GitHubGroupsCacheBroadcast broadcast,
+      GitHubGroupsNegativeCache negativeCache,
+      GitHubGroupsActiveUsers activeUsers) {
     this.orgTeamsByUsername = byUsername;
     this.usernameProvider = usernameProvider;
+    this.membersIndex = membersIndex;
+    this.broadcast = broadcast;
+    this.negativeCache = negativeCache;
+    this.activeUsers = activeUsers;
+  }
+
+  /** Apply the updates shared by the other nodes. */
+  @Override
+  public void start() {
+    broadcast.subscribe(this::apply);
+  }
+
+  @Override
+  public void stop() {
+    broadcast.subscribe(update -> {});
   }
 
   Set<String> getOrganizationsForUser(String username) {
     try {
-      return orgTeamsByUsername.get(username).keySet();
+      return orgTeamsOf(username).keySet();
     } catch (ExecutionException e) {
       log.warn("Cannot get GitHub organisations for user '" + username + "'", e);
       return Collections.emptySet();
     }
   }
 
-  Set<String> getOrganizationsForCurrentUser() throws ExecutionException {
-    return orgTeamsByUsername.get(usernameProvider.get()).keySet();
-  }
-
   Set<String> getTeamsForUser(String organizationName, String username) {
     try {
       return new ImmutableSet.Builder<String>()
-          .addAll(orgTeamsByUsername.get(username).get(organizationName))
+          .addAll(orgTeamsOf(username).get(organizationName))
           .build();
     } catch (ExecutionException e) {
       log.warn(
@@ -161,8 +313,9 @@ public class GitHubGroupsCache {
     }
   }
 
-  Set<String> getTeamsForCurrentUser(String organizationName) {
-    return getTeamsForUser(organizationName, usernameProvider.get());
+  GitHubGroupSuggestions getSuggestionsForCurrentUser() throws ExecutionException {
+    OrganizationStructure orgsTeams = orgTeamsOf(usernameProvider.get());
+    return suggestionsByOrgTeams.get(orgsTeams, () -> new GitHubGroupSuggestions(orgsTeams));
   }
 
   public Set<UUID> getGroupsForUser(String username) {
@@ -177,7 +330,136 @@ public class GitHubGroupsCache {
     return groupsBuilder.build();
   }
 
+  /**
+   * Usernames of the members of a GitHub organisation or team group, amongst the users whose
+   * memberships have been loaded since the plugin started.
+   */
+  public Set<String> getMembersOfGroup(UUID groupUUID) {
+    return membersIndex.getMembers(groupUUID);
+  }
+
   public void invalidateCurrentUserGroups() {
-    orgTeamsByUsername.invalidate(usernameProvider.get());
+    String username = usernameProvider.get();
+    invalidate(username);
+    broadcast.publish(GitHubGroupsCacheUpdate.invalidate(username));
+  }
+
+  /** Add the user to an organisation, if its memberships are cached. */
+  public void addOrganisationMember(String organisation, String username) {
+    patch(username, orgsTeams -> orgsTeams.put(organisation, EVERYONE_TEAM_NAME));
+  }
+
+  /** Remove the user from an organisation and all its teams, if its memberships are cached. */
+  public void removeOrganisationMember(String organisation, String username) {
+    patch(username, orgsTeams -> orgsTeams.remove(organisation));
+  }
+
+  /** Add the user to a team of an organisation, if its memberships are cached. */
+  public void addTeamMember(String organisation, String team, String username) {
+    patch(
+        username,
+        orgsTeams -> {
+          orgsTeams.put(organisation, EVERYONE_TEAM_NAME);
+          orgsTeams.put(organisation, team);
+        });
+  }
+
+  /** Remove the user from a team of an organisation, if its memberships are cached. */
+  public void removeTeamMember(String organisation, String team, String username) {
+    patch(username, orgsTeams -> orgsTeams.remove(organisation, team));
+  }
+
+  /**
+   * Drop the memberships of all users, when a change affects users that cannot be told from the
+   * cache keys, like the deletion or the renaming of a team.
+   */
+  public void invalidateAll() {
+    invalidateAllLocally();
+    broadcast.publish(GitHubGroupsCacheUpdate.invalidateAll());
+  }
+
+  /** Store the memberships of a user loaded in advance, before they are needed. */
+  void put(String username, OrganizationStructure orgsTeams) {
+    putLocally(username, orgsTeams);
+    broadcast.publish(GitHubGroupsCacheUpdate.put(username, orgsTeams));
+  }
+
+  /** Apply a change of the cache published by another node. */
+  @VisibleForTesting
+  void apply(GitHubGroupsCacheUpdate update) {
+    switch (update.getType()) {
+      case PUT:
+        putLocally(update.getUsername(), update.getOrgsTeams());
+        break;
+      case INVALIDATE:
+        invalidate(update.getUsername());
+        break;
+      case INVALIDATE_ALL:
+        invalidateAllLocally();
+        break;
+    }
+  }
+
+  private void putLocally(String username, OrganizationStructure orgsTeams) {
+    orgTeamsByUsername.put(username, orgsTeams);
+    activeUsers.loaded(username);
+    membersIndex.update(username, orgsTeams);
+  }
+
+  private void invalidate(String username) {
+    orgTeamsByUsername.invalidate(username);
+    negativeCache.invalidate(username);
+    activeUsers.forgetLoaded(username);
+    membersIndex.remove(username);
+  }
+
+  private void invalidateAllLocally() {
+    orgTeamsByUsername.invalidateAll();
+    negativeCache.invalidateAll();
+    activeUsers.forgetAllLoaded();
+    membersIndex.clear();
+  }
+
+  /**
+   * Time after which the cached memberships of a user are reloaded in background, as configured by
+   * {@code cache."<plugin>.groups".refreshAfterWrite}.
+   */
+  static long refreshAfterWriteMsec(Config gerritConfig, String pluginName) {
+    return ConfigUtil.getTimeUnit(
+        gerritConfig,
+        "cache",
+        pluginName + "." + ORGS_CACHE_NAME,
+        "refreshAfterWrite",
+        TimeUnit.MINUTES.toMillis(GROUPS_CACHE_TTL_MINS),
+        TimeUnit.MILLISECONDS);
+  }
+
+  private OrganizationStructure orgTeamsOf(String username) throws ExecutionException {
+    if (negativeCache.contains(username)) {
+      return NO_ORGANISATIONS;
+    }
+
+    try {
+      return orgTeamsByUsername.get(username);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof NoGitHubLoginException) {
+        negativeCache.put(username);
+        return NO_ORGANISATIONS;
+      }
+      throw e;
+    }
+  }
+
+  private synchronized void patch(String username, Consumer<OrganizationStructure.Builder> change) {
+    OrganizationStructure cached = orgTeamsByUsername.getIfPresent(username);
+    if (cached == null) {
+      return;
+    }
+
+    OrganizationStructure.Builder patchedBuilder = cached.toBuilder();
+    change.accept(patchedBuilder);
+    OrganizationStructure patched = patchedBuilder.build();
+    log.debug("GitHub memberships of user '{}' updated to: {}", username, patched);
+    put(username, patched);
   }
 }
@@ -0,0 +1,30 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import java.util.function.Consumer;
+
+/**
+ * Shares the changes of the GitHub groups cache amongst the Gerrit nodes of a cluster, so that the
+ * memberships loaded, updated or invalidated on one node are applied by the others without going
+ * back to GitHub.
+ */
+public interface GitHubGroupsCacheBroadcast {
+
+  /** Send a change of the local cache to the other nodes. */
+  void publish(GitHubGroupsCacheUpdate update);
+
+  /** Receive the changes published by the other nodes. */
+  void subscribe(Consumer<GitHubGroupsCacheUpdate> subscriber);
+}
@@ -0,0 +1,38 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+
+/** Shares the groups cache through {@code github.groupsBroadcastDirectory}, when configured. */
+class GitHubGroupsCacheBroadcastProvider implements Provider<GitHubGroupsCacheBroadcast> {
+  private final GitHubConfig config;
+  private final Provider<FileDropGroupsCacheBroadcast> fileDropBroadcast;
+
+  @Inject
+  GitHubGroupsCacheBroadcastProvider(
+      GitHubConfig config, Provider<FileDropGroupsCacheBroadcast> fileDropBroadcast) {
+    this.config = config;
+    this.fileDropBroadcast = fileDropBroadcast;
+  }
+
+  @Override
+  public GitHubGroupsCacheBroadcast get() {
+    return config.groupsBroadcastDirectory != null
+        ? fileDropBroadcast.get()
+        : new LocalGroupsCacheBroadcast();
+  }
+}
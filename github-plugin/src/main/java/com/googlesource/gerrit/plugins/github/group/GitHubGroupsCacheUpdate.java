@@ -0,0 +1,77 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import com.google.gerrit.common.Nullable;
+import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
+
+/** Change of the GitHub groups cache of a Gerrit node, shared with the other nodes. */
+public final class GitHubGroupsCacheUpdate {
+
+  public enum Type {
+    /** New organisations and teams of a user. */
+    PUT,
+    /** Memberships of a user to be loaded again from GitHub. */
+    INVALIDATE,
+    /** Memberships of all users to be loaded again from GitHub. */
+    INVALIDATE_ALL
+  }
+
+  private static final GitHubGroupsCacheUpdate INVALIDATE_ALL =
+      new GitHubGroupsCacheUpdate(Type.INVALIDATE_ALL, null, null);
+
+  private final Type type;
+  private final String username;
+  private final OrganizationStructure orgsTeams;
+
+  private GitHubGroupsCacheUpdate(
+      Type type, @Nullable String username, @Nullable OrganizationStructure orgsTeams) {
+    this.type = type;
+    this.username = username;
+    this.orgsTeams = orgsTeams;
+  }
+
+  public static GitHubGroupsCacheUpdate put(String username, OrganizationStructure orgsTeams) {
+    return new GitHubGroupsCacheUpdate(Type.PUT, username, orgsTeams);
+  }
+
+  public static GitHubGroupsCacheUpdate invalidate(String username) {
+    return new GitHubGroupsCacheUpdate(Type.INVALIDATE, username, null);
+  }
+
+  public static GitHubGroupsCacheUpdate invalidateAll() {
+    return INVALIDATE_ALL;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  /** User whose memberships changed, {@code null} for {@link Type#INVALIDATE_ALL}. */
+  @Nullable
+  public String getUsername() {
+    return username;
+  }
+
+  /** New memberships of the user, only for {@link Type#PUT}. */
+  @Nullable
+  public OrganizationStructure getOrgsTeams() {
+    return orgsTeams;
+  }
+
+  @Override
+  public String toString() {
+    return "GitHubGroupsCacheUpdate [type=" + type + ", username=" + username + "]";
+  }
+}
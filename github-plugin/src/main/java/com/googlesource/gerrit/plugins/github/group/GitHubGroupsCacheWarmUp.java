@@ -0,0 +1,193 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.server.config.GerritServerConfig;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache.OrganisationLoader;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
+import com.googlesource.gerrit.plugins.github.oauth.UserScopedProvider;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.eclipse.jgit.lib.Config;
+import org.kohsuke.github.GHRateLimit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads in advance the GitHub organisations and teams of the most recently active users, so that
+ * their first request after a restart, or at the beginning of the day, does not wait for GitHub.
+ *
+ * <p>The warm-up runs when the plugin starts and then on the optional {@code
+ * github.groupsWarmUpStartTime} and {@code github.groupsWarmUpInterval} schedule. Users are loaded
+ * on the groups refresh workers, never more than {@code github.groupsRefreshThreads} at a time.
+ * Users whose memberships have been written to the cache more recently than its {@code
+ * refreshAfterWrite} are still fresh and skipped.
+ *
+ * <p>The warm-up stops as soon as the GitHub API rate limit returned along with the memberships of
+ * a user is running low, leaving what is left to the requests of the users. No further call is made
+ * to check the rate limit.
+ *
+ * <p>The active users are saved every {@value #ACTIVE_USERS_SAVE_INTERVAL_MINS} minutes, after each
+ * warm-up and when the plugin stops, so that they are not lost when Gerrit is not stopped cleanly.
+ */
+@Singleton
+public class GitHubGroupsCacheWarmUp implements LifecycleListener {
+  private static final Logger log = LoggerFactory.getLogger(GitHubGroupsCacheWarmUp.class);
+  private static final long ACTIVE_USERS_SAVE_INTERVAL_MINS = 15;
+
+  private final GitHubGroupsActiveUsers activeUsers;
+  private final GitHubGroupsCache groupsCache;
+  private final OrganisationLoader loader;
+  private final GitHubGroupsRateLimits rateLimits;
+  private final UserScopedProvider<GitHubLogin> ghLoginProvider;
+  private final GitHubGroupsRefreshExecutor refreshExecutor;
+  private final GitHubConfig config;
+  private final long refreshAfterWriteMsec;
+  private final ScheduledExecutorService scheduler;
+
+  @Inject
+  GitHubGroupsCacheWarmUp(
+      GitHubGroupsActiveUsers activeUsers,
+      GitHubGroupsCache groupsCache,
+      OrganisationLoader loader,
+      GitHubGroupsRateLimits rateLimits,
+      UserScopedProvider<GitHubLogin> ghLoginProvider,
+      GitHubGroupsRefreshExecutor refreshExecutor,
+      GitHubConfig config,
+      @GerritServerConfig Config gerritConfig,
+      @PluginName String pluginName) {
+    this.activeUsers = activeUsers;
+    this.groupsCache = groupsCache;
+    this.loader = loader;
+    this.rateLimits = rateLimits;
+    this.ghLoginProvider = ghLoginProvider;
+    this.refreshExecutor = refreshExecutor;
+    this.config = config;
+    this.refreshAfterWriteMsec = GitHubGroupsCache.refreshAfterWriteMsec(gerritConfig, pluginName);
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("GitHub-Groups-WarmUp").build());
+  }
+
+  @Override
+  public void start() {
+    activeUsers.load();
+    if (config.groupsWarmUpUsers <= 0) {
+      return;
+    }
+
+    scheduler.execute(this::warmUp);
+    scheduler.scheduleAtFixedRate(
+        this::saveActiveUsers,
+        ACTIVE_USERS_SAVE_INTERVAL_MINS,
+        ACTIVE_USERS_SAVE_INTERVAL_MINS,
+        TimeUnit.MINUTES);
+    config.groupsWarmUpSchedule.ifPresent(
+        schedule ->
+            scheduler.scheduleAtFixedRate(
+                this::warmUp, schedule.initialDelay(), schedule.interval(), TimeUnit.MILLISECONDS));
+  }
+
+  @Override
+  public void stop() {
+    scheduler.shutdownNow();
+    saveActiveUsers();
+  }
+
+  private void saveActiveUsers() {
+    activeUsers.save(config.groupsWarmUpActiveWithinMsec);
+  }
+
+  @VisibleForTesting
+  void warmUp() {
+    List<String> usernames =
+        activeUsers
+            .mostRecent(config.groupsWarmUpActiveWithinMsec, config.groupsWarmUpUsers)
+            .stream()
+            .filter(username -> !activeUsers.loadedWithin(username, refreshAfterWriteMsec))
+            .collect(Collectors.toList());
+    log.info("Loading GitHub groups of {} recently active users", usernames.size());
+
+    AtomicBoolean rateLimited = new AtomicBoolean();
+    Semaphore slots = new Semaphore(config.groupsRefreshThreads);
+    try {
+      for (String username : usernames) {
+        slots.acquire();
+        if (rateLimited.get()) {
+          slots.release();
+          break;
+        }
+        refreshExecutor
+            .submit(() -> warmUp(username, rateLimited))
+            .addListener(slots::release, MoreExecutors.directExecutor());
+      }
+      slots.acquire(config.groupsRefreshThreads);
+      if (rateLimited.get()) {
+        log.info("GitHub groups warm-up stopped: the GitHub API rate limit is running low");
+      } else {
+        log.info("GitHub groups of {} recently active users loaded", usernames.size());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+
+    saveActiveUsers();
+  }
+
+  private Void warmUp(String username, AtomicBoolean rateLimited) {
+    if (rateLimited.get() || isRateLimitLow(username, rateLimited)) {
+      return null;
+    }
+
+    try {
+      GitHubLogin ghLogin = ghLoginProvider.get(username);
+      if (ghLogin == null) {
+        return null;
+      }
+
+      groupsCache.put(username, loader.load(username, ghLogin));
+    } catch (Exception e) {
+      log.warn("Cannot load in advance the GitHub groups of user '{}'", username, e);
+    }
+    isRateLimitLow(username, rateLimited);
+    return null;
+  }
+
+  private boolean isRateLimitLow(String username, AtomicBoolean rateLimited) {
+    Optional<GHRateLimit.Record> rateLimit = rateLimits.low(username);
+    if (rateLimit.isPresent() && rateLimited.compareAndSet(false, true)) {
+      log.info(
+          "Stopping GitHub groups warm-up at user '{}': {} API calls left until {}",
+          username,
+          rateLimit.get().getRemaining(),
+          rateLimit.get().getResetDate());
+    }
+    return rateLimit.isPresent();
+  }
+}
@@ -0,0 +1,96 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gerrit.metrics.Counter0;
+import com.google.gerrit.metrics.Description;
+import com.google.gerrit.metrics.MetricMaker;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users without a GitHub login, like service accounts or users only known to LDAP.
+ *
+ * <p>Remembered in memory for {@code github.groupsNegativeCacheTtl}, so that checking their GitHub
+ * groups does not look up their account and external IDs over and over again, and never stored in
+ * the persistent groups cache.
+ */
+@Singleton
+public class GitHubGroupsNegativeCache {
+  private final Cache<String, Boolean> usersWithoutLogin;
+  private final Counter0 hits;
+  private final Counter0 misses;
+
+  @Inject
+  GitHubGroupsNegativeCache(GitHubConfig config, MetricMaker metricMaker) {
+    this(config.groupsNegativeCacheTtlMsec, Ticker.systemTicker(), metricMaker);
+  }
+
+  @VisibleForTesting
+  GitHubGroupsNegativeCache(long ttlMsec, Ticker ticker, MetricMaker metricMaker) {
+    this.usersWithoutLogin =
+        CacheBuilder.newBuilder()
+            .ticker(ticker)
+            .expireAfterWrite(ttlMsec, TimeUnit.MILLISECONDS)
+            .build();
+    this.hits =
+        metricMaker.newCounter(
+            "groups/negative_cache_hits",
+            new Description("Checks of the GitHub groups of users known to have no GitHub login")
+                .setRate()
+                .setUnit("checks"));
+    this.misses =
+        metricMaker.newCounter(
+            "groups/negative_cache_misses",
+            new Description("Users found without a GitHub login when loading their GitHub groups")
+                .setRate()
+                .setUnit("users"));
+    metricMaker.newCallbackMetric(
+        "groups/negative_cache_size",
+        Long.class,
+        new Description("Users currently known to have no GitHub login")
+            .setGauge()
+            .setUnit("users"),
+        usersWithoutLogin::size);
+  }
+
+  /** Whether the user is known to have no GitHub login. */
+  public boolean contains(String username) {
+    if (usersWithoutLogin.getIfPresent(username) == null) {
+      return false;
+    }
+    hits.increment();
+    return true;
+  }
+
+  /** Remember that the user has no GitHub login. */
+  public void put(String username) {
+    misses.increment();
+    usersWithoutLogin.put(username, Boolean.TRUE);
+  }
+
+  public void invalidate(String username) {
+    usersWithoutLogin.invalidate(username);
+  }
+
+  public void invalidateAll() {
+    usersWithoutLogin.invalidateAll();
+  }
+}
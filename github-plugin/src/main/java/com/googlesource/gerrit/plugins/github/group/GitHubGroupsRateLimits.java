@@ -0,0 +1,44 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.plugins.github.group;
+
+import com.google.inject.Singleton;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.kohsuke.github.GHRateLimit;
+
+/**
+ * GitHub API rate limits of the users, as returned in the headers of the last responses to the
+ * loads of their organisations and teams.
+ *
+ * <p>Unlike the {@code /rate_limit} endpoint, reading them does not call GitHub.
+ */
+@Singleton
+class GitHubGroupsRateLimits {
+  private final Map<String, GHRateLimit.Record> lastByUsername = new ConcurrentHashMap<>();
+
+  void update(String username, GHRateLimit.Record rateLimit) {
+    lastByUsername.put(username, rateLimit);
+  }
+
+  /** Last rate limit of the user, when less than 10% of it is left until it is reset. */
+  Optional<GHRateLimit.Record> low(String username) {
+    return Optional.ofNullable(lastByUsername.get(username))
+        .filter(
+            rateLimit ->
+                !rateLimit.isExpired() && rateLimit.getRemaining() < rateLimit.getLimit() / 10);
+  }
+}
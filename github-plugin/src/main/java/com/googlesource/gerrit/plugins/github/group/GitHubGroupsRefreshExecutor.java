@@ -0,0 +1,58 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+/**
+ * Workers reloading in background the GitHub organisations and teams of the users, once their
+ * cached entry is due for refresh.
+ *
+ * <p>Reloads are kept off the threads checking the group memberships, which keep getting the
+ * previously cached value until the reload is complete.
+ */
+@Singleton
+public class GitHubGroupsRefreshExecutor implements LifecycleListener {
+  private final ListeningExecutorService executor;
+
+  @Inject
+  GitHubGroupsRefreshExecutor(GitHubConfig config) {
+    this.executor =
+        MoreExecutors.listeningDecorator(
+            Executors.newFixedThreadPool(
+                config.groupsRefreshThreads,
+                new ThreadFactoryBuilder().setNameFormat("GitHub-Groups-Refresh-%d").build()));
+  }
+
+  public <T> ListenableFuture<T> submit(Callable<T> reload) {
+    return executor.submit(reload);
+  }
+
+  @Override
+  public void start() {}
+
+  @Override
+  public void stop() {
+    executor.shutdownNow();
+  }
+}
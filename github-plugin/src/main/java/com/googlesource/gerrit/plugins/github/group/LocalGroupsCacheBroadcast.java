@@ -0,0 +1,57 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Broadcast amongst the nodes living in the same JVM.
+ *
+ * <p>A single node has nobody to share its changes with, which is the default when no other
+ * broadcast is configured. Nodes created with {@link #join()} make a local cluster for tests.
+ */
+public final class LocalGroupsCacheBroadcast implements GitHubGroupsCacheBroadcast {
+  private final List<LocalGroupsCacheBroadcast> nodes;
+  private volatile Consumer<GitHubGroupsCacheUpdate> subscriber = update -> {};
+
+  public LocalGroupsCacheBroadcast() {
+    this(new CopyOnWriteArrayList<>());
+  }
+
+  private LocalGroupsCacheBroadcast(List<LocalGroupsCacheBroadcast> nodes) {
+    this.nodes = nodes;
+    nodes.add(this);
+  }
+
+  /** Another node of the same local cluster. */
+  public LocalGroupsCacheBroadcast join() {
+    return new LocalGroupsCacheBroadcast(nodes);
+  }
+
+  @Override
+  public void publish(GitHubGroupsCacheUpdate update) {
+    for (LocalGroupsCacheBroadcast node : nodes) {
+      if (node != this) {
+        node.subscriber.accept(update);
+      }
+    }
+  }
+
+  @Override
+  public void subscribe(Consumer<GitHubGroupsCacheUpdate> subscriber) {
+    this.subscriber = subscriber;
+  }
+}
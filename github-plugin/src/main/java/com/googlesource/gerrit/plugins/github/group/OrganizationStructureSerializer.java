@@ -0,0 +1,134 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import com.google.gerrit.server.cache.serialize.CacheSerializer;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary layout of the {@link OrganizationStructure} persisted in the groups cache.
+ *
+ * <p>All the organisation and team names are written once in a table of length-prefixed UTF-8
+ * strings, followed by the organisations referring to their name and to the names of their teams by
+ * position in the table. Counts and positions are written as varints:
+ *
+ * <pre>
+ * format version
+ * names count, names...
+ * organisations count, (organisation name, teams count, team names...,
+ *   parent teams count, (team name, parent team name)...)...
+ * </pre>
+ *
+ * <p>Only the teams the user is a direct member of are written: the teams inherited through the
+ * parent teams are resolved again when the structure is read back. Format version 1 had no parent
+ * teams.
+ */
+enum OrganizationStructureSerializer implements CacheSerializer<OrganizationStructure> {
+  INSTANCE;
+
+  private static final int FORMAT_VERSION = 2;
+
+  @Override
+  public byte[] serialize(OrganizationStructure orgsTeams) {
+    Map<String, Integer> names = new LinkedHashMap<>();
+    for (String organisation : orgsTeams.keySet()) {
+      names.putIfAbsent(organisation, names.size());
+      for (String team : orgsTeams.getDirectTeams(organisation)) {
+        names.putIfAbsent(team, names.size());
+      }
+      orgsTeams
+          .getParentTeams(organisation)
+          .forEach(
+              (team, parent) -> {
+                names.putIfAbsent(team, names.size());
+                names.putIfAbsent(parent, names.size());
+              });
+    }
+
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+      out.writeUInt32NoTag(FORMAT_VERSION);
+      out.writeUInt32NoTag(names.size());
+      for (String name : names.keySet()) {
+        out.writeStringNoTag(name);
+      }
+      out.writeUInt32NoTag(orgsTeams.keySet().size());
+      for (String organisation : orgsTeams.keySet()) {
+        out.writeUInt32NoTag(names.get(organisation));
+        List<Integer> teams = new ArrayList<>();
+        orgsTeams.getDirectTeams(organisation).forEach(team -> teams.add(names.get(team)));
+        out.writeUInt32NoTag(teams.size());
+        for (int team : teams) {
+          out.writeUInt32NoTag(team);
+        }
+        Map<String, String> parentTeams = orgsTeams.getParentTeams(organisation);
+        out.writeUInt32NoTag(parentTeams.size());
+        for (Map.Entry<String, String> parentTeam : parentTeams.entrySet()) {
+          out.writeUInt32NoTag(names.get(parentTeam.getKey()));
+          out.writeUInt32NoTag(names.get(parentTeam.getValue()));
+        }
+      }
+      out.flush();
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public OrganizationStructure deserialize(byte[] in) {
+    try {
+      CodedInputStream input = CodedInputStream.newInstance(in);
+      int version = input.readUInt32();
+      if (version < 1 || version > FORMAT_VERSION) {
+        throw new IllegalArgumentException(
+            "Unsupported OrganizationStructure format version " + version);
+      }
+
+      String[] names = new String[input.readUInt32()];
+      for (int i = 0; i < names.length; i++) {
+        names[i] = input.readString();
+      }
+
+      OrganizationStructure.Builder orgsTeams = OrganizationStructure.builder();
+      int organisations = input.readUInt32();
+      for (int i = 0; i < organisations; i++) {
+        String organisation = names[input.readUInt32()];
+        orgsTeams.put(organisation);
+        int teams = input.readUInt32();
+        for (int t = 0; t < teams; t++) {
+          orgsTeams.put(organisation, names[input.readUInt32()]);
+        }
+        int parentTeams = version >= 2 ? input.readUInt32() : 0;
+        for (int p = 0; p < parentTeams; p++) {
+          orgsTeams.putParentTeam(
+              organisation, names[input.readUInt32()], names[input.readUInt32()]);
+        }
+      }
+      return orgsTeams.build();
+    } catch (IOException | ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Failed to deserialize OrganizationStructure", e);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import com.google.gerrit.entities.RefNames;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.git.RepositoryRefsSync;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
+import com.googlesource.gerrit.plugins.github.oauth.UserScopedProvider;
+import java.io.IOException;
+import java.util.Optional;
+import org.kohsuke.github.GHEventPayload.Create;
+import org.kohsuke.github.GHRepository;
+
+/**
+ * Handles create event in github webhook, fetching the new branch or tag into the imported
+ * repository.
+ *
+ * @see <a href="https://docs.github.com/en/webhooks/webhook-events-and-payloads#create">Create
+ *     Event</a>
+ */
+@Singleton
+class CreateHandler implements WebhookEventHandler<Create> {
+  private final RepositoryRefsSync refsSync;
+  private final UserScopedProvider<GitHubLogin> loginProvider;
+  private final GitHubConfig config;
+
+  @Inject
+  CreateHandler(
+      RepositoryRefsSync refsSync,
+      UserScopedProvider<GitHubLogin> loginProvider,
+      GitHubConfig config) {
+    this.refsSync = refsSync;
+    this.loginProvider = loginProvider;
+    this.config = config;
+  }
+
+  @Override
+  public boolean doAction(Create payload) throws IOException {
+    GHRepository repository = payload.getRepository();
+    Optional<String> refName = refName(payload.getRefType(), payload.getRef());
+    if (!refName.isPresent()) {
+      return false;
+    }
+    return refsSync.update(
+        repository.getOwnerName(),
+        repository.getName(),
+        refName.get(),
+        null,
+        false,
+        loginProvider.get(config.webhookUser));
+  }
+
+  @Override
+  public Class<Create> getPayloadType() {
+    return Create.class;
+  }
+
+  /** Full name of the branch or tag of a create or delete event. */
+  static Optional<String> refName(String refType, String ref) {
+    if ("branch".equals(refType)) {
+      return Optional.of(RefNames.REFS_HEADS + ref);
+    } else if ("tag".equals(refType)) {
+      return Optional.of(RefNames.REFS_TAGS + ref);
+    }
+    return Optional.empty();
+  }
+}
@@ -0,0 +1,54 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.git.RepositoryRefsSync;
+import java.io.IOException;
+import java.util.Optional;
+import org.kohsuke.github.GHEventPayload.Delete;
+import org.kohsuke.github.GHRepository;
+
+/**
+ * Handles delete event in github webhook, removing the deleted branch or tag from the imported
+ * repository.
+ *
+ * @see <a href="https://docs.github.com/en/webhooks/webhook-events-and-payloads#delete">Delete
+ *     Event</a>
+ */
+@Singleton
+class DeleteHandler implements WebhookEventHandler<Delete> {
+  private final RepositoryRefsSync refsSync;
+
+  @Inject
+  DeleteHandler(RepositoryRefsSync refsSync) {
+    this.refsSync = refsSync;
+  }
+
+  @Override
+  public boolean doAction(Delete payload) throws IOException {
+    GHRepository repository = payload.getRepository();
+    Optional<String> refName = CreateHandler.refName(payload.getRefType(), payload.getRef());
+    if (!refName.isPresent()) {
+      return false;
+    }
+    return refsSync.delete(repository.getOwnerName(), repository.getName(), refName.get());
+  }
+
+  @Override
+  public Class<Delete> getPayloadType() {
+    return Delete.class;
+  }
+}
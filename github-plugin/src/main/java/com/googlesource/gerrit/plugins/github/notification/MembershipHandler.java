@@ -0,0 +1,89 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import com.google.common.base.Strings;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.git.GitHubAccountResolver;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Handles membership event in github webhook, updating the cached teams of the member added or
+ * removed.
+ *
+ * @see <a href="https://docs.github.com/en/webhooks/webhook-events-and-payloads#membership">
+ *     Membership Event</a>
+ */
+@Singleton
+class MembershipHandler implements WebhookEventHandler<MembershipHandler.Membership> {
+  private final GitHubGroupsCache groupsCache;
+  private final GitHubAccountResolver accountResolver;
+
+  static class Account {
+    String login;
+  }
+
+  static class Team {
+    String name;
+  }
+
+  static class Membership {
+    String action;
+    String scope;
+    Account member;
+    Team team;
+    Account organization;
+  }
+
+  @Inject
+  MembershipHandler(GitHubGroupsCache groupsCache, GitHubAccountResolver accountResolver) {
+    this.groupsCache = groupsCache;
+    this.accountResolver = accountResolver;
+  }
+
+  @Override
+  public boolean doAction(Membership payload) throws IOException {
+    if (!"team".equals(payload.scope)
+        || payload.member == null
+        || payload.team == null
+        || payload.organization == null) {
+      return false;
+    }
+
+    // The groups cache is keyed by Gerrit username, which may differ from the GitHub login
+    Optional<String> username = accountResolver.findUsername(payload.member.login);
+    if (username.isEmpty()) {
+      return false;
+    }
+
+    switch (Strings.nullToEmpty(payload.action)) {
+      case "added":
+        groupsCache.addTeamMember(payload.organization.login, payload.team.name, username.get());
+        return true;
+      case "removed":
+        groupsCache.removeTeamMember(payload.organization.login, payload.team.name, username.get());
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  public Class<Membership> getPayloadType() {
+    return Membership.class;
+  }
+}
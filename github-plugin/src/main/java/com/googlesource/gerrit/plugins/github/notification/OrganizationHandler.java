@@ -0,0 +1,89 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import com.google.common.base.Strings;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.git.GitHubAccountResolver;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache;
+import com.googlesource.gerrit.plugins.github.notification.MembershipHandler.Account;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Handles organization event in github webhook, updating the cached organisations of the member
+ * added or removed.
+ *
+ * @see <a href="https://docs.github.com/en/webhooks/webhook-events-and-payloads#organization">
+ *     Organization Event</a>
+ */
+@Singleton
+class OrganizationHandler implements WebhookEventHandler<OrganizationHandler.Organization> {
+  private final GitHubGroupsCache groupsCache;
+  private final GitHubAccountResolver accountResolver;
+
+  static class Member {
+    Account user;
+  }
+
+  static class Organization {
+    String action;
+    Member membership;
+    Account organization;
+  }
+
+  @Inject
+  OrganizationHandler(GitHubGroupsCache groupsCache, GitHubAccountResolver accountResolver) {
+    this.groupsCache = groupsCache;
+    this.accountResolver = accountResolver;
+  }
+
+  @Override
+  public boolean doAction(Organization payload) throws IOException {
+    switch (Strings.nullToEmpty(payload.action)) {
+      case "member_added":
+        Optional<String> added = memberUsername(payload);
+        added.ifPresent(
+            username -> groupsCache.addOrganisationMember(payload.organization.login, username));
+        return added.isPresent();
+      case "member_removed":
+        Optional<String> removed = memberUsername(payload);
+        removed.ifPresent(
+            username -> groupsCache.removeOrganisationMember(payload.organization.login, username));
+        return removed.isPresent();
+      case "renamed":
+      case "deleted":
+        groupsCache.invalidateAll();
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /** The groups cache is keyed by Gerrit username, which may differ from the GitHub login. */
+  private Optional<String> memberUsername(Organization payload) throws IOException {
+    if (payload.organization == null
+        || payload.membership == null
+        || payload.membership.user == null) {
+      return Optional.empty();
+    }
+    return accountResolver.findUsername(payload.membership.user.login);
+  }
+
+  @Override
+  public Class<Organization> getPayloadType() {
+    return Organization.class;
+  }
+}
@@ -0,0 +1,159 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.git.GitJob;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the bursts of events on the same pull request, so that only its latest head gets
+ * imported.
+ *
+ * <p>Heads are registered as soon as their events are accepted, so that the events queued behind a
+ * newer head of the same pull request are skipped without importing anything. A newer head also
+ * cancels the import job of the previous one when already running.
+ *
+ * <p>The import of a head is debounced from its registration, so that the heads pushed in a quick
+ * succession supersede it before it starts.
+ */
+@Singleton
+public class PullRequestEventCoalescer {
+
+  /** Latest head of a pull request waiting for, or going through, its import. */
+  public class Ticket {
+    private final String key;
+    private final String headSha;
+    private final long registeredNanos = ticker.read();
+    private volatile boolean superseded;
+    private boolean claimed;
+    private GitJob job;
+
+    private Ticket(String key, String headSha) {
+      this.key = key;
+      this.headSha = headSha;
+    }
+
+    public boolean isSuperseded() {
+      return superseded;
+    }
+
+    private void supersede() {
+      superseded = true;
+      if (job != null) {
+        job.cancel();
+      }
+    }
+  }
+
+  private final long debounceMsec;
+  private final Ticker ticker;
+  private final Map<String, Ticket> latestByPullRequest = new HashMap<>();
+
+  @Inject
+  PullRequestEventCoalescer(GitHubConfig config) {
+    this(config.webhookPullRequestDebounceMsec);
+  }
+
+  @VisibleForTesting
+  PullRequestEventCoalescer(long debounceMsec) {
+    this(debounceMsec, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  PullRequestEventCoalescer(long debounceMsec, Ticker ticker) {
+    this.debounceMsec = debounceMsec;
+    this.ticker = ticker;
+  }
+
+  /**
+   * Register a new head of a pull request, superseding the previous one.
+   *
+   * @return the ticket for importing the head
+   */
+  public synchronized Ticket register(String repository, int prNumber, String headSha) {
+    String key = key(repository, prNumber);
+    Ticket previous = latestByPullRequest.get(key);
+    if (previous != null && previous.headSha.equals(headSha)) {
+      return previous;
+    }
+
+    Ticket ticket = new Ticket(key, headSha);
+    latestByPullRequest.put(key, ticket);
+    if (previous != null) {
+      previous.supersede();
+    }
+    return ticket;
+  }
+
+  /**
+   * Time left before the import of a head of a pull request can start.
+   *
+   * @return milliseconds left of the debounce window of the head, or zero when it is over or the
+   *     head is not the latest one waiting for its import
+   */
+  public synchronized long remainingDebounceMsec(String repository, int prNumber, String headSha) {
+    Ticket latest = latestByPullRequest.get(key(repository, prNumber));
+    if (latest == null || !latest.headSha.equals(headSha) || latest.claimed) {
+      return 0;
+    }
+    long elapsedMsec = TimeUnit.NANOSECONDS.toMillis(ticker.read() - latest.registeredNanos);
+    return Math.max(debounceMsec - elapsedMsec, 0);
+  }
+
+  /**
+   * Claim the import of a head of a pull request, registering it if needed.
+   *
+   * @return the ticket for importing the head, or empty if a newer head has been registered or the
+   *     same head is already going through its import
+   */
+  public synchronized Optional<Ticket> claim(String repository, int prNumber, String headSha) {
+    Ticket latest = latestByPullRequest.get(key(repository, prNumber));
+    if (latest == null) {
+      latest = register(repository, prNumber, headSha);
+    } else if (!latest.headSha.equals(headSha) || latest.claimed) {
+      return Optional.empty();
+    }
+    latest.claimed = true;
+    return Optional.of(latest);
+  }
+
+  /**
+   * Associate the import job to the ticket, so that it can be cancelled when superseded.
+   *
+   * @return false if the ticket has been superseded and the job should not run
+   */
+  public synchronized boolean start(Ticket ticket, GitJob job) {
+    if (ticket.isSuperseded()) {
+      return false;
+    }
+    ticket.job = job;
+    return true;
+  }
+
+  public synchronized void finish(Ticket ticket) {
+    latestByPullRequest.remove(ticket.key, ticket);
+  }
+
+  private static String key(String repository, int prNumber) {
+    return repository + "#" + prNumber;
+  }
+}
@@ -14,13 +14,22 @@
 
 package com.googlesource.gerrit.plugins.github.notification;
 
+import com.google.common.base.Strings;
+import com.google.gerrit.entities.Project;
 import com.google.inject.Inject;
-import com.google.inject.Provider;
 import com.google.inject.Singleton;
-import com.googlesource.gerrit.plugins.github.git.PullRequestImportType;
-import com.googlesource.gerrit.plugins.github.git.PullRequestImporter;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.git.GitJobStatus;
+import com.googlesource.gerrit.plugins.github.git.PullRequestChangesCache;
+import com.googlesource.gerrit.plugins.github.git.PullRequestImportJob;
+import com.googlesource.gerrit.plugins.github.git.PullRequestLifecycle;
+import com.googlesource.gerrit.plugins.github.git.PullRequestsFetch;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
+import com.googlesource.gerrit.plugins.github.oauth.UserScopedProvider;
 import java.io.IOException;
+import java.util.Optional;
 import org.kohsuke.github.GHEventPayload.PullRequest;
+import org.kohsuke.github.GHPullRequest;
 import org.kohsuke.github.GHRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,35 +37,178 @@ import org.slf4j.LoggerFactory;
 /**
  * Handles pull_request event in github webhook.
  *
+ * <p>Opened and synchronized pull requests are imported, whilst the other actions are applied to
+ * the changes already imported.
+ *
  * @see <a href= "https://developer.github.com/v3/activity/events/types/#pullrequestevent"> Pull
  *     Request Event</a>
  */
 @Singleton
 class PullRequestHandler implements WebhookEventHandler<PullRequest> {
   private static final Logger logger = LoggerFactory.getLogger(PullRequestHandler.class);
-  private final Provider<PullRequestImporter> prImportProvider;
+  private final PullRequestImportJob.Factory prImportJobFactory;
+  private final PullRequestChangesCache pullRequestChangesCache;
+  private final UserScopedProvider<GitHubLogin> loginProvider;
+  private final GitHubConfig config;
+  private final PullRequestEventCoalescer coalescer;
+  private final PullRequestLifecycle lifecycle;
 
   @Inject
-  public PullRequestHandler(Provider<PullRequestImporter> pullRequestsImporter) {
-    this.prImportProvider = pullRequestsImporter;
+  public PullRequestHandler(
+      PullRequestImportJob.Factory prImportJobFactory,
+      PullRequestChangesCache pullRequestChangesCache,
+      UserScopedProvider<GitHubLogin> loginProvider,
+      GitHubConfig config,
+      PullRequestEventCoalescer coalescer,
+      PullRequestLifecycle lifecycle) {
+    this.prImportJobFactory = prImportJobFactory;
+    this.pullRequestChangesCache = pullRequestChangesCache;
+    this.loginProvider = loginProvider;
+    this.config = config;
+    this.coalescer = coalescer;
+    this.lifecycle = lifecycle;
   }
 
   @Override
   public boolean doAction(PullRequest payload) throws IOException {
+    String action = Strings.nullToEmpty(payload.getAction());
+    GHRepository repository = payload.getRepository();
+    Project.NameKey project =
+        Project.nameKey(repository.getOwnerName() + "/" + repository.getName());
+    int prNumber = payload.getNumber();
+    GHPullRequest pr = payload.getPullRequest();
+    switch (action) {
+      case "opened":
+      case "synchronize":
+        return importHead(payload);
+      case "closed":
+        lifecycle.abandon(
+            project,
+            prNumber,
+            (pr.isMerged() ? "Pull request merged on GitHub: " : "Pull request closed on GitHub: ")
+                + pr.getHtmlUrl());
+        return true;
+      case "reopened":
+        lifecycle.restore(project, prNumber, "Pull request reopened on GitHub: " + pr.getHtmlUrl());
+        return true;
+      case "edited":
+        lifecycle.addMessage(
+            project,
+            prNumber,
+            "GitHub Pull Request edited: "
+                + pr.getHtmlUrl()
+                + "\n\n"
+                + pr.getTitle()
+                + "\n\n"
+                + Strings.nullToEmpty(pr.getBody()));
+        return true;
+      case "ready_for_review":
+        lifecycle.setWorkInProgress(project, prNumber, false);
+        return true;
+      case "converted_to_draft":
+        lifecycle.setWorkInProgress(project, prNumber, true);
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  public void onAccepted(PullRequest payload) {
     String action = payload.getAction();
-    if (action.equals("opened") || action.equals("synchronize")) {
+    if ("opened".equals(action) || "synchronize".equals(action)) {
       GHRepository repository = payload.getRepository();
-      Integer prNumber = Integer.valueOf(payload.getNumber());
-      PullRequestImporter prImporter = prImportProvider.get();
-      String organization = repository.getOwnerName();
-      String name = repository.getName();
-      logger.info("Importing {}/{}#{}", organization, name, prNumber);
-      prImporter.importPullRequest(
-          0, organization, name, prNumber.intValue(), PullRequestImportType.Commits);
-      logger.info("Imported {}/{}#{}", organization, name, prNumber);
+      coalescer.register(
+          repository.getOwnerName() + "/" + repository.getName(),
+          payload.getNumber(),
+          payload.getPullRequest().getHead().getSha());
+    }
+  }
+
+  @Override
+  public long deferMsec(PullRequest payload) {
+    String action = payload.getAction();
+    if (!"opened".equals(action) && !"synchronize".equals(action)) {
+      return 0;
+    }
+    GHRepository repository = payload.getRepository();
+    return coalescer.remainingDebounceMsec(
+        repository.getOwnerName() + "/" + repository.getName(),
+        payload.getNumber(),
+        payload.getPullRequest().getHead().getSha());
+  }
+
+  private boolean importHead(PullRequest payload) throws IOException {
+    GHRepository repository = payload.getRepository();
+    int prNumber = payload.getNumber();
+    String organization = repository.getOwnerName();
+    String name = repository.getName();
+    String headSha = payload.getPullRequest().getHead().getSha();
+    // Claimed first, so that the ticket registered when the event was accepted is always finished
+    Optional<PullRequestEventCoalescer.Ticket> ticket =
+        coalescer.claim(organization + "/" + name, prNumber, headSha);
+    if (!ticket.isPresent()) {
+      logger.info(
+          "{}/{}#{} at {} superseded or already being imported",
+          organization,
+          name,
+          prNumber,
+          headSha);
       return true;
     }
-    return false;
+
+    try {
+      if (pullRequestChangesCache.isImported(organization, name, prNumber, headSha)) {
+        logger.info("{}/{}#{} already imported at {}", organization, name, prNumber, headSha);
+        return true;
+      }
+      return importPullRequest(ticket.get(), organization, name, prNumber, headSha);
+    } finally {
+      coalescer.finish(ticket.get());
+    }
+  }
+
+  private boolean importPullRequest(
+      PullRequestEventCoalescer.Ticket ticket,
+      String organization,
+      String name,
+      int prNumber,
+      String headSha)
+      throws IOException {
+    logger.info("Importing {}/{}#{}", organization, name, prNumber);
+    // Runs on a webhook worker: the import cannot rely on the HTTP session of the request
+    PullRequestImportJob prImportJob =
+        prImportJobFactory.create(
+            0,
+            organization,
+            name,
+            prNumber,
+            PullRequestsFetch.single(prNumber),
+            loginProvider.get(config.webhookUser));
+    if (!coalescer.start(ticket, prImportJob)) {
+      logger.info(
+          "{}/{}#{} at {} superseded by a newer head", organization, name, prNumber, headSha);
+      return true;
+    }
+
+    prImportJob.run();
+    GitJobStatus status = prImportJob.getStatus();
+    if (status.getStatus() == GitJobStatus.Code.CANCELLED && ticket.isSuperseded()) {
+      logger.info(
+          "Import of {}/{}#{} at {} cancelled by a newer head",
+          organization,
+          name,
+          prNumber,
+          headSha);
+      return true;
+    }
+    if (status.getStatus() != GitJobStatus.Code.COMPLETE) {
+      throw new IOException(
+          String.format(
+              "Import of %s/%s#%d failed: %s", organization, name, prNumber, status.getValue()));
+    }
+    logger.info("Imported {}/{}#{}", organization, name, prNumber);
+    return true;
   }
 
   @Override
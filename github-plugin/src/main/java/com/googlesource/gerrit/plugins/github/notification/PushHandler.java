@@ -0,0 +1,68 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.git.RepositoryRefsSync;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
+import com.googlesource.gerrit.plugins.github.oauth.UserScopedProvider;
+import java.io.IOException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.kohsuke.github.GHEventPayload.Push;
+import org.kohsuke.github.GHRepository;
+
+/**
+ * Handles push event in github webhook, updating the pushed ref of the imported repository.
+ *
+ * @see <a href="https://docs.github.com/en/webhooks/webhook-events-and-payloads#push">Push
+ *     Event</a>
+ */
+@Singleton
+class PushHandler implements WebhookEventHandler<Push> {
+  private final RepositoryRefsSync refsSync;
+  private final UserScopedProvider<GitHubLogin> loginProvider;
+  private final GitHubConfig config;
+
+  @Inject
+  PushHandler(
+      RepositoryRefsSync refsSync,
+      UserScopedProvider<GitHubLogin> loginProvider,
+      GitHubConfig config) {
+    this.refsSync = refsSync;
+    this.loginProvider = loginProvider;
+    this.config = config;
+  }
+
+  @Override
+  public boolean doAction(Push payload) throws IOException {
+    GHRepository repository = payload.getRepository();
+    if (payload.isDeleted()) {
+      return refsSync.delete(repository.getOwnerName(), repository.getName(), payload.getRef());
+    }
+    return refsSync.update(
+        repository.getOwnerName(),
+        repository.getName(),
+        payload.getRef(),
+        ObjectId.fromString(payload.getHead()),
+        payload.isForced(),
+        loginProvider.get(config.webhookUser));
+  }
+
+  @Override
+  public Class<Push> getPayloadType() {
+    return Push.class;
+  }
+}
@@ -0,0 +1,85 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import com.google.common.base.Strings;
+import com.google.gerrit.extensions.restapi.AuthException;
+import com.google.gerrit.extensions.restapi.BadRequestException;
+import com.google.gerrit.extensions.restapi.ResourceConflictException;
+import com.google.gerrit.extensions.restapi.Response;
+import com.google.gerrit.extensions.restapi.RestModifyView;
+import com.google.gerrit.server.config.ConfigResource;
+import com.google.gerrit.server.permissions.GlobalPermission;
+import com.google.gerrit.server.permissions.PermissionBackend;
+import com.google.gerrit.server.permissions.PermissionBackendException;
+import com.google.inject.Inject;
+import com.googlesource.gerrit.plugins.github.notification.WebhookJournal.Event;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Replays the webhook events recorded in the {@link WebhookJournal}, either from a given offset
+ * onwards or by their GitHub delivery id. Reserved to the Gerrit administrators.
+ */
+public class ReplayWebhookEvents
+    implements RestModifyView<ConfigResource, ReplayWebhookEvents.Input> {
+  public static class Input {
+    public Long offset;
+    public String delivery;
+  }
+
+  public static class Result {
+    public List<Long> offsets;
+    public int replayed;
+  }
+
+  private final WebhookJournal journal;
+  private final WebhookEventReplayer replayer;
+  private final PermissionBackend permissionBackend;
+
+  @Inject
+  ReplayWebhookEvents(
+      WebhookJournal journal, WebhookEventReplayer replayer, PermissionBackend permissionBackend) {
+    this.journal = journal;
+    this.replayer = replayer;
+    this.permissionBackend = permissionBackend;
+  }
+
+  @Override
+  public Response<Result> apply(ConfigResource resource, Input input)
+      throws AuthException,
+          BadRequestException,
+          ResourceConflictException,
+          PermissionBackendException {
+    permissionBackend.currentUser().check(GlobalPermission.ADMINISTRATE_SERVER);
+
+    List<Event> events;
+    if (input != null && !Strings.isNullOrEmpty(input.delivery)) {
+      events = journal.getByDeliveryId(input.delivery).stream().collect(Collectors.toList());
+    } else if (input != null && input.offset != null) {
+      events = journal.getFrom(input.offset);
+    } else {
+      throw new BadRequestException("Either 'offset' or 'delivery' is required");
+    }
+
+    Result result = new Result();
+    result.offsets = events.stream().map(Event::getOffset).collect(Collectors.toList());
+    result.replayed =
+        replayer
+            .replay(events)
+            .orElseThrow(
+                () -> new ResourceConflictException("Webhook events processing is not started"));
+    return Response.ok(result);
+  }
+}
@@ -0,0 +1,63 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache;
+
+/**
+ * Handles team event in github webhook, dropping the cached teams when a team is deleted or
+ * renamed.
+ *
+ * @see <a href="https://docs.github.com/en/webhooks/webhook-events-and-payloads#team">Team
+ *     Event</a>
+ */
+@Singleton
+class TeamHandler implements WebhookEventHandler<TeamHandler.TeamEvent> {
+  private final GitHubGroupsCache groupsCache;
+
+  static class Change {
+    String from;
+  }
+
+  static class Changes {
+    Change name;
+  }
+
+  static class TeamEvent {
+    String action;
+    Changes changes;
+  }
+
+  @Inject
+  TeamHandler(GitHubGroupsCache groupsCache) {
+    this.groupsCache = groupsCache;
+  }
+
+  @Override
+  public boolean doAction(TeamEvent payload) {
+    boolean renamed = payload.changes != null && payload.changes.name != null;
+    if ("deleted".equals(payload.action) || ("edited".equals(payload.action) && renamed)) {
+      groupsCache.invalidateAll();
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public Class<TeamEvent> getPayloadType() {
+    return TeamEvent.class;
+  }
+}
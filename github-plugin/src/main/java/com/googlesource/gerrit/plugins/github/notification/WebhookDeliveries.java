@@ -0,0 +1,67 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded and time-windowed set of the GitHub webhook deliveries recently accepted, identified by
+ * their {@code X-GitHub-Delivery} header, for dropping the redeliveries of the same event.
+ */
+@Singleton
+public class WebhookDeliveries {
+  private final Cache<String, Boolean> recentDeliveries;
+
+  @Inject
+  WebhookDeliveries(GitHubConfig config) {
+    this(
+        config.webhookDeliveryDedupWindowMsec,
+        config.webhookDeliveryDedupSize,
+        Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  WebhookDeliveries(long windowMsec, int maxSize, Ticker ticker) {
+    this.recentDeliveries =
+        CacheBuilder.newBuilder()
+            .expireAfterWrite(windowMsec, TimeUnit.MILLISECONDS)
+            .maximumSize(maxSize)
+            .ticker(ticker)
+            .build();
+  }
+
+  /**
+   * Record a new delivery.
+   *
+   * @param deliveryId GitHub delivery id, null when the header is missing
+   * @return false if the delivery has been already recorded within the time window
+   */
+  public boolean add(String deliveryId) {
+    return deliveryId == null || recentDeliveries.asMap().putIfAbsent(deliveryId, true) == null;
+  }
+
+  /** Forget a delivery that has not been accepted, so that its redelivery is not dropped. */
+  public void remove(String deliveryId) {
+    if (deliveryId != null) {
+      recentDeliveries.invalidate(deliveryId);
+    }
+  }
+}
@@ -15,19 +15,39 @@
 package com.googlesource.gerrit.plugins.github.notification;
 
 import java.io.IOException;
-import org.kohsuke.github.GHEvent;
 
 /**
  * Abstract interface to handler which is responsible for a specific github webhook event type.
  *
- * <p>Implementation classes must be named by the convention which {@link
- * WebhookServlet#getWebhookClassName(GHEvent)} defines.
+ * <p>Implementation classes must be bound in the {@code DynamicMap} of handlers declared by {@link
+ * WebhookEventHandlerApiModule}, exported with the name of the event they handle, as {@link
+ * WebhookEventHandlerModule} does. Other plugins can bind handlers for the events not handled by
+ * this plugin.
  *
  * @param <T> Type of payload. Must be consistent to the event type.
  * @return true if the event has been successfully processed
  */
-interface WebhookEventHandler<T> {
-  Class<T> getPayloadType();
+public interface WebhookEventHandler<T> {
+  public Class<T> getPayloadType();
 
-  boolean doAction(T payload) throws IOException;
+  public boolean doAction(T payload) throws IOException;
+
+  /**
+   * Called as soon as an event has been accepted and queued, before it is processed.
+   *
+   * <p>Allows to act on the events still waiting to be processed, without any blocking operation.
+   */
+  default void onAccepted(T payload) {}
+
+  /**
+   * Delay before the event can be processed, e.g. to wait for newer events superseding it.
+   *
+   * <p>A deferred event is queued again once the delay is over, without holding its worker in the
+   * meantime, whilst the following events of the same repository are held back.
+   *
+   * @return milliseconds to wait, or zero to process the event straight away
+   */
+  default long deferMsec(T payload) {
+    return 0;
+  }
 }
@@ -0,0 +1,35 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import com.google.gerrit.extensions.registration.DynamicMap;
+import com.google.inject.AbstractModule;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Declares the {@code DynamicMap} of {@link WebhookEventHandler}, keyed by GitHub webhook event
+ * name.
+ *
+ * <p>Loaded as the {@code Gerrit-ApiModule} of the plugin, so that other plugins can bind their own
+ * handlers in it.
+ */
+public class WebhookEventHandlerApiModule extends AbstractModule {
+  public static final TypeLiteral<WebhookEventHandler<?>> HANDLER_TYPE =
+      new TypeLiteral<WebhookEventHandler<?>>() {};
+
+  @Override
+  protected void configure() {
+    DynamicMap.mapOf(binder(), HANDLER_TYPE);
+  }
+}
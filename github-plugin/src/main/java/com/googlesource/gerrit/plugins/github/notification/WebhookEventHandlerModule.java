@@ -0,0 +1,41 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static com.googlesource.gerrit.plugins.github.notification.WebhookEventHandlerApiModule.HANDLER_TYPE;
+
+import com.google.gerrit.extensions.annotations.Exports;
+import com.google.inject.AbstractModule;
+
+/**
+ * Registers the {@link WebhookEventHandler} of every GitHub webhook event name supported by the
+ * plugin, in the map declared by {@link WebhookEventHandlerApiModule}.
+ */
+public class WebhookEventHandlerModule extends AbstractModule {
+  @Override
+  protected void configure() {
+    bindHandler("ping", PingHandler.class);
+    bindHandler("pull_request", PullRequestHandler.class);
+    bindHandler("push", PushHandler.class);
+    bindHandler("create", CreateHandler.class);
+    bindHandler("delete", DeleteHandler.class);
+    bindHandler("organization", OrganizationHandler.class);
+    bindHandler("membership", MembershipHandler.class);
+    bindHandler("team", TeamHandler.class);
+  }
+
+  private void bindHandler(String eventName, Class<? extends WebhookEventHandler<?>> handler) {
+    bind(HANDLER_TYPE).annotatedWith(Exports.named(eventName)).to(handler);
+  }
+}
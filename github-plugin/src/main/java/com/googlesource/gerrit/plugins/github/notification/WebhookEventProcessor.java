@@ -0,0 +1,389 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.extensions.registration.DynamicMap;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.notification.WebhookJournal.Event;
+import com.googlesource.gerrit.plugins.github.notification.WebhookJournal.State;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.kohsuke.github.GHEventPayload;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Processes the webhook events recorded in the {@link WebhookJournal} through the matching {@link
+ * WebhookEventHandler}.
+ *
+ * <p>Events failing with an exception are retried with an exponential backoff, up to the configured
+ * number of attempts. Unfinished events are resumed when the plugin starts.
+ *
+ * <p>Whilst an event waits for being retried, the following events of the same repository are held
+ * back and processed in order once it has been processed or given up, so that a retry cannot
+ * overtake newer events. Holding and releasing the events happen on the worker of the repository.
+ */
+@Singleton
+public class WebhookEventProcessor implements LifecycleListener {
+  private static final Logger logger = LoggerFactory.getLogger(WebhookEventProcessor.class);
+  private static final GitHub OFFLINE_GITHUB = GitHub.offline();
+
+  private final String pluginName;
+  private final DynamicMap<WebhookEventHandler<?>> handlers;
+  private final Gson gson;
+  private final WebhookJournal journal;
+  private final WebhookExecutor executor;
+  private final WebhookEventReplayer replayer;
+  private final int maxAttempts;
+  private final long retryBackoffMsec;
+  private final int maxHeldEvents;
+  private final Object acceptLock = new Object();
+  private final ScheduledExecutorService retryScheduler;
+  private final Map<String, Queue<BooleanSupplier>> heldByRepository = new ConcurrentHashMap<>();
+
+  @Inject
+  WebhookEventProcessor(
+      @PluginName String pluginName,
+      DynamicMap<WebhookEventHandler<?>> handlers,
+      Gson gson,
+      WebhookJournal journal,
+      WebhookExecutor executor,
+      WebhookEventReplayer replayer,
+      GitHubConfig config) {
+    this.pluginName = pluginName;
+    this.handlers = handlers;
+    this.gson = gson;
+    this.journal = journal;
+    this.executor = executor;
+    this.replayer = replayer;
+    this.maxAttempts = config.webhookMaxAttempts;
+    this.retryBackoffMsec = config.webhookRetryBackoffMsec;
+    this.maxHeldEvents = config.webhookQueueSize;
+    this.retryScheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("GitHub-Webhook-Retry-%d").build());
+  }
+
+  @Override
+  public void start() {
+    try {
+      journal.open();
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to open the webhook events journal", e);
+    }
+
+    List<Event> unfinished = journal.getUnfinished(maxAttempts);
+    if (!unfinished.isEmpty()) {
+      logger.info("Resuming {} unfinished webhook events", unfinished.size());
+      resume(unfinished);
+    }
+    replayer.attach(this);
+  }
+
+  @Override
+  public void stop() {
+    replayer.detach();
+    retryScheduler.shutdownNow();
+    journal.close();
+  }
+
+  /**
+   * Get the handler registered for an event name, looking up the handlers of this plugin first.
+   *
+   * @return the handler or null if the event is not supported
+   */
+  WebhookEventHandler<?> getWebhookHandler(String name) {
+    if (name == null) {
+      logger.error("Null event name: cannot find any handler for it");
+      return null;
+    }
+
+    WebhookEventHandler<?> handler = handlers.get(pluginName, name);
+    if (handler != null) {
+      return handler;
+    }
+
+    for (String plugin : handlers.plugins()) {
+      handler = handlers.get(plugin, name);
+      if (handler != null) {
+        return handler;
+      }
+    }
+
+    logger.warn("No handler for '{}' events. Skipping", name);
+    return null;
+  }
+
+  /**
+   * Decode the JSON payload of an event for its handler.
+   *
+   * @return the payload or null if it cannot be decoded
+   */
+  <T> T decode(WebhookEventHandler<T> handler, String jsonBody) {
+    return decode(handler, new StringReader(jsonBody));
+  }
+
+  /**
+   * Decode the raw UTF-8 JSON payload of an event for its handler.
+   *
+   * @return the payload or null if it cannot be decoded
+   */
+  <T> T decode(WebhookEventHandler<T> handler, byte[] jsonBody) {
+    return decode(
+        handler, new InputStreamReader(new ByteArrayInputStream(jsonBody), StandardCharsets.UTF_8));
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T decode(WebhookEventHandler<T> handler, Reader jsonBody) {
+    Class<T> payloadType = handler.getPayloadType();
+    try {
+      // GitHub API payloads need its own JSON mapping, Gson cannot cope with their fields
+      T payload =
+          GHEventPayload.class.isAssignableFrom(payloadType)
+              ? (T)
+                  OFFLINE_GITHUB.parseEventPayload(
+                      jsonBody, payloadType.asSubclass(GHEventPayload.class))
+              : gson.fromJson(jsonBody, payloadType);
+      if (payload != null) {
+        return payload;
+      }
+    } catch (IOException | JsonParseException e) {
+      logger.debug("Invalid JSON payload", e);
+    }
+    logger.error("Cannot decode JSON payload into " + handler.getPayloadType().getName());
+    return null;
+  }
+
+  /**
+   * Queue the processing of an event just accepted, with its already decoded payload.
+   *
+   * <p>The handler is notified with {@link WebhookEventHandler#onAccepted(Object)} only once the
+   * event has been queued, in the same order as the queue, and before the event is processed.
+   *
+   * @return false if the event has been rejected because the workers are all busy
+   */
+  <T> boolean submit(WebhookEventHandler<T> handler, Event event, T payload) throws IOException {
+    Queue<BooleanSupplier> held = heldByRepository.get(Strings.nullToEmpty(repositoryOf(payload)));
+    if (held != null && held.size() >= maxHeldEvents) {
+      logger.warn("Too many events held for {}: rejecting {}", repositoryOf(payload), event);
+    } else {
+      CountDownLatch accepted = new CountDownLatch(1);
+      try {
+        synchronized (acceptLock) {
+          if (queue(handler, event, payload, 1, accepted)) {
+            handler.onAccepted(payload);
+            return true;
+          }
+        }
+      } finally {
+        accepted.countDown();
+      }
+    }
+    journal.update(event.getOffset(), State.REJECTED, 0);
+    return false;
+  }
+
+  /**
+   * Queue again the processing of recorded events, regardless of their current state.
+   *
+   * @return number of events queued
+   */
+  public int replay(List<Event> events) {
+    int replayed = 0;
+    for (Event event : events) {
+      if (submitRecorded(event, 1)) {
+        replayed++;
+      } else {
+        logger.warn("Unable to replay {}: all the webhook workers are busy", event);
+      }
+    }
+    return replayed;
+  }
+
+  private void resume(List<Event> events) {
+    for (int i = 0; i < events.size(); i++) {
+      Event event = events.get(i);
+      if (!submitRecorded(event, journal.getAttempts(event.getOffset()) + 1)) {
+        List<Event> remaining = events.subList(i, events.size());
+        logger.warn("Webhook workers busy: resuming {} events later", remaining.size());
+        retryScheduler.schedule(() -> resume(remaining), retryBackoffMsec, TimeUnit.MILLISECONDS);
+        return;
+      }
+    }
+  }
+
+  private boolean submitRecorded(Event event, int attempt) {
+    WebhookEventHandler<?> handler = getWebhookHandler(event.getEventName());
+    if (handler == null) {
+      updateState(event, State.SKIPPED, attempt);
+      return true;
+    }
+    return submitRecorded(handler, event, attempt);
+  }
+
+  private <T> boolean submitRecorded(WebhookEventHandler<T> handler, Event event, int attempt) {
+    T payload = decode(handler, event.getPayload());
+    if (payload == null) {
+      updateState(event, State.SKIPPED, attempt);
+      return true;
+    }
+    return queue(handler, event, payload, attempt, null);
+  }
+
+  /**
+   * Queue an event behind the events of its repository, including the ones held back.
+   *
+   * @param accepted signalled once the handler has been notified of the accepted event, or null
+   */
+  private <T> boolean queue(
+      WebhookEventHandler<T> handler,
+      Event event,
+      T payload,
+      int attempt,
+      @Nullable CountDownLatch accepted) {
+    String repository = repositoryOf(payload);
+    BooleanSupplier processing = () -> process(handler, event, payload, attempt);
+    return executor.submit(
+        repository,
+        () -> {
+          if (accepted != null) {
+            Uninterruptibles.awaitUninterruptibly(accepted);
+          }
+          Queue<BooleanSupplier> held = heldByRepository.get(Strings.nullToEmpty(repository));
+          if (held != null) {
+            held.add(processing);
+          } else {
+            processing.getAsBoolean();
+          }
+        });
+  }
+
+  private static String repositoryOf(Object payload) {
+    if (payload instanceof GHEventPayload) {
+      GHRepository repository = ((GHEventPayload) payload).getRepository();
+      return repository == null ? null : repository.getFullName();
+    }
+    return null;
+  }
+
+  /**
+   * Process an event, holding back the following events of its repository if it needs a retry.
+   *
+   * @return true if the processing is over, false if the event is going to be retried
+   */
+  private <T> boolean process(WebhookEventHandler<T> handler, Event event, T payload, int attempt) {
+    long deferMsec = handler.deferMsec(payload);
+    if (deferMsec > 0) {
+      logger.debug("{} deferred by {} ms", event, deferMsec);
+      heldByRepository.computeIfAbsent(
+          Strings.nullToEmpty(repositoryOf(payload)), r -> new ConcurrentLinkedQueue<>());
+      resubmit(handler, event, payload, attempt, deferMsec);
+      return false;
+    }
+
+    try {
+      if (handler.doAction(payload)) {
+        updateState(event, State.DONE, attempt);
+      } else {
+        logger.debug("{} has not been processed by {}", event, handler.getClass().getSimpleName());
+        updateState(event, State.SKIPPED, attempt);
+      }
+    } catch (Exception e) {
+      updateState(event, State.FAILED, attempt);
+      if (attempt < maxAttempts) {
+        logger.warn("{} failed at attempt #{}: retrying later", event, attempt, e);
+        heldByRepository.computeIfAbsent(
+            Strings.nullToEmpty(repositoryOf(payload)), r -> new ConcurrentLinkedQueue<>());
+        scheduleRetry(handler, event, payload, attempt);
+        return false;
+      }
+      logger.error("{} failed after {} attempts", event, attempt, e);
+    }
+    return true;
+  }
+
+  private <T> void scheduleRetry(
+      WebhookEventHandler<T> handler, Event event, T payload, int failedAttempts) {
+    long delay = retryBackoffMsec << Math.min(Math.max(failedAttempts - 1, 0), 16);
+    resubmit(handler, event, payload, failedAttempts + 1, delay);
+  }
+
+  /** Queue again an event after a delay, ahead of the events of its repository held back. */
+  private <T> void resubmit(
+      WebhookEventHandler<T> handler, Event event, T payload, int attempt, long delayMsec) {
+    String repository = repositoryOf(payload);
+    retryScheduler.schedule(
+        () -> {
+          boolean submitted =
+              executor.submit(
+                  repository,
+                  () -> {
+                    if (process(handler, event, payload, attempt)) {
+                      release(repository);
+                    }
+                  });
+          if (!submitted) {
+            resubmit(handler, event, payload, attempt, delayMsec);
+          }
+        },
+        delayMsec,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /** Process in order the events held back, until one of them needs a retry again. */
+  private void release(String repository) {
+    String key = Strings.nullToEmpty(repository);
+    Queue<BooleanSupplier> held = heldByRepository.get(key);
+    while (held != null && !held.isEmpty()) {
+      if (!held.poll().getAsBoolean()) {
+        return;
+      }
+    }
+    heldByRepository.remove(key);
+  }
+
+  private void updateState(Event event, State state, int attempts) {
+    try {
+      journal.update(event.getOffset(), state, attempts);
+    } catch (IOException e) {
+      logger.error("Unable to record state " + state + " of " + event, e);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.notification.WebhookJournal.Event;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Gives the REST API of the plugin access to the {@link WebhookEventProcessor} whilst it is
+ * started.
+ *
+ * <p>The REST API views are bound in the plugin system injector whereas the processor, together
+ * with the event handlers, lives in the plugin HTTP injector.
+ */
+@Singleton
+public class WebhookEventReplayer {
+  private volatile WebhookEventProcessor processor;
+
+  void attach(WebhookEventProcessor processor) {
+    this.processor = processor;
+  }
+
+  void detach() {
+    this.processor = null;
+  }
+
+  /**
+   * Queue again the processing of recorded events.
+   *
+   * @return number of events queued, or empty if the events processing is not started
+   */
+  public Optional<Integer> replay(List<Event> events) {
+    WebhookEventProcessor current = processor;
+    return current == null ? Optional.empty() : Optional.of(current.replay(events));
+  }
+}
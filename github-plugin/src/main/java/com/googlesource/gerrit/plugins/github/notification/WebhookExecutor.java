@@ -0,0 +1,141 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.server.account.AccountCache;
+import com.google.gerrit.server.account.AccountState;
+import com.google.gerrit.server.util.ManualRequestContext;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded pool of workers processing the webhook events accepted by the {@link WebhookServlet}.
+ *
+ * <p>Workers are sharded by repository: the events of the same repository are always processed in
+ * order by the same worker, whilst the events of different repositories are processed in parallel.
+ * Each shard has its own bounded queue, so that a busy repository cannot starve the others. The
+ * events without any repository, e.g. organization or membership events, have a shard of their own.
+ *
+ * <p>Events are processed in a Gerrit request context of the configured webhook user, so that they
+ * can be equally processed when received, retried or replayed.
+ */
+@Singleton
+public class WebhookExecutor implements LifecycleListener {
+  private static final Logger logger = LoggerFactory.getLogger(WebhookExecutor.class);
+
+  private final List<ThreadPoolExecutor> shards;
+  private final OneOffRequestContext requestContext;
+  private final AccountCache accountCache;
+  private final GitHubConfig config;
+
+  @Inject
+  WebhookExecutor(
+      OneOffRequestContext requestContext, AccountCache accountCache, GitHubConfig config) {
+    this.requestContext = requestContext;
+    this.accountCache = accountCache;
+    this.config = config;
+    this.shards = new ArrayList<>(config.webhookThreads + 1);
+    for (int i = 0; i < config.webhookThreads; i++) {
+      shards.add(newShard("GitHub-Webhook-" + i));
+    }
+    shards.add(newShard("GitHub-Webhook-NoRepository"));
+  }
+
+  private ThreadPoolExecutor newShard(String threadName) {
+    return new ThreadPoolExecutor(
+        1,
+        1,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(config.webhookQueueSize),
+        new ThreadFactoryBuilder().setNameFormat(threadName).build());
+  }
+
+  /**
+   * Queue the processing of a webhook event after the previous events of the same repository.
+   *
+   * @param repository full name of the repository of the event, or null if it has none
+   * @param eventTask processing of the event
+   * @return false if the queue of the repository shard is full and the event has not been accepted
+   */
+  public boolean submit(String repository, Runnable eventTask) {
+    int shard = shardOf(repository);
+    try {
+      shards.get(shard).execute(() -> runAsWebhookUser(eventTask));
+      return true;
+    } catch (RejectedExecutionException e) {
+      logger.warn("Webhook events queue #{} is full: rejecting event of {}", shard, repository);
+      return false;
+    }
+  }
+
+  private int shardOf(String repository) {
+    int repositoryShards = shards.size() - 1;
+    return repository == null
+        ? repositoryShards
+        : Math.floorMod(repository.hashCode(), repositoryShards);
+  }
+
+  private void runAsWebhookUser(Runnable eventTask) {
+    Optional<Account.Id> webhookAccountId =
+        accountCache.getByUsername(config.webhookUser).map(AccountState::account).map(Account::id);
+    if (!webhookAccountId.isPresent()) {
+      logger.error("Webhook user {} not found: cannot process event", config.webhookUser);
+      return;
+    }
+
+    ManualRequestContext webhookContext = requestContext.openAs(webhookAccountId.get());
+    try {
+      eventTask.run();
+    } finally {
+      webhookContext.close();
+    }
+  }
+
+  @Override
+  public void start() {}
+
+  @Override
+  public void stop() {
+    shards.forEach(ThreadPoolExecutor::shutdown);
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+    try {
+      for (ThreadPoolExecutor shard : shards) {
+        long timeout = Math.max(deadline - System.currentTimeMillis(), 0);
+        if (!shard.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+          logger.warn(
+              "{} webhook events still pending at shutdown have been dropped",
+              shard.shutdownNow().size());
+        }
+      }
+    } catch (InterruptedException e) {
+      shards.forEach(ThreadPoolExecutor::shutdownNow);
+      Thread.currentThread().interrupt();
+    }
+  }
+}
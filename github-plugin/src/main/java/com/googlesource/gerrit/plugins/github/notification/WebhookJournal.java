@@ -0,0 +1,417 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.io.ByteStreams;
+import com.google.gerrit.extensions.annotations.PluginData;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only journal of the webhook events accepted from GitHub, kept under the plugin data
+ * directory.
+ *
+ * <p>The journal is a sequence of segments, each named after the offset of its first event. Every
+ * line of a segment is a JSON record of either an accepted event or a change of the processing
+ * state of a previous event. Once the current segment grows beyond the configured size a new one is
+ * started, and the oldest segments beyond the configured number are deleted.
+ *
+ * <p>The state of the events and their segments are indexed in memory by offset and delivery id, so
+ * that the segments are read, and the records flushed to the disk, without holding the lock of the
+ * writers.
+ */
+@Singleton
+public class WebhookJournal {
+  private static final Logger logger = LoggerFactory.getLogger(WebhookJournal.class);
+  private static final String JOURNAL_DIR = "webhook-journal";
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  public enum State {
+    PENDING,
+    DONE,
+    SKIPPED,
+    FAILED,
+    REJECTED
+  }
+
+  /** Webhook event accepted from GitHub. */
+  public static class Event {
+    long offset;
+    String deliveryId;
+    String eventName;
+    String payload;
+    long receivedAt;
+
+    public long getOffset() {
+      return offset;
+    }
+
+    public String getDeliveryId() {
+      return deliveryId;
+    }
+
+    public String getEventName() {
+      return eventName;
+    }
+
+    public String getPayload() {
+      return payload;
+    }
+
+    @Override
+    public String toString() {
+      return "Event [offset="
+          + offset
+          + ", deliveryId="
+          + deliveryId
+          + ", event="
+          + eventName
+          + "]";
+    }
+  }
+
+  private static class Record {
+    long offset;
+    Event event;
+    State state;
+    int attempts;
+  }
+
+  private static class EventStatus {
+    final Path segment;
+    State state = State.PENDING;
+    int attempts;
+
+    EventStatus(Path segment) {
+      this.segment = segment;
+    }
+  }
+
+  /** Segments to read, each up to the length written when they have been selected. */
+  private static class SegmentsSnapshot {
+    final Map<Path, Long> lengthBySegment = new LinkedHashMap<>();
+  }
+
+  private final Path journalDir;
+  private final Gson gson;
+  private final long segmentSize;
+  private final int maxSegments;
+  private final NavigableMap<Long, Path> segmentByFirstOffset = new TreeMap<>();
+  private final NavigableMap<Long, EventStatus> statusByOffset = new TreeMap<>();
+  private final Map<String, Long> offsetByDeliveryId = new HashMap<>();
+  private long lastOffset;
+  private FileChannel currentSegment;
+
+  @Inject
+  WebhookJournal(@PluginData Path pluginData, Gson gson, GitHubConfig config) {
+    this.journalDir = pluginData.resolve(JOURNAL_DIR);
+    this.gson = gson;
+    this.segmentSize = config.webhookJournalSegmentSize;
+    this.maxSegments = config.webhookJournalMaxSegments;
+  }
+
+  /** Load the existing segments and open the journal for appending new events. */
+  public synchronized void open() throws IOException {
+    Files.createDirectories(journalDir);
+    try (DirectoryStream<Path> segments =
+        Files.newDirectoryStream(journalDir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+      for (Path segment : segments) {
+        segmentByFirstOffset.put(firstOffset(segment), segment);
+      }
+    }
+
+    for (Path segment : segmentByFirstOffset.values()) {
+      for (Record record : readRecords(segment, Long.MAX_VALUE)) {
+        if (record.event != null) {
+          index(record.event, segment);
+          lastOffset = Math.max(lastOffset, record.offset);
+        } else {
+          EventStatus status = statusByOffset.get(record.offset);
+          if (status != null) {
+            status.state = record.state;
+            status.attempts = record.attempts;
+          }
+        }
+      }
+    }
+
+    if (segmentByFirstOffset.isEmpty()) {
+      startSegment(lastOffset + 1);
+    } else {
+      currentSegment = openSegment(segmentByFirstOffset.lastEntry().getValue());
+    }
+    logger.info(
+        "Webhook journal {} opened with {} segments, last offset {}",
+        journalDir,
+        segmentByFirstOffset.size(),
+        lastOffset);
+  }
+
+  public synchronized void close() {
+    if (currentSegment != null) {
+      try {
+        currentSegment.force(false);
+        currentSegment.close();
+      } catch (IOException e) {
+        logger.warn("Unable to close webhook journal segment", e);
+      }
+      currentSegment = null;
+    }
+  }
+
+  /** Record a new accepted event, in the {@link State#PENDING} state. */
+  public Event append(String deliveryId, String eventName, String payload) throws IOException {
+    Event event = new Event();
+    event.deliveryId = deliveryId;
+    event.eventName = eventName;
+    event.payload = payload;
+    event.receivedAt = System.currentTimeMillis();
+
+    Record record = new Record();
+    record.event = event;
+    record.state = State.PENDING;
+    FileChannel segment;
+    synchronized (this) {
+      checkOpen();
+      if (currentSegment.size() >= segmentSize) {
+        startSegment(lastOffset + 1);
+      }
+      event.offset = ++lastOffset;
+      record.offset = event.offset;
+      segment = write(record);
+      index(event, segmentByFirstOffset.lastEntry().getValue());
+    }
+    force(segment);
+    return event;
+  }
+
+  /** Record the new processing state of an event. */
+  public void update(long offset, State state, int attempts) throws IOException {
+    Record record = new Record();
+    record.offset = offset;
+    record.state = state;
+    record.attempts = attempts;
+    FileChannel segment;
+    synchronized (this) {
+      checkOpen();
+      segment = write(record);
+
+      EventStatus status = statusByOffset.get(offset);
+      if (status != null) {
+        status.state = state;
+        status.attempts = attempts;
+      }
+    }
+    force(segment);
+  }
+
+  public synchronized int getAttempts(long offset) {
+    EventStatus status = statusByOffset.get(offset);
+    return status == null ? 0 : status.attempts;
+  }
+
+  /** Events accepted but not yet successfully processed, which can still be retried. */
+  public List<Event> getUnfinished(int maxAttempts) {
+    Set<Long> unfinished = new HashSet<>();
+    SegmentsSnapshot snapshot = new SegmentsSnapshot();
+    synchronized (this) {
+      statusByOffset.forEach(
+          (offset, status) -> {
+            if (status.state == State.PENDING
+                || (status.state == State.FAILED && status.attempts < maxAttempts)) {
+              unfinished.add(offset);
+              addToSnapshot(snapshot, status.segment);
+            }
+          });
+    }
+    return find(snapshot, event -> unfinished.contains(event.offset));
+  }
+
+  /** Events recorded from the offset onwards. */
+  public List<Event> getFrom(long offset) {
+    SegmentsSnapshot snapshot = new SegmentsSnapshot();
+    synchronized (this) {
+      Long firstSegment = segmentByFirstOffset.floorKey(offset);
+      segmentByFirstOffset
+          .tailMap(firstSegment == null ? offset : firstSegment, true)
+          .values()
+          .forEach(segment -> addToSnapshot(snapshot, segment));
+    }
+    return find(snapshot, event -> event.offset >= offset);
+  }
+
+  public Optional<Event> getByDeliveryId(String deliveryId) {
+    SegmentsSnapshot snapshot = new SegmentsSnapshot();
+    long offset;
+    synchronized (this) {
+      Long found = offsetByDeliveryId.get(deliveryId);
+      if (found == null) {
+        return Optional.empty();
+      }
+      offset = found;
+      addToSnapshot(snapshot, statusByOffset.get(offset).segment);
+    }
+    return find(snapshot, event -> event.offset == offset).stream().findFirst();
+  }
+
+  private void index(Event event, Path segment) {
+    statusByOffset.put(event.offset, new EventStatus(segment));
+    if (event.deliveryId != null) {
+      offsetByDeliveryId.put(event.deliveryId, event.offset);
+    }
+  }
+
+  private void addToSnapshot(SegmentsSnapshot snapshot, Path segment) {
+    if (snapshot.lengthBySegment.containsKey(segment)) {
+      return;
+    }
+    // Only the records completely written so far are read from the current segment
+    long length = Long.MAX_VALUE;
+    if (currentSegment != null && segment.equals(segmentByFirstOffset.lastEntry().getValue())) {
+      try {
+        length = currentSegment.size();
+      } catch (IOException e) {
+        logger.warn("Unable to get the size of webhook journal segment {}", segment, e);
+      }
+    }
+    snapshot.lengthBySegment.put(segment, length);
+  }
+
+  /** Read the events of the segments, without holding the journal lock. */
+  private List<Event> find(SegmentsSnapshot snapshot, Predicate<Event> filter) {
+    List<Event> events = new ArrayList<>();
+    for (Map.Entry<Path, Long> segment : snapshot.lengthBySegment.entrySet()) {
+      try {
+        for (Record record : readRecords(segment.getKey(), segment.getValue())) {
+          if (record.event != null && filter.test(record.event)) {
+            events.add(record.event);
+          }
+        }
+      } catch (NoSuchFileException e) {
+        logger.debug("Webhook journal segment {} dropped whilst being read", segment.getKey());
+      } catch (IOException e) {
+        logger.error("Unable to read webhook journal segment " + segment.getKey(), e);
+      }
+    }
+    return events;
+  }
+
+  private void checkOpen() throws IOException {
+    if (currentSegment == null) {
+      throw new IOException("Webhook journal " + journalDir + " is closed");
+    }
+  }
+
+  private FileChannel write(Record record) throws IOException {
+    currentSegment.write(ByteBuffer.wrap((gson.toJson(record) + "\n").getBytes(UTF_8)));
+    return currentSegment;
+  }
+
+  /** Flush a record to the disk, outside of the journal lock so that writers are not serialized. */
+  private static void force(FileChannel segment) throws IOException {
+    try {
+      segment.force(false);
+    } catch (ClosedChannelException e) {
+      // The segment has been rotated or closed, and flushed, in the meantime
+    }
+  }
+
+  private void startSegment(long firstOffset) throws IOException {
+    close();
+    Path segment =
+        journalDir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstOffset, SEGMENT_SUFFIX));
+    segmentByFirstOffset.put(firstOffset, segment);
+    currentSegment = openSegment(segment);
+
+    while (segmentByFirstOffset.size() > maxSegments) {
+      Map.Entry<Long, Path> oldest = segmentByFirstOffset.pollFirstEntry();
+      long nextFirstOffset = segmentByFirstOffset.firstKey();
+      Map<Long, EventStatus> dropped = statusByOffset.headMap(nextFirstOffset);
+      long unfinished =
+          dropped.values().stream().filter(status -> status.state == State.PENDING).count();
+      if (unfinished > 0) {
+        logger.warn(
+            "Dropping webhook journal segment {} with {} events still pending",
+            oldest.getValue(),
+            unfinished);
+      }
+      dropped.clear();
+      offsetByDeliveryId.values().removeIf(offset -> offset < nextFirstOffset);
+      Files.deleteIfExists(oldest.getValue());
+    }
+  }
+
+  private static FileChannel openSegment(Path segment) throws IOException {
+    return FileChannel.open(
+        segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  private List<Record> readRecords(Path segment, long length) throws IOException {
+    List<Record> records = new ArrayList<>();
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(
+                ByteStreams.limit(Files.newInputStream(segment), length), UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        try {
+          Record record = gson.fromJson(line, Record.class);
+          if (record != null) {
+            records.add(record);
+          }
+        } catch (JsonParseException e) {
+          // Typically the last line of a segment truncated by a crash
+          logger.warn("Skipping invalid record in webhook journal segment {}", segment);
+        }
+      }
+    }
+    return records;
+  }
+
+  private static long firstOffset(Path segment) {
+    String name = segment.getFileName().toString();
+    return Long.parseLong(
+        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+  }
+}
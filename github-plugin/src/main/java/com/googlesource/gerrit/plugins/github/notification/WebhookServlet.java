@@ -14,37 +14,29 @@
 
 package com.googlesource.gerrit.plugins.github.notification;
 
+import static javax.servlet.http.HttpServletResponse.SC_ACCEPTED;
+import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
 import static javax.servlet.http.HttpServletResponse.SC_FORBIDDEN;
 import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
 import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
-import static javax.servlet.http.HttpServletResponse.SC_NO_CONTENT;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+import static javax.servlet.http.HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE;
+import static javax.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
 
-import com.google.common.base.Function;
-import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
-import com.google.common.collect.Lists;
-import com.google.common.io.CharStreams;
-import com.google.gerrit.entities.Account;
-import com.google.gerrit.extensions.registration.DynamicItem;
-import com.google.gerrit.httpd.WebSession;
-import com.google.gson.Gson;
 import com.google.inject.Inject;
-import com.google.inject.Injector;
 import com.google.inject.Singleton;
 import com.googlesource.gerrit.plugins.github.GitHubConfig;
 import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
-import com.googlesource.gerrit.plugins.github.oauth.ScopedProvider;
 import com.googlesource.gerrit.plugins.github.oauth.UserScopedProvider;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import javax.servlet.ServletException;
@@ -60,78 +52,50 @@ import org.slf4j.LoggerFactory;
 /**
  * Handles webhook callbacks sent from Github. Delegates requests to implementations of {@link
  * WebhookEventHandler}.
+ *
+ * <p>Events are validated, recorded in the {@link WebhookJournal} and acknowledged straight away
+ * with a {@code 202 Accepted}, whilst their processing is queued to the {@link WebhookExecutor}
+ * workers. Events rejected because the queue of their repository is full are answered with a {@code
+ * 503 Service Unavailable} and a {@code Retry-After} header.
  */
 @Singleton
 public class WebhookServlet extends HttpServlet {
   private static final long serialVersionUID = 1L;
   private static final Logger logger = LoggerFactory.getLogger(WebhookServlet.class);
 
-  private static final String PACKAGE_NAME = WebhookServlet.class.getPackage().getName();
-  private static final String SIGNATURE_PREFIX = "sha1=";
+  private static final String SHA1_SIGNATURE_PREFIX = "sha1=";
+  private static final String SHA256_SIGNATURE_PREFIX = "sha256=";
   private static final String HMAC_SHA1_ALGORITHM = "HmacSHA1";
+  private static final String HMAC_SHA256_ALGORITHM = "HmacSHA256";
+  private static final int BUFFER_SIZE = 8192;
+  // GitHub caps the webhook payloads to 25 MB
+  static final int MAX_BUFFER_SIZE = 25 * 1024 * 1024;
 
-  private final Gson gson;
-
-  private final Map<String, WebhookEventHandler<?>> handlerByName = new ConcurrentHashMap<>();
-  private final Injector injector;
   private final GitHubConfig config;
-
   private final UserScopedProvider<GitHubLogin> loginProvider;
-  private final ScopedProvider<GitHubLogin> requestScopedLoginProvider;
-  private final DynamicItem<WebSession> session;
+  private final WebhookEventProcessor eventProcessor;
+  private final WebhookJournal journal;
+  private final WebhookDeliveries deliveries;
+  private final long retryAfterSeconds;
+  private final ThreadLocal<Mac> hmacSha1;
+  private final ThreadLocal<Mac> hmacSha256;
 
   @Inject
   public WebhookServlet(
       UserScopedProvider<GitHubLogin> loginProvider,
-      ScopedProvider<GitHubLogin> requestScopedLoginProvider,
       GitHubConfig config,
-      Gson gson,
-      DynamicItem<WebSession> session,
-      Injector injector) {
+      WebhookEventProcessor eventProcessor,
+      WebhookJournal journal,
+      WebhookDeliveries deliveries) {
     this.loginProvider = loginProvider;
-    this.requestScopedLoginProvider = requestScopedLoginProvider;
-    this.injector = injector;
     this.config = config;
-    this.gson = gson;
-    this.session = session;
-  }
-
-  private WebhookEventHandler<?> getWebhookHandler(String name) {
-    if (name == null) {
-      logger.error("Null event name: cannot find any handler for it");
-      return null;
-    }
-
-    WebhookEventHandler<?> handler = handlerByName.get(name);
-    if (handler != null) {
-      return handler;
-    }
-
-    try {
-      String className = eventClassName(name);
-      Class<?> clazz = Class.forName(className);
-      handler = (WebhookEventHandler<?>) injector.getInstance(clazz);
-      handlerByName.put(name, handler);
-      logger.info("Loaded {}", clazz.getName());
-    } catch (ClassNotFoundException e) {
-      logger.error("Handler '" + name + "' not found. Skipping", e);
-    }
-
-    return handler;
-  }
-
-  private String eventClassName(String name) {
-    String[] nameParts = name.split("_");
-    List<String> classNameParts =
-        Lists.transform(
-            Arrays.asList(nameParts),
-            new Function<String, String>() {
-              @Override
-              public String apply(String part) {
-                return Character.toUpperCase(part.charAt(0)) + part.substring(1);
-              }
-            });
-    return PACKAGE_NAME + "." + Joiner.on("").join(classNameParts) + "Handler";
+    this.eventProcessor = eventProcessor;
+    this.journal = journal;
+    this.deliveries = deliveries;
+    this.retryAfterSeconds =
+        Math.max(TimeUnit.MILLISECONDS.toSeconds(config.webhookRetryBackoffMsec), 1);
+    this.hmacSha1 = newHmac(HMAC_SHA1_ALGORITHM);
+    this.hmacSha256 = newHmac(HMAC_SHA256_ALGORITHM);
   }
 
   @Override
@@ -143,103 +107,191 @@ public class WebhookServlet extends HttpServlet {
       return;
     }
 
-    WebhookEventHandler<?> handler = getWebhookHandler(req.getHeader("X-Github-Event"));
+    String eventName = req.getHeader("X-Github-Event");
+    WebhookEventHandler<?> handler = eventProcessor.getWebhookHandler(eventName);
     if (handler == null) {
       resp.sendError(SC_NOT_FOUND);
       return;
     }
 
-    try (BufferedReader reader = req.getReader()) {
-      String body = Joiner.on("\n").join(CharStreams.readLines(reader));
-      if (!validateSignature(req.getHeader("X-Hub-Signature"), body, req.getCharacterEncoding())) {
+    Signature signature = signatureOf(req);
+    if (signature == null) {
+      resp.sendError(SC_FORBIDDEN);
+      return;
+    }
+
+    try (InputStream in = req.getInputStream()) {
+      byte[] body = readBody(in, req.getContentLength(), signature.hmac);
+      if (body == null) {
+        logger.error("Payload of {} event exceeds {} bytes", eventName, MAX_BUFFER_SIZE);
+        resp.sendError(SC_REQUEST_ENTITY_TOO_LARGE);
+        return;
+      }
+      if (!signature.matches()) {
         logger.error("Signature mismatch to the payload");
         resp.sendError(SC_FORBIDDEN);
         return;
       }
 
-      session.get().setUserAccountId(Account.Id.fromRef(config.webhookUser));
+      String deliveryId = req.getHeader("X-GitHub-Delivery");
+      if (!deliveries.add(deliveryId)) {
+        logger.info("Dropping {} event redelivery {}", eventName, deliveryId);
+        resp.setStatus(SC_OK);
+        return;
+      }
+
       GitHubLogin login = loginProvider.get(config.webhookUser);
       if (login == null || !login.isLoggedIn()) {
         logger.error(
             "Cannot login to github as {}. {}.webhookUser is not correctly configured?",
             config.webhookUser,
             GitHubConfig.CONF_SECTION);
+        deliveries.remove(deliveryId);
         resp.setStatus(SC_INTERNAL_SERVER_ERROR);
         return;
       }
-      requestScopedLoginProvider.get(req).login(login.getAccessToken());
 
-      if (callHander(handler, body)) {
-        resp.setStatus(SC_NO_CONTENT);
-      } else {
-        resp.sendError(SC_INTERNAL_SERVER_ERROR);
+      int status = SC_INTERNAL_SERVER_ERROR;
+      try {
+        status = accept(handler, deliveryId, eventName, body);
+      } catch (IOException e) {
+        logger.error("Unable to record {} event {}", eventName, deliveryId, e);
+        status = SC_SERVICE_UNAVAILABLE;
+      } finally {
+        if (status != SC_ACCEPTED) {
+          // Let GitHub redeliver the events that have not been accepted
+          deliveries.remove(deliveryId);
+        }
       }
+      if (status == SC_SERVICE_UNAVAILABLE) {
+        resp.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+      }
+      resp.setStatus(status);
     }
   }
 
-  private <T> boolean callHander(WebhookEventHandler<T> handler, String jsonBody)
+  private <T> int accept(
+      WebhookEventHandler<T> handler, String deliveryId, String eventName, byte[] body)
       throws IOException {
-    T payload = gson.fromJson(jsonBody, handler.getPayloadType());
-    if (payload != null) {
-      return handler.doAction(payload);
+    T payload = eventProcessor.decode(handler, body);
+    if (payload == null) {
+      return SC_BAD_REQUEST;
+    }
+
+    WebhookJournal.Event event =
+        journal.append(deliveryId, eventName, new String(body, StandardCharsets.UTF_8));
+    return eventProcessor.submit(handler, event, payload) ? SC_ACCEPTED : SC_SERVICE_UNAVAILABLE;
+  }
+
+  /** Expected signature of the body, computed whilst streaming it. */
+  private static class Signature {
+    final Mac hmac;
+    final byte[] expected;
+
+    Signature(Mac hmac, byte[] expected) {
+      this.hmac = hmac;
+      this.expected = expected;
+    }
+
+    boolean matches() {
+      return hmac == null || MessageDigest.isEqual(expected, hmac.doFinal());
     }
-    logger.error(
-        "Cannot decode JSON payload '" + jsonBody + "' into " + handler.getPayloadType().getName());
-    return false;
   }
 
   /**
-   * validates callback signature sent from github
+   * Get the signature of the webhook callback, preferring the SHA-256 one when both are sent.
    *
-   * @param signatureHeader signature HTTP request header of a github webhook
-   * @param payload HTTP request body
-   * @return true if webhook secret is not configured or signatureHeader is valid against payload
-   *     and the secret, false if otherwise.
-   * @throws UnsupportedEncodingException
+   * @return the signature to be verified, a signature without verification if webhook secret is not
+   *     configured, or null if the signature header is missing or invalid.
+   * @see <a href=
+   *     "https://docs.github.com/en/webhooks/using-webhooks/validating-webhook-deliveries">
+   *     Validating webhook deliveries</a>
    */
-  private boolean validateSignature(String signatureHeader, String body, String encoding)
-      throws UnsupportedEncodingException {
-    byte[] payload = body.getBytes(encoding == null ? "UTF-8" : encoding);
-    if (config.webhookSecret == null || config.webhookSecret.equals("")) {
+  private Signature signatureOf(HttpServletRequest req) {
+    if (Strings.isNullOrEmpty(config.webhookSecret)) {
       logger.debug(
           "{}.webhookSecret not configured. Skip signature validation", GitHubConfig.CONF_SECTION);
-      return true;
+      return new Signature(null, null);
+    }
+
+    String signatureHeader = req.getHeader("X-Hub-Signature-256");
+    String prefix = SHA256_SIGNATURE_PREFIX;
+    ThreadLocal<Mac> hmac = hmacSha256;
+    if (signatureHeader == null) {
+      signatureHeader = req.getHeader("X-Hub-Signature");
+      prefix = SHA1_SIGNATURE_PREFIX;
+      hmac = hmacSha1;
     }
 
-    if (!StringUtils.startsWith(signatureHeader, SIGNATURE_PREFIX)) {
+    if (!StringUtils.startsWith(signatureHeader, prefix)) {
       logger.error("Unsupported webhook signature type: {}", signatureHeader);
-      return false;
+      return null;
     }
-    byte[] signature;
     try {
-      signature = Hex.decodeHex(signatureHeader.substring(SIGNATURE_PREFIX.length()).toCharArray());
+      byte[] expected = Hex.decodeHex(signatureHeader.substring(prefix.length()).toCharArray());
+      Mac mac = hmac.get();
+      mac.reset();
+      return new Signature(mac, expected);
     } catch (DecoderException e) {
       logger.error("Invalid signature: {}", signatureHeader);
-      return false;
+      return null;
     }
-    return MessageDigest.isEqual(signature, getExpectedSignature(payload));
   }
 
   /**
-   * Calculates the expected signature of the payload
+   * Read the raw body of the callback, updating the signature HMAC on the way.
    *
-   * @param payload payload to calculate a signature for
-   * @return signature of the payload
-   * @see <a href=
-   *     "https://developer.github.com/webhooks/securing/#validating-payloads-from-github">
-   *     Validating payloads from GitHub</a>
+   * @param in body of the HTTP request
+   * @param contentLength length of the body, or -1 if unknown
+   * @param hmac HMAC of the body signature, or null if not verified
+   * @return bytes of the body, or null if it is larger than {@code MAX_BUFFER_SIZE}
    */
-  private byte[] getExpectedSignature(byte[] payload) {
-    SecretKeySpec key = new SecretKeySpec(config.webhookSecret.getBytes(), HMAC_SHA1_ALGORITHM);
-    Mac hmac;
-    try {
-      hmac = Mac.getInstance(HMAC_SHA1_ALGORITHM);
-      hmac.init(key);
-    } catch (NoSuchAlgorithmException e) {
-      throw new IllegalStateException("Hmac SHA1 must be supported", e);
-    } catch (InvalidKeyException e) {
-      throw new IllegalStateException("Hmac SHA1 must be compatible to Hmac SHA1 Secret Key", e);
+  private static byte[] readBody(InputStream in, int contentLength, Mac hmac) throws IOException {
+    if (contentLength > MAX_BUFFER_SIZE) {
+      return null;
     }
-    return hmac.doFinal(payload);
+    byte[] body = new byte[contentLength > 0 ? contentLength : BUFFER_SIZE];
+    int length = 0;
+    int read;
+    while ((read = in.read(body, length, body.length - length)) != -1) {
+      if (hmac != null) {
+        hmac.update(body, length, read);
+      }
+      length += read;
+      if (length == body.length) {
+        int next = in.read();
+        if (next == -1) {
+          break;
+        }
+        if (length >= MAX_BUFFER_SIZE) {
+          return null;
+        }
+        body = Arrays.copyOf(body, Math.min(body.length * 2, MAX_BUFFER_SIZE));
+        body[length] = (byte) next;
+        if (hmac != null) {
+          hmac.update((byte) next);
+        }
+        length++;
+      }
+    }
+    return length == body.length ? body : Arrays.copyOf(body, length);
+  }
+
+  private ThreadLocal<Mac> newHmac(String algorithm) {
+    return ThreadLocal.withInitial(
+        () -> {
+          try {
+            Mac hmac = Mac.getInstance(algorithm);
+            hmac.init(
+                new SecretKeySpec(
+                    config.webhookSecret.getBytes(StandardCharsets.UTF_8), algorithm));
+            return hmac;
+          } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " must be supported", e);
+          } catch (InvalidKeyException e) {
+            throw new IllegalStateException(
+                "Webhook secret must be compatible to " + algorithm + " Secret Key", e);
+          }
+        });
   }
 }
@@ -13,15 +13,19 @@
 // limitations under the License.
 package com.googlesource.gerrit.plugins.github.wizard;
 
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.MultimapBuilder;
 import com.google.gerrit.server.IdentifiedUser;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
-import com.googlesource.gerrit.plugins.github.git.PullRequestImportType;
 import com.googlesource.gerrit.plugins.github.git.PullRequestImporter;
+import com.googlesource.gerrit.plugins.github.git.PullRequestsFetch;
 import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map.Entry;
+import java.util.stream.Collectors;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -47,22 +51,36 @@ public class PullRequestImportController implements VelocityController {
     String organisation = req.getParameter("organisation");
     PullRequestImporter prImporter = prImportProvider.get();
 
+    ListMultimap<String, String> selectedParamPrefixesByRepo =
+        MultimapBuilder.linkedHashKeys().arrayListValues().build();
     for (Entry<String, String[]> param : req.getParameterMap().entrySet()) {
       String name = param.getKey();
       if (name.endsWith(".selected")
           && param.getValue().length == 1
           && param.getValue()[0].equalsIgnoreCase("on")) {
-
         String paramPrefix = name.substring(0, name.length() - ".selected".length());
-        int idx = Integer.parseInt(req.getParameter(paramPrefix + ".idx"));
-        PullRequestImportType importType =
-            PullRequestImportType.valueOf(req.getParameter(paramPrefix + ".type"));
+        selectedParamPrefixesByRepo.put(req.getParameter(paramPrefix + ".repo"), paramPrefix);
+      }
+    }
 
-        int pullRequestId = Integer.parseInt(req.getParameter(paramPrefix + ".id"));
-        String repoName = req.getParameter(paramPrefix + ".repo");
+    // Pull requests of the same repository share a single fetch from GitHub
+    for (String repoName : selectedParamPrefixesByRepo.keySet()) {
+      List<String> paramPrefixes = selectedParamPrefixesByRepo.get(repoName);
+      PullRequestsFetch pullRequestsFetch =
+          new PullRequestsFetch(
+              paramPrefixes.stream()
+                  .map(paramPrefix -> getPullRequestId(req, paramPrefix))
+                  .collect(Collectors.toList()));
 
-        prImporter.importPullRequest(idx, organisation, repoName, pullRequestId, importType);
+      for (String paramPrefix : paramPrefixes) {
+        int idx = Integer.parseInt(req.getParameter(paramPrefix + ".idx"));
+        prImporter.importPullRequest(
+            idx, organisation, repoName, getPullRequestId(req, paramPrefix), pullRequestsFetch);
       }
     }
   }
+
+  private static int getPullRequestId(HttpServletRequest req, String paramPrefix) {
+    return Integer.parseInt(req.getParameter(paramPrefix + ".id"));
+  }
 }
@@ -31,6 +31,7 @@ import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.git.PullRequestChangesCache;
 import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -61,6 +62,7 @@ public class PullRequestListController implements VelocityController {
   private final GitRepositoryManager repoMgr;
   private final Provider<ChangeQueryProcessor> qp;
   private final ChangeQueryBuilder changeQuery;
+  private final PullRequestChangesCache pullRequestChangesCache;
 
   @Inject
   public PullRequestListController(
@@ -68,12 +70,14 @@ public class PullRequestListController implements VelocityController {
       GitRepositoryManager repoMgr,
       GitHubConfig config,
       Provider<ChangeQueryProcessor> qp,
-      ChangeQueryBuilder changeQuery) {
+      ChangeQueryBuilder changeQuery,
+      PullRequestChangesCache pullRequestChangesCache) {
     this.projectsCache = projectsCache;
     this.repoMgr = repoMgr;
     this.config = config;
     this.qp = qp;
     this.changeQuery = changeQuery;
+    this.pullRequestChangesCache = pullRequestChangesCache;
   }
 
   @Override
@@ -158,7 +162,8 @@ public class PullRequestListController implements VelocityController {
       for (GHPullRequest ghPullRequest :
           githubRepo.queryPullRequests().state(GHIssueState.OPEN).list()) {
 
-        if (isAnyCommitOfPullRequestToBeImported(gitRepo, ghPullRequest)) {
+        if (!isPullRequestHeadImported(githubRepo, ghRepoName, ghPullRequest)
+            && isAnyCommitOfPullRequestToBeImported(gitRepo, ghPullRequest)) {
           repoPullRequests.add(ghPullRequest);
           count++;
         }
@@ -182,6 +187,15 @@ public class PullRequestListController implements VelocityController {
     }
   }
 
+  private boolean isPullRequestHeadImported(
+      GHRepository githubRepo, String ghRepoName, GHPullRequest ghPullRequest) {
+    return pullRequestChangesCache.isImported(
+        githubRepo.getOwnerName(),
+        ghRepoName,
+        ghPullRequest.getNumber(),
+        ghPullRequest.getHead().getSha());
+  }
+
   private boolean isAnyCommitOfPullRequestToBeImported(
       Repository gitRepo, GHPullRequest ghPullRequest)
       throws IncorrectObjectTypeException, IOException {
@@ -102,6 +102,20 @@ public class GitHubConfigTest {
     assertThat(nextPage.uri).isEqualTo(CUSTOM_NEXT_PAGE);
   }
 
+  @Test
+  public void groupSuggestLimitIsAtLeastOne() throws Exception {
+    assertThat(newGitHubConfig("groupSuggestLimit = 0").groupSuggestLimit).isEqualTo(1);
+    assertThat(newGitHubConfig("groupSuggestLimit = -5").groupSuggestLimit).isEqualTo(1);
+    assertThat(newGitHubConfig("").groupSuggestLimit).isEqualTo(100);
+  }
+
+  @Test
+  public void webhookQueueSizeIsAtLeastOne() throws Exception {
+    assertThat(newGitHubConfig("webhookQueueSize = 0").webhookQueueSize).isEqualTo(1);
+    assertThat(newGitHubConfig("webhookQueueSize = -5").webhookQueueSize).isEqualTo(1);
+    assertThat(newGitHubConfig("").webhookQueueSize).isEqualTo(100);
+  }
+
   private GitHubConfig newGitHubConfig(String configText) throws Exception {
     Config gerritConfig = new Config();
     gerritConfig.fromText(
@@ -15,6 +15,7 @@
 package com.googlesource.gerrit.plugins.github;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
@@ -22,7 +23,11 @@ import com.google.common.cache.LoadingCache;
 import com.google.gerrit.util.http.testutil.FakeHttpServletRequest;
 import com.google.gerrit.util.http.testutil.FakeHttpServletResponse;
 import com.googlesource.gerrit.plugins.github.filters.GitHubGroupCacheRefreshFilter;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupMembersIndex;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupsActiveUsers;
 import com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupsNegativeCache;
+import com.googlesource.gerrit.plugins.github.group.LocalGroupsCacheBroadcast;
 import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletRequest;
@@ -74,7 +79,13 @@ public class GitHubGroupCacheRefreshFilterTest {
     groupsByUsernameCache = CacheBuilder.newBuilder().build(groupsCacheLoader);
     filter =
         new GitHubGroupCacheRefreshFilter(
-            new GitHubGroupsCache(groupsByUsernameCache, () -> GITHUB_USERNAME_TEST));
+            new GitHubGroupsCache(
+                groupsByUsernameCache,
+                () -> GITHUB_USERNAME_TEST,
+                new GitHubGroupMembersIndex(),
+                new LocalGroupsCacheBroadcast(),
+                mock(GitHubGroupsNegativeCache.class),
+                mock(GitHubGroupsActiveUsers.class)));
     // Trigger the initial load of the groups cache
     assertThat(groupsByUsernameCache.get(GITHUB_USERNAME_TEST)).isEqualTo(GITHUB_USER_ORGANIZATION);
     initialLoadCount = groupsCacheLoader.getLoadCount();
@@ -0,0 +1,92 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.server.account.AccountCache;
+import com.google.gerrit.server.account.AccountImporter;
+import com.google.gerrit.server.account.externalids.ExternalIds;
+import com.google.gerrit.server.config.AuthConfig;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.kohsuke.github.GHUser;
+import org.kohsuke.github.GitUser;
+
+public class GitHubAccountResolverTest {
+  private static final Account.Id ACCOUNT_ID = Account.id(1000);
+
+  private ExternalIds externalIds;
+  private AccountImporter accountImporter;
+  private GitHubAccountResolver resolver;
+
+  @Before
+  public void setUp() throws Exception {
+    externalIds = mock(ExternalIds.class);
+    accountImporter = mock(AccountImporter.class);
+    when(accountImporter.importAccount(anyString(), any(), any())).thenReturn(ACCOUNT_ID);
+    AuthConfig authConfig = mock(AuthConfig.class);
+    when(authConfig.isUserNameCaseInsensitive()).thenReturn(true);
+    resolver =
+        new GitHubAccountResolver(
+            CacheBuilder.newBuilder().build(),
+            externalIds,
+            accountImporter,
+            mock(AccountCache.class),
+            authConfig);
+  }
+
+  @Test
+  public void shouldResolveEveryCaseOfTheSameLogin() throws Exception {
+    when(externalIds.get(any())).thenReturn(Optional.empty());
+
+    Map<String, Account.Id> accountIdByLogin =
+        resolver.resolve(List.of(user("John"), user("john")));
+
+    assertThat(accountIdByLogin).containsExactly("John", ACCOUNT_ID, "john", ACCOUNT_ID);
+    verify(accountImporter, times(1)).importAccount(anyString(), any(), any());
+  }
+
+  @Test
+  public void shouldNotRegisterAccountWhenExternalIdsCannotBeRead() throws Exception {
+    when(externalIds.get(any())).thenThrow(new IOException("NoteDb unavailable"));
+    List<GitHubUser> users = List.of(user("john"));
+
+    assertThrows(IOException.class, () -> resolver.resolve(users));
+    verify(accountImporter, never()).importAccount(anyString(), any(), any());
+  }
+
+  private static GitHubUser user(String login) throws IOException {
+    GHUser gitHubUser = mock(GHUser.class);
+    when(gitHubUser.getLogin()).thenReturn(login);
+    GitUser author = mock(GitUser.class);
+    when(author.getName()).thenReturn(login);
+    when(author.getEmail()).thenReturn(login + "@example.com");
+    return GitHubUser.from(gitHubUser, author);
+  }
+}
@@ -0,0 +1,112 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import java.nio.file.Path;
+import java.util.List;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GitHubRepositoryMirrorsTest {
+  private static final String ORGANISATION = "myorg";
+  private static final String REPOSITORY = "myrepo";
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Repository gitHubRepo;
+  private GitHubRepository ghRepository;
+  private GitHubRepositoryMirrors mirrors;
+
+  @Before
+  public void setUp() throws Exception {
+    gitHubRepo =
+        new FileRepositoryBuilder()
+            .setGitDir(temporaryFolder.newFolder("github.git"))
+            .setBare()
+            .build();
+    gitHubRepo.create(true);
+    ghRepository = mock(GitHubRepository.class);
+    when(ghRepository.getCloneUrl()).thenReturn(gitHubRepo.getDirectory().toURI().toString());
+    when(ghRepository.getOrganisation()).thenReturn(ORGANISATION);
+    when(ghRepository.getRepository()).thenReturn(REPOSITORY);
+    mirrors =
+        new GitHubRepositoryMirrors(
+            temporaryFolder.newFolder("data").toPath(), mock(GitHubConfig.class));
+  }
+
+  @After
+  public void tearDown() {
+    gitHubRepo.close();
+  }
+
+  @Test
+  public void pullRequestsAndBranchesAreFetchedIntoMirror() throws Exception {
+    RevCommit master;
+    RevCommit head;
+    try (TestRepository<Repository> testRepo = new TestRepository<>(gitHubRepo)) {
+      master = testRepo.branch("refs/heads/master").commit().create();
+      head = testRepo.branch(GitHubRepositoryMirrors.pullRequestRef(1)).commit().create();
+    }
+
+    Path mirrorPath =
+        mirrors.fetchPullRequests(ghRepository, List.of(1), NullProgressMonitor.INSTANCE);
+
+    try (Repository mirror = openMirror(mirrorPath)) {
+      assertThat(mirror.exactRef("refs/heads/master").getObjectId()).isEqualTo(master);
+      assertThat(mirror.exactRef(GitHubRepositoryMirrors.pullRequestRef(1)).getObjectId())
+          .isEqualTo(head);
+    }
+  }
+
+  @Test
+  public void importedPullRequestIsPrunedFromMirror() throws Exception {
+    try (TestRepository<Repository> testRepo = new TestRepository<>(gitHubRepo)) {
+      testRepo.branch("refs/heads/master").commit().create();
+      testRepo.branch(GitHubRepositoryMirrors.pullRequestRef(1)).commit().create();
+      testRepo.branch(GitHubRepositoryMirrors.pullRequestRef(2)).commit().create();
+    }
+    Path mirrorPath =
+        mirrors.fetchPullRequests(ghRepository, List.of(1, 2), NullProgressMonitor.INSTANCE);
+
+    mirrors.prunePullRequest(ORGANISATION, REPOSITORY, 1);
+
+    try (Repository mirror = openMirror(mirrorPath)) {
+      assertThat(mirror.exactRef(GitHubRepositoryMirrors.pullRequestRef(1))).isNull();
+      assertThat(mirror.exactRef(GitHubRepositoryMirrors.pullRequestRef(2))).isNotNull();
+      assertThat(mirror.exactRef("refs/heads/master")).isNotNull();
+    }
+  }
+
+  @Test
+  public void pruneWithoutMirrorIsNoop() throws Exception {
+    mirrors.prunePullRequest(ORGANISATION, REPOSITORY, 1);
+  }
+
+  private static Repository openMirror(Path mirrorPath) throws Exception {
+    return new FileRepositoryBuilder().setGitDir(mirrorPath.toFile()).setBare().build();
+  }
+}
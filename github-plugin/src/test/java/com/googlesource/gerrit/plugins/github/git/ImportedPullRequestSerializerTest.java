@@ -0,0 +1,65 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.plugins.github.git;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.entities.Change;
+import org.junit.Test;
+
+public class ImportedPullRequestSerializerTest {
+  private static final ImportedPullRequestSerializer SERIALIZER =
+      ImportedPullRequestSerializer.INSTANCE;
+
+  @Test
+  public void shouldRoundTripChangesAndLastHead() {
+    ImportedPullRequest deserialized =
+        SERIALIZER.deserialize(
+            SERIALIZER.serialize(new ImportedPullRequest(ImmutableSet.of(10, 200000), "sha1")));
+
+    assertThat(deserialized.getChangeIds())
+        .containsExactly(Change.id(10), Change.id(200000))
+        .inOrder();
+    assertThat(deserialized.getLastHead()).isEqualTo("sha1");
+  }
+
+  @Test
+  public void shouldRoundTripUnknownLastHead() {
+    ImportedPullRequest deserialized =
+        SERIALIZER.deserialize(
+            SERIALIZER.serialize(new ImportedPullRequest(ImmutableSet.of(10), null)));
+
+    assertThat(deserialized.getLastHead()).isNull();
+    assertThat(deserialized.isImportedAt("sha1")).isFalse();
+  }
+
+  @Test
+  public void shouldRejectUnknownFormatVersion() {
+    assertThrows(
+        IllegalArgumentException.class, () -> SERIALIZER.deserialize(new byte[] {(byte) 2}));
+  }
+
+  @Test
+  public void shouldRejectTruncatedInput() {
+    byte[] serialized =
+        SERIALIZER.serialize(new ImportedPullRequest(ImmutableSet.of(10, 11), "sha1"));
+    byte[] truncated = new byte[3];
+    System.arraycopy(serialized, 0, truncated, 0, truncated.length);
+
+    assertThrows(IllegalArgumentException.class, () -> SERIALIZER.deserialize(truncated));
+  }
+}
@@ -0,0 +1,96 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.extensions.common.ChangeInfo;
+import com.google.gerrit.extensions.events.ChangeDeletedListener;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PullRequestChangesCacheTest {
+  private static final String ORGANISATION = "myorg";
+  private static final String REPOSITORY = "myrepo";
+
+  private PullRequestChangesCache cache;
+
+  @Before
+  public void setUp() {
+    cache = new PullRequestChangesCache(CacheBuilder.newBuilder().build());
+  }
+
+  @Test
+  public void importedHeadIsRecorded() {
+    cache.put(ORGANISATION, REPOSITORY, 1, "sha1", ImmutableList.of(Change.id(10)));
+
+    assertThat(cache.isImported(ORGANISATION, REPOSITORY, 1, "sha1")).isTrue();
+    assertThat(cache.isImported(ORGANISATION, REPOSITORY, 1, "sha2")).isFalse();
+    assertThat(cache.isImported(ORGANISATION, REPOSITORY, 2, "sha1")).isFalse();
+  }
+
+  @Test
+  public void changesOfSuccessiveHeadsAreAccumulated() {
+    cache.put(ORGANISATION, REPOSITORY, 1, "sha1", ImmutableList.of(Change.id(10)));
+    cache.put(ORGANISATION, REPOSITORY, 1, "sha2", ImmutableList.of(Change.id(11)));
+
+    assertThat(cache.get(ORGANISATION, REPOSITORY, 1).get().getChangeIds())
+        .containsExactly(Change.id(10), Change.id(11))
+        .inOrder();
+    assertThat(cache.isImported(ORGANISATION, REPOSITORY, 1, "sha2")).isTrue();
+  }
+
+  @Test
+  public void importWithoutChangesIsNotRecorded() {
+    cache.put(ORGANISATION, REPOSITORY, 1, "sha1", ImmutableList.of());
+
+    assertThat(cache.get(ORGANISATION, REPOSITORY, 1)).isEmpty();
+  }
+
+  @Test
+  public void deletedChangeInvalidatesItsPullRequest() {
+    cache.put(ORGANISATION, REPOSITORY, 1, "sha1", ImmutableList.of(Change.id(10)));
+    cache.put(ORGANISATION, REPOSITORY, 2, "sha2", ImmutableList.of(Change.id(11)));
+
+    cache.onChangeDeleted(deleted(ORGANISATION + "/" + REPOSITORY, PullRequestLifecycle.topic(1)));
+
+    assertThat(cache.get(ORGANISATION, REPOSITORY, 1)).isEmpty();
+    assertThat(cache.get(ORGANISATION, REPOSITORY, 2)).isPresent();
+  }
+
+  @Test
+  public void deletedChangeNotImportedFromPullRequestIsIgnored() {
+    cache.put(ORGANISATION, REPOSITORY, 1, "sha1", ImmutableList.of(Change.id(10)));
+
+    cache.onChangeDeleted(deleted(ORGANISATION + "/" + REPOSITORY, "other-topic"));
+    cache.onChangeDeleted(deleted(ORGANISATION + "/" + REPOSITORY, null));
+    cache.onChangeDeleted(deleted(REPOSITORY, PullRequestLifecycle.topic(1)));
+
+    assertThat(cache.get(ORGANISATION, REPOSITORY, 1)).isPresent();
+  }
+
+  private static ChangeDeletedListener.Event deleted(String project, String topic) {
+    ChangeInfo change = new ChangeInfo();
+    change.project = project;
+    change.topic = topic;
+    ChangeDeletedListener.Event event = mock(ChangeDeletedListener.Event.class);
+    when(event.getChange()).thenReturn(change);
+    return event;
+  }
+}
@@ -0,0 +1,264 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.PatchSet;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.index.query.Predicate;
+import com.google.gerrit.server.ChangeMessagesUtil;
+import com.google.gerrit.server.IdentifiedUser;
+import com.google.gerrit.server.account.AccountState;
+import com.google.gerrit.server.change.AbandonOp;
+import com.google.gerrit.server.change.WorkInProgressOp;
+import com.google.gerrit.server.extensions.events.ChangeRestored;
+import com.google.gerrit.server.notedb.ChangeNotes;
+import com.google.gerrit.server.notedb.ChangeUpdate;
+import com.google.gerrit.server.query.change.ChangeData;
+import com.google.gerrit.server.query.change.InternalChangeQuery;
+import com.google.gerrit.server.update.BatchUpdate;
+import com.google.gerrit.server.update.BatchUpdateOp;
+import com.google.gerrit.server.update.ChangeContext;
+import com.google.gerrit.server.update.PostUpdateContext;
+import com.google.gerrit.server.update.UpdateException;
+import com.google.inject.util.Providers;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class PullRequestLifecycleTest {
+  private static final Project.NameKey PROJECT = Project.nameKey("myorg/myrepo");
+  private static final int PR_NUMBER = 42;
+
+  private InternalChangeQuery query;
+  private BatchUpdate batchUpdate;
+  private AbandonOp.Factory abandonOpFactory;
+  private WorkInProgressOp.Factory wipOpFactory;
+  private ChangeMessagesUtil cmUtil;
+  private ChangeRestored changeRestored;
+  private AccountState accountState;
+  private PullRequestLifecycle lifecycle;
+  private int nextChangeId = 1;
+
+  @Before
+  public void setUp() {
+    query = mock(InternalChangeQuery.class);
+    batchUpdate = mock(BatchUpdate.class);
+    BatchUpdate.Factory updateFactory = mock(BatchUpdate.Factory.class);
+    when(updateFactory.create(eq(PROJECT), any(), any())).thenReturn(batchUpdate);
+    IdentifiedUser user = mock(IdentifiedUser.class);
+    accountState = mock(AccountState.class);
+    when(user.state()).thenReturn(accountState);
+    abandonOpFactory = mock(AbandonOp.Factory.class);
+    wipOpFactory = mock(WorkInProgressOp.Factory.class);
+    cmUtil = mock(ChangeMessagesUtil.class);
+    changeRestored = mock(ChangeRestored.class);
+    lifecycle =
+        new PullRequestLifecycle(
+            Providers.of(query),
+            updateFactory,
+            Providers.of(user),
+            abandonOpFactory,
+            wipOpFactory,
+            cmUtil,
+            changeRestored);
+  }
+
+  @Test
+  public void topicOfPullRequest() {
+    assertThat(PullRequestLifecycle.topic(PR_NUMBER)).isEqualTo("GitHub #42");
+    assertThat(PullRequestLifecycle.pullRequestNumber("GitHub #42")).hasValue(PR_NUMBER);
+    assertThat(PullRequestLifecycle.pullRequestNumber("GitHub #x")).isEmpty();
+    assertThat(PullRequestLifecycle.pullRequestNumber("feature")).isEmpty();
+    assertThat(PullRequestLifecycle.pullRequestNumber(null)).isEmpty();
+  }
+
+  @Test
+  public void openChangesAreAbandoned() throws Exception {
+    Change open = change(Change.Status.NEW, false);
+    Change merged = change(Change.Status.MERGED, false);
+    Change abandoned = change(Change.Status.ABANDONED, false);
+    withChanges(open, merged, abandoned);
+
+    assertThat(lifecycle.abandon(PROJECT, PR_NUMBER, "Closed")).isEqualTo(1);
+
+    verify(abandonOpFactory).create(accountState, "Closed");
+    assertThat(addedOps()).containsExactly(open.getId());
+    verify(batchUpdate).execute();
+  }
+
+  @Test
+  public void nothingIsUpdatedWithoutMatchingChanges() throws Exception {
+    withChanges(change(Change.Status.MERGED, false));
+
+    assertThat(lifecycle.abandon(PROJECT, PR_NUMBER, "Closed")).isEqualTo(0);
+
+    verify(batchUpdate, never()).execute();
+  }
+
+  @Test
+  public void abandonedChangesAreRestored() throws Exception {
+    Change open = change(Change.Status.NEW, false);
+    Change abandoned = change(Change.Status.ABANDONED, false);
+    withChanges(open, abandoned);
+
+    assertThat(lifecycle.restore(PROJECT, PR_NUMBER, "Reopened")).isEqualTo(1);
+    BatchUpdateOp op = addedOp(abandoned.getId());
+
+    ChangeContext ctx = changeContext(abandoned);
+    PatchSet patchSet = ctx.getNotes().getCurrentPatchSet();
+    assertThat(op.updateChange(ctx)).isTrue();
+    verify(ctx.getUpdate(abandoned.currentPatchSetId())).setStatus(Change.Status.NEW);
+    verify(cmUtil).setChangeMessage(ctx, "Restored\n\nReopened", ChangeMessagesUtil.TAG_RESTORE);
+
+    PostUpdateContext postCtx = mock(PostUpdateContext.class);
+    ChangeData cd = mock(ChangeData.class);
+    Instant when = Instant.now();
+    when(postCtx.getChangeData(abandoned)).thenReturn(cd);
+    when(postCtx.getAccount()).thenReturn(accountState);
+    when(postCtx.getWhen()).thenReturn(when);
+    op.postUpdate(postCtx);
+    verify(changeRestored).fire(cd, patchSet, accountState, "Reopened", when);
+  }
+
+  @Test
+  public void changeRestoredConcurrentlyIsLeftUntouched() throws Exception {
+    Change abandoned = change(Change.Status.ABANDONED, false);
+    withChanges(abandoned);
+    lifecycle.restore(PROJECT, PR_NUMBER, "Reopened");
+    BatchUpdateOp op = addedOp(abandoned.getId());
+
+    abandoned.setStatus(Change.Status.NEW);
+    ChangeContext ctx = changeContext(abandoned);
+    assertThat(op.updateChange(ctx)).isFalse();
+
+    verify(cmUtil, never()).setChangeMessage(any(ChangeContext.class), anyString(), anyString());
+  }
+
+  @Test
+  public void messageIsAddedToOpenChanges() throws Exception {
+    Change open = change(Change.Status.NEW, false);
+    withChanges(open, change(Change.Status.MERGED, false));
+
+    assertThat(lifecycle.addMessage(PROJECT, PR_NUMBER, "Edited")).isEqualTo(1);
+    BatchUpdateOp op = addedOp(open.getId());
+
+    ChangeContext ctx = changeContext(open);
+    assertThat(op.updateChange(ctx)).isTrue();
+    verify(cmUtil)
+        .setChangeMessage(
+            eq(ctx), eq("Edited"), startsWith(ChangeMessagesUtil.AUTOGENERATED_TAG_PREFIX));
+  }
+
+  @Test
+  public void onlyChangesInOtherStateAreSetWorkInProgress() throws Exception {
+    Change ready = change(Change.Status.NEW, false);
+    Change draft = change(Change.Status.NEW, true);
+    Change abandoned = change(Change.Status.ABANDONED, false);
+    withChanges(ready, draft, abandoned);
+
+    assertThat(lifecycle.setWorkInProgress(PROJECT, PR_NUMBER, true)).isEqualTo(1);
+
+    verify(wipOpFactory).create(eq(true), any());
+    assertThat(addedOps()).containsExactly(ready.getId());
+  }
+
+  @Test
+  public void onlyChangesInOtherStateAreSetReadyForReview() throws Exception {
+    Change ready = change(Change.Status.NEW, false);
+    Change draft = change(Change.Status.NEW, true);
+    withChanges(ready, draft);
+
+    assertThat(lifecycle.setWorkInProgress(PROJECT, PR_NUMBER, false)).isEqualTo(1);
+
+    verify(wipOpFactory, times(1)).create(eq(false), any());
+    assertThat(addedOps()).containsExactly(draft.getId());
+  }
+
+  @Test
+  public void failedUpdateIsReported() throws Exception {
+    withChanges(change(Change.Status.NEW, false));
+    when(batchUpdate.execute()).thenThrow(new UpdateException("failed"));
+
+    assertThrows(IOException.class, () -> lifecycle.addMessage(PROJECT, PR_NUMBER, "Edited"));
+  }
+
+  private Change change(Change.Status status, boolean workInProgress) {
+    Change.Id id = Change.id(nextChangeId++);
+    Change change =
+        new Change(
+            Change.key("I" + id.get()),
+            id,
+            Account.id(1000),
+            BranchNameKey.create(PROJECT, "main"),
+            Instant.now());
+    change.setStatus(status);
+    change.setWorkInProgress(workInProgress);
+    change.setCurrentPatchSet(PatchSet.id(id, 1), "Subject", "Subject");
+    return change;
+  }
+
+  private void withChanges(Change... changes) {
+    List<ChangeData> changesData = new ArrayList<>();
+    for (Change change : changes) {
+      ChangeData cd = mock(ChangeData.class);
+      when(cd.change()).thenReturn(change);
+      when(cd.getId()).thenReturn(change.getId());
+      changesData.add(cd);
+    }
+    when(query.query(any(Predicate.class))).thenReturn(ImmutableList.copyOf(changesData));
+  }
+
+  private List<Change.Id> addedOps() {
+    ArgumentCaptor<Change.Id> ids = ArgumentCaptor.forClass(Change.Id.class);
+    verify(batchUpdate, times(1)).addOp(ids.capture(), any());
+    return ids.getAllValues();
+  }
+
+  private BatchUpdateOp addedOp(Change.Id id) {
+    ArgumentCaptor<BatchUpdateOp> op = ArgumentCaptor.forClass(BatchUpdateOp.class);
+    verify(batchUpdate).addOp(eq(id), op.capture());
+    return op.getValue();
+  }
+
+  private static ChangeContext changeContext(Change change) {
+    ChangeContext ctx = mock(ChangeContext.class);
+    ChangeNotes notes = mock(ChangeNotes.class);
+    when(notes.getCurrentPatchSet()).thenReturn(mock(PatchSet.class));
+    when(ctx.getChange()).thenReturn(change);
+    when(ctx.getNotes()).thenReturn(notes);
+    ChangeUpdate update = mock(ChangeUpdate.class);
+    when(ctx.getUpdate(change.currentPatchSetId())).thenReturn(update);
+    return ctx;
+  }
+}
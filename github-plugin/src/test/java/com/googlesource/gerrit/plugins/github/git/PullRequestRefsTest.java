@@ -0,0 +1,108 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.gerrit.entities.Project;
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.junit.TestRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PullRequestRefsTest {
+  private static final Project.NameKey PROJECT = Project.nameKey("myorg/myrepo");
+
+  private InMemoryRepository repo;
+  private TestRepository<InMemoryRepository> testRepo;
+  private PullRequestRefs pullRequestRefs;
+
+  @Before
+  public void setUp() throws Exception {
+    repo = new InMemoryRepository(new DfsRepositoryDescription("myorg/myrepo"));
+    testRepo = new TestRepository<>(repo);
+    pullRequestRefs = new PullRequestRefs();
+  }
+
+  @Test
+  public void deleteRemovesPullRequestRef() throws Exception {
+    testRepo.branch(PullRequestRefs.localRef(1)).commit().create();
+    testRepo.branch(PullRequestRefs.localRef(2)).commit().create();
+
+    pullRequestRefs.delete(repo, 1);
+
+    assertThat(repo.exactRef(PullRequestRefs.localRef(1))).isNull();
+    assertThat(repo.exactRef(PullRequestRefs.localRef(2))).isNotNull();
+  }
+
+  @Test
+  public void deleteOfMissingRefIsNoop() throws Exception {
+    pullRequestRefs.delete(repo, 1);
+
+    assertThat(repo.exactRef(PullRequestRefs.localRef(1))).isNull();
+  }
+
+  @Test
+  public void pruneRemovesAllPullRequestRefsInOneBatch() throws Exception {
+    testRepo.branch("refs/heads/master").commit().create();
+    testRepo.branch(PullRequestRefs.localRef(1)).commit().create();
+    testRepo.branch(PullRequestRefs.localRef(2)).commit().create();
+    testRepo.branch(PullRequestRefs.localRef(3)).commit().create();
+
+    assertThat(pullRequestRefs.prune(PROJECT, repo)).isEqualTo(3);
+
+    assertThat(repo.getRefDatabase().getRefsByPrefix(PullRequestRefs.PULL_REQUEST_REFS_PREFIX))
+        .isEmpty();
+    assertThat(repo.exactRef("refs/heads/master")).isNotNull();
+  }
+
+  @Test
+  public void pruneWithoutPullRequestRefs() throws Exception {
+    testRepo.branch("refs/heads/master").commit().create();
+
+    assertThat(pullRequestRefs.prune(PROJECT, repo)).isEqualTo(0);
+
+    assertThat(repo.exactRef("refs/heads/master")).isNotNull();
+  }
+
+  @Test
+  public void pruneKeepsRefsOfImportJobsQueuedOrRunning() throws Exception {
+    testRepo.branch(PullRequestRefs.localRef(1)).commit().create();
+    testRepo.branch(PullRequestRefs.localRef(2)).commit().create();
+    PullRequestImportJob job = importJob("myorg", "myrepo", 2);
+    PullRequestImportJob otherProjectJob = importJob("myorg", "otherrepo", 1);
+    pullRequestRefs.register(job);
+    pullRequestRefs.register(otherProjectJob);
+
+    assertThat(pullRequestRefs.prune(PROJECT, repo)).isEqualTo(1);
+    assertThat(repo.exactRef(PullRequestRefs.localRef(1))).isNull();
+    assertThat(repo.exactRef(PullRequestRefs.localRef(2))).isNotNull();
+
+    pullRequestRefs.unregister(job);
+    assertThat(pullRequestRefs.prune(PROJECT, repo)).isEqualTo(1);
+    assertThat(repo.exactRef(PullRequestRefs.localRef(2))).isNull();
+  }
+
+  private static PullRequestImportJob importJob(
+      String organisation, String repository, int pullRequestId) {
+    PullRequestImportJob job = mock(PullRequestImportJob.class);
+    when(job.getOrganisation()).thenReturn(organisation);
+    when(job.getRepository()).thenReturn(repository);
+    when(job.getPullRequestId()).thenReturn(pullRequestId);
+    return job;
+  }
+}
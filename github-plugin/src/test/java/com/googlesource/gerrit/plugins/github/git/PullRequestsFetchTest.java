@@ -0,0 +1,158 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import java.io.File;
+import java.util.List;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PullRequestsFetchTest {
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Repository gitHubRepo;
+  private Repository gerritRepo;
+  private GitHubRepository ghRepository;
+  private GitHubRepositoryMirrors mirrors;
+
+  @Before
+  public void setUp() throws Exception {
+    gitHubRepo = createRepository(temporaryFolder.newFolder("github.git"));
+    gerritRepo = createRepository(temporaryFolder.newFolder("gerrit.git"));
+    ghRepository = mock(GitHubRepository.class);
+    when(ghRepository.getCloneUrl()).thenReturn(gitHubRepo.getDirectory().toURI().toString());
+    mirrors = mock(GitHubRepositoryMirrors.class);
+  }
+
+  @After
+  public void tearDown() {
+    gitHubRepo.close();
+    gerritRepo.close();
+  }
+
+  @Test
+  public void headsAreFetchedTogether() throws Exception {
+    RevCommit head1 = createPullRequest(1);
+    RevCommit head2 = createPullRequest(2);
+    PullRequestsFetch fetch = new PullRequestsFetch(List.of(1, 2));
+
+    fetch.fetch(1, gerritRepo, ghRepository, mirrors, NullProgressMonitor.INSTANCE);
+    fetch.fetch(2, gerritRepo, ghRepository, mirrors, NullProgressMonitor.INSTANCE);
+
+    assertThat(gerritRepo.exactRef(PullRequestRefs.localRef(1)).getObjectId()).isEqualTo(head1);
+    assertThat(gerritRepo.exactRef(PullRequestRefs.localRef(2)).getObjectId()).isEqualTo(head2);
+  }
+
+  @Test
+  public void missingHeadFailsOnlyItsPullRequest() throws Exception {
+    RevCommit head1 = createPullRequest(1);
+    RevCommit head3 = createPullRequest(3);
+    PullRequestsFetch fetch = new PullRequestsFetch(List.of(1, 2, 3));
+
+    fetch.fetch(1, gerritRepo, ghRepository, mirrors, NullProgressMonitor.INSTANCE);
+    assertThrows(
+        GitAPIException.class,
+        () -> fetch.fetch(2, gerritRepo, ghRepository, mirrors, NullProgressMonitor.INSTANCE));
+    fetch.fetch(3, gerritRepo, ghRepository, mirrors, NullProgressMonitor.INSTANCE);
+
+    assertThat(gerritRepo.exactRef(PullRequestRefs.localRef(1)).getObjectId()).isEqualTo(head1);
+    assertThat(gerritRepo.exactRef(PullRequestRefs.localRef(2))).isNull();
+    assertThat(gerritRepo.exactRef(PullRequestRefs.localRef(3)).getObjectId()).isEqualTo(head3);
+  }
+
+  @Test
+  public void headsOfPullRequestsDoneBeforeTheFetchAreNotFetched() throws Exception {
+    createPullRequest(1);
+    RevCommit head2 = createPullRequest(2);
+    PullRequestsFetch fetch = new PullRequestsFetch(List.of(1, 2));
+
+    assertThat(fetch.done(1)).isFalse();
+    fetch.fetch(2, gerritRepo, ghRepository, mirrors, NullProgressMonitor.INSTANCE);
+
+    assertThat(gerritRepo.exactRef(PullRequestRefs.localRef(1))).isNull();
+    assertThat(gerritRepo.exactRef(PullRequestRefs.localRef(2)).getObjectId()).isEqualTo(head2);
+  }
+
+  @Test
+  public void pullRequestsDoneAfterTheFetchHaveTheirRefToDelete() throws Exception {
+    createPullRequest(1);
+    createPullRequest(2);
+    PullRequestsFetch fetch = new PullRequestsFetch(List.of(1, 2));
+
+    fetch.fetch(2, gerritRepo, ghRepository, mirrors, NullProgressMonitor.INSTANCE);
+
+    assertThat(fetch.done(1)).isTrue();
+    assertThat(gerritRepo.exactRef(PullRequestRefs.localRef(1))).isNotNull();
+  }
+
+  @Test
+  public void missingSingleHeadFails() throws Exception {
+    PullRequestsFetch fetch = PullRequestsFetch.single(1);
+
+    assertThrows(
+        GitAPIException.class,
+        () -> fetch.fetch(1, gerritRepo, ghRepository, mirrors, NullProgressMonitor.INSTANCE));
+  }
+
+  @Test
+  public void headsAreFetchedThroughMirror() throws Exception {
+    RevCommit head1 = createPullRequest(1);
+    GitHubRepositoryMirrors enabledMirrors =
+        spy(
+            new GitHubRepositoryMirrors(
+                temporaryFolder.newFolder("data").toPath(), mock(GitHubConfig.class)));
+    doReturn(true).when(enabledMirrors).isEnabled();
+    when(ghRepository.getOrganisation()).thenReturn("myorg");
+    when(ghRepository.getRepository()).thenReturn("myrepo");
+
+    PullRequestsFetch.single(1)
+        .fetch(1, gerritRepo, ghRepository, enabledMirrors, NullProgressMonitor.INSTANCE);
+
+    assertThat(gerritRepo.exactRef(PullRequestRefs.localRef(1)).getObjectId()).isEqualTo(head1);
+    assertThat(gerritRepo.exactRef(GitHubRepositoryMirrors.pullRequestRef(1))).isNull();
+  }
+
+  private RevCommit createPullRequest(int pullRequestId) throws Exception {
+    try (TestRepository<Repository> testRepo = new TestRepository<>(gitHubRepo)) {
+      return testRepo
+          .branch(GitHubRepositoryMirrors.pullRequestRef(pullRequestId))
+          .commit()
+          .message("Pull request " + pullRequestId)
+          .create();
+    }
+  }
+
+  private static Repository createRepository(File gitDir) throws Exception {
+    Repository repo = new FileRepositoryBuilder().setGitDir(gitDir).setBare().build();
+    repo.create(true);
+    return repo;
+  }
+}
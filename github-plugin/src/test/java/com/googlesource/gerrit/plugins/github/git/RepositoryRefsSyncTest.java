@@ -0,0 +1,230 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.git;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.IdentifiedUser;
+import com.google.gerrit.server.extensions.events.GitReferenceUpdated;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.inject.util.Providers;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
+import java.io.File;
+import org.eclipse.jgit.errors.RepositoryNotFoundException;
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.util.FS;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RepositoryRefsSyncTest {
+  private static final String ORGANISATION = "myorg";
+  private static final String REPOSITORY = "myrepo";
+  private static final Project.NameKey PROJECT = Project.nameKey(ORGANISATION + "/" + REPOSITORY);
+  private static final String BRANCH = "refs/heads/feature";
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Repository gitHubRepo;
+  private InMemoryRepository gerritRepo;
+  private TestRepository<Repository> gitHub;
+  private TestRepository<InMemoryRepository> gerrit;
+  private GitReferenceUpdated referenceUpdated;
+  private GitHubLogin login;
+  private RepositoryRefsSync refsSync;
+
+  @Before
+  public void setUp() throws Exception {
+    // GitHub is fetched through its URL and needs to be on disk, Gerrit can be in memory
+    File gitHubDir = temporaryFolder.newFolder("github.git");
+    gitHubRepo = new FileRepositoryBuilder().setGitDir(gitHubDir).setBare().build();
+    gitHubRepo.create(true);
+    gitHub = new TestRepository<>(gitHubRepo);
+    gerritRepo =
+        new InMemoryRepository.Builder()
+            .setRepositoryDescription(new DfsRepositoryDescription(PROJECT.get()))
+            .setFS(FS.DETECTED)
+            .build();
+    gerrit = new TestRepository<>(gerritRepo);
+
+    GitRepositoryManager repoManager = mock(GitRepositoryManager.class);
+    doThrow(new RepositoryNotFoundException("not imported"))
+        .when(repoManager)
+        .openRepository(any(Project.NameKey.class));
+    doAnswer(
+            invocation -> {
+              gerritRepo.incrementOpen();
+              return gerritRepo;
+            })
+        .when(repoManager)
+        .openRepository(PROJECT);
+
+    GitHubRepository ghRepository = mock(GitHubRepository.class);
+    when(ghRepository.getCloneUrl()).thenReturn(gitHubDir.toURI().toString());
+    GitHubRepository.Factory ghRepoFactory = mock(GitHubRepository.Factory.class);
+    when(ghRepoFactory.create(eq(ORGANISATION), eq(REPOSITORY), any())).thenReturn(ghRepository);
+
+    referenceUpdated = mock(GitReferenceUpdated.class);
+    login = mock(GitHubLogin.class);
+    refsSync =
+        new RepositoryRefsSync(
+            repoManager, ghRepoFactory, referenceUpdated, Providers.of(mock(IdentifiedUser.class)));
+  }
+
+  @After
+  public void tearDown() {
+    gitHub.close();
+    gerrit.close();
+  }
+
+  @Test
+  public void newBranchIsFetched() throws Exception {
+    RevCommit head = gitHub.branch(BRANCH).commit().message("New").create();
+
+    assertThat(update(BRANCH, head, false)).isTrue();
+
+    assertThat(gerritRepo.exactRef(BRANCH).getObjectId()).isEqualTo(head);
+    verify(referenceUpdated).fire(eq(PROJECT), eq(BRANCH), eq(ObjectId.zeroId()), eq(head), any());
+  }
+
+  @Test
+  public void branchIsFastForwarded() throws Exception {
+    RevCommit base = gitHub.branch(BRANCH).commit().message("Base").create();
+    update(BRANCH, base, false);
+    RevCommit head = gitHub.branch(BRANCH).commit().parent(base).message("Next").create();
+
+    assertThat(update(BRANCH, head, false)).isTrue();
+
+    assertThat(gerritRepo.exactRef(BRANCH).getObjectId()).isEqualTo(head);
+    verify(referenceUpdated).fire(eq(PROJECT), eq(BRANCH), eq(base), eq(head), any());
+  }
+
+  @Test
+  public void upToDateBranchIsNotFetched() throws Exception {
+    RevCommit head = gitHub.branch(BRANCH).commit().message("New").create();
+    update(BRANCH, head, false);
+
+    assertThat(update(BRANCH, head, false)).isTrue();
+
+    verify(referenceUpdated).fire(eq(PROJECT), eq(BRANCH), any(), any(), any());
+  }
+
+  @Test
+  public void divergedBranchIsRejectedUnlessForced() throws Exception {
+    RevCommit base = gitHub.branch(BRANCH).commit().message("Base").create();
+    update(BRANCH, base, false);
+    RevCommit gerritOnly =
+        gerrit.branch(BRANCH).commit().parent(base).message("Not replicated yet").create();
+    RevCommit rewritten = gitHub.branch(BRANCH).commit().message("Rewritten").create();
+
+    assertThat(update(BRANCH, rewritten, false)).isFalse();
+
+    assertThat(gerritRepo.exactRef(BRANCH).getObjectId()).isEqualTo(gerritOnly);
+    verify(referenceUpdated, never())
+        .fire(eq(PROJECT), eq(BRANCH), eq(gerritOnly), any(ObjectId.class), any());
+  }
+
+  @Test
+  public void forcedUpdateOverwritesDivergedBranch() throws Exception {
+    RevCommit base = gitHub.branch(BRANCH).commit().message("Base").create();
+    update(BRANCH, base, false);
+    RevCommit rewritten = gitHub.branch(BRANCH).commit().message("Rewritten").create();
+
+    assertThat(update(BRANCH, rewritten, true)).isTrue();
+
+    assertThat(gerritRepo.exactRef(BRANCH).getObjectId()).isEqualTo(rewritten);
+    verify(referenceUpdated).fire(eq(PROJECT), eq(BRANCH), eq(base), eq(rewritten), any());
+  }
+
+  @Test
+  public void tagIsFetched() throws Exception {
+    RevCommit commit = gitHub.commit().message("Released").create();
+    String tag = Constants.R_TAGS + "v1.0";
+    gitHub.update(tag, gitHub.tag("v1.0", commit));
+    ObjectId tagId = gitHubRepo.exactRef(tag).getObjectId();
+
+    assertThat(update(tag, tagId, false)).isTrue();
+
+    assertThat(gerritRepo.exactRef(tag).getObjectId()).isEqualTo(tagId);
+  }
+
+  @Test
+  public void refsOtherThanBranchesAndTagsAreNotSynced() throws Exception {
+    String changeRef = "refs/changes/01/1/1";
+    RevCommit head = gitHub.branch(changeRef).commit().message("Change").create();
+
+    assertThat(update(changeRef, head, false)).isFalse();
+    assertThat(refsSync.delete(ORGANISATION, REPOSITORY, changeRef)).isFalse();
+
+    assertThat(gerritRepo.exactRef(changeRef)).isNull();
+  }
+
+  @Test
+  public void refsOfRepositoryNotImportedAreNotSynced() throws Exception {
+    assertThat(refsSync.update(ORGANISATION, "other", BRANCH, ObjectId.zeroId(), false, login))
+        .isFalse();
+    assertThat(refsSync.delete(ORGANISATION, "other", BRANCH)).isFalse();
+  }
+
+  @Test
+  public void branchIsDeleted() throws Exception {
+    RevCommit head = gerrit.branch(BRANCH).commit().message("Deleted").create();
+
+    assertThat(refsSync.delete(ORGANISATION, REPOSITORY, BRANCH)).isTrue();
+
+    assertThat(gerritRepo.exactRef(BRANCH)).isNull();
+    verify(referenceUpdated).fire(eq(PROJECT), eq(BRANCH), eq(head), eq(ObjectId.zeroId()), any());
+  }
+
+  @Test
+  public void missingBranchDeletionIsNoOp() throws Exception {
+    assertThat(refsSync.delete(ORGANISATION, REPOSITORY, BRANCH)).isTrue();
+
+    verify(referenceUpdated, never()).fire(any(), anyString(), any(), any(), any());
+  }
+
+  @Test
+  public void branchOfHeadIsNotDeleted() throws Exception {
+    RevCommit head = gerrit.branch(BRANCH).commit().message("Default branch").create();
+    gerritRepo.updateRef(Constants.HEAD).link(BRANCH);
+
+    assertThat(refsSync.delete(ORGANISATION, REPOSITORY, BRANCH)).isFalse();
+
+    assertThat(gerritRepo.exactRef(BRANCH).getObjectId()).isEqualTo(head);
+    verify(referenceUpdated, never()).fire(any(), anyString(), any(), any(), any());
+  }
+
+  private boolean update(String refName, ObjectId newId, boolean force) throws Exception {
+    return refsSync.update(ORGANISATION, REPOSITORY, refName, newId, force, login);
+  }
+}
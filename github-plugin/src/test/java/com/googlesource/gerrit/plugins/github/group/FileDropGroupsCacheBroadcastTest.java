@@ -0,0 +1,143 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupsCacheUpdate.Type;
+import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileDropGroupsCacheBroadcastTest {
+  private static final long NO_POLLING = TimeUnit.DAYS.toMillis(1);
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private final AtomicLong clock = new AtomicLong(1_000_000L);
+  private Path directory;
+  private FileDropGroupsCacheBroadcast node;
+  private FileDropGroupsCacheBroadcast otherNode;
+  private List<GitHubGroupsCacheUpdate> received;
+
+  @Before
+  public void setUp() throws Exception {
+    directory = tempFolder.newFolder("broadcast").toPath();
+    node = new FileDropGroupsCacheBroadcast(directory, NO_POLLING, clock::get);
+    otherNode = new FileDropGroupsCacheBroadcast(directory, NO_POLLING, clock::get);
+    node.start();
+    otherNode.start();
+    received = new ArrayList<>();
+    otherNode.subscribe(received::add);
+  }
+
+  @After
+  public void tearDown() {
+    node.stop();
+    otherNode.stop();
+  }
+
+  @Test
+  public void shouldApplyUpdatesOfOtherNodesOnce() {
+    node.publish(GitHubGroupsCacheUpdate.put("someuser", someOrgsTeams()));
+    node.publish(GitHubGroupsCacheUpdate.invalidate("otheruser"));
+
+    otherNode.poll();
+    otherNode.poll();
+
+    assertThat(received).hasSize(2);
+    assertThat(received.get(0).getType()).isEqualTo(Type.PUT);
+    assertThat(received.get(0).getUsername()).isEqualTo("someuser");
+    assertThat(received.get(0).getOrgsTeams().get("someorg")).containsExactly("developers");
+    assertThat(received.get(1).getType()).isEqualTo(Type.INVALIDATE);
+  }
+
+  @Test
+  public void shouldNotApplyOwnUpdates() {
+    otherNode.publish(GitHubGroupsCacheUpdate.invalidateAll());
+
+    otherNode.poll();
+
+    assertThat(received).isEmpty();
+  }
+
+  @Test
+  public void shouldNotApplyUpdatesPublishedBeforeStart() {
+    node.publish(GitHubGroupsCacheUpdate.invalidateAll());
+    FileDropGroupsCacheBroadcast newNode =
+        new FileDropGroupsCacheBroadcast(directory, NO_POLLING, clock::get);
+    List<GitHubGroupsCacheUpdate> newNodeReceived = new ArrayList<>();
+    newNode.subscribe(newNodeReceived::add);
+    newNode.start();
+
+    newNode.poll();
+    newNode.stop();
+
+    assertThat(newNodeReceived).isEmpty();
+  }
+
+  @Test
+  public void shouldSkipUpdatesOlderThanTheLastLocalChangeOfTheUser() {
+    node.publish(GitHubGroupsCacheUpdate.put("someuser", someOrgsTeams()));
+    node.publish(GitHubGroupsCacheUpdate.put("otheruser", someOrgsTeams()));
+    clock.incrementAndGet();
+    otherNode.publish(GitHubGroupsCacheUpdate.invalidate("someuser"));
+
+    otherNode.poll();
+
+    assertThat(received).hasSize(1);
+    assertThat(received.get(0).getUsername()).isEqualTo("otheruser");
+  }
+
+  @Test
+  public void shouldSkipUpdatesOlderThanTheLastLocalInvalidationOfAllUsers() {
+    node.publish(GitHubGroupsCacheUpdate.put("someuser", someOrgsTeams()));
+    clock.incrementAndGet();
+    otherNode.publish(GitHubGroupsCacheUpdate.invalidateAll());
+    clock.incrementAndGet();
+    node.publish(GitHubGroupsCacheUpdate.invalidate("otheruser"));
+
+    otherNode.poll();
+
+    assertThat(received).hasSize(1);
+    assertThat(received.get(0).getUsername()).isEqualTo("otheruser");
+  }
+
+  @Test
+  public void shouldRemoveOwnUpdatesAfterRetention() throws Exception {
+    node.publish(GitHubGroupsCacheUpdate.invalidateAll());
+    otherNode.poll();
+
+    clock.addAndGet(TimeUnit.MINUTES.toMillis(11));
+    node.poll();
+
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files.count()).isEqualTo(0);
+    }
+  }
+
+  private static OrganizationStructure someOrgsTeams() {
+    return OrganizationStructure.builder().put("someorg", "developers").build();
+  }
+}
@@ -0,0 +1,224 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.gerrit.server.config.AllProjectsName;
+import com.google.gerrit.server.config.SitePaths;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.inject.util.Providers;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubHttpConnector;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.jgit.lib.Config;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GitHubGraphQlTeamsLoaderTest {
+
+  @Test
+  public void shouldDeriveGraphQlUrlFromApiUrl() {
+    assertThat(GitHubGraphQlTeamsLoader.graphQlUrl("https://api.github.com"))
+        .isEqualTo("https://api.github.com/graphql");
+    assertThat(GitHubGraphQlTeamsLoader.graphQlUrl("https://api.github.com/"))
+        .isEqualTo("https://api.github.com/graphql");
+    assertThat(GitHubGraphQlTeamsLoader.graphQlUrl("https://github.example.com/api/v3"))
+        .isEqualTo("https://github.example.com/api/graphql");
+    assertThat(GitHubGraphQlTeamsLoader.graphQlUrl("https://github.example.com/api/v3/"))
+        .isEqualTo("https://github.example.com/api/graphql");
+  }
+
+  @Test
+  public void shouldAddTeamsWithTheirParents() {
+    OrganizationStructure.Builder orgsTeams = OrganizationStructure.builder();
+    GitHubGraphQlTeamsLoader.addTeams(
+        "gerrit",
+        json(
+            "{\"nodes\":[{\"name\":\"maintainers\",\"parentTeam\":{\"name\":\"developers\"}},"
+                + "{\"name\":\"developers\",\"parentTeam\":null}]}"),
+        orgsTeams);
+
+    OrganizationStructure structure = orgsTeams.build();
+    assertThat(structure.getDirectTeams("gerrit")).containsExactly("maintainers", "developers");
+    assertThat(structure.getParentTeams("gerrit")).containsExactly("maintainers", "developers");
+  }
+
+  @Test
+  public void shouldAddTheChainOfParentTeams() {
+    OrganizationStructure.Builder orgsTeams = OrganizationStructure.builder();
+    GitHubGraphQlTeamsLoader.addTeams(
+        "gerrit",
+        json(
+            "{\"nodes\":[{\"name\":\"frontend\",\"parentTeam\":{\"name\":\"developers\","
+                + "\"parentTeam\":{\"name\":\"engineering\",\"parentTeam\":null}}}]}"),
+        orgsTeams);
+
+    OrganizationStructure structure = orgsTeams.build();
+    assertThat(structure.getDirectTeams("gerrit")).containsExactly("frontend");
+    assertThat(structure.get("gerrit"))
+        .containsExactly("frontend", "developers", "engineering")
+        .inOrder();
+  }
+
+  @Test
+  public void shouldReturnEndCursorOnlyWhenThereIsANextPage() {
+    assertThat(
+            GitHubGraphQlTeamsLoader.endCursor(
+                json("{\"pageInfo\":{\"hasNextPage\":true,\"endCursor\":\"abc\"}}")))
+        .isEqualTo("abc");
+    assertThat(
+            GitHubGraphQlTeamsLoader.endCursor(
+                json("{\"pageInfo\":{\"hasNextPage\":false,\"endCursor\":null}}")))
+        .isNull();
+  }
+
+  @Test
+  public void shouldFilterTeamsByTheViewerLogin() throws Exception {
+    assertThat(GitHubGraphQlTeamsLoader.viewerLogin(json("{\"login\":\"gh-john\"}")))
+        .isEqualTo("gh-john");
+    assertThrows(IOException.class, () -> GitHubGraphQlTeamsLoader.viewerLogin(null));
+  }
+
+  @Test
+  public void shouldFetchTheViewerLoginWithTheFirstPage() throws Exception {
+    GitHubGraphQlTeamsLoader loader = loader("john", "john");
+
+    OrganizationStructure.Builder orgsTeams = OrganizationStructure.builder();
+    loader.load("john", "token", orgsTeams);
+
+    assertThat(requests).hasSize(1);
+    assertThat(orgsTeams.build().get("gerrit")).contains("maintainers");
+  }
+
+  @Test
+  public void shouldRequestTheFirstPageAgainWhenTheViewerLoginIsNotTheUsername() throws Exception {
+    GitHubGraphQlTeamsLoader loader = loader("john", "gh-john");
+
+    loader.load("john", "token", OrganizationStructure.builder());
+    assertThat(requests).hasSize(2);
+    assertThat(loginVariable(requests.get(0))).isEqualTo("john");
+    assertThat(loginVariable(requests.get(1))).isEqualTo("gh-john");
+
+    requests.clear();
+    loader.load("john", "token", OrganizationStructure.builder());
+    assertThat(requests).hasSize(1);
+    assertThat(loginVariable(requests.get(0))).isEqualTo("gh-john");
+  }
+
+  @Test
+  public void shouldKeepTheRateLimitReturnedWithTheLastResponse() throws Exception {
+    GitHubGraphQlTeamsLoader loader = loader("john", "john");
+
+    loader.load("john", "token", OrganizationStructure.builder());
+    assertThat(rateLimits.low("john")).isEmpty();
+
+    rateLimitRemaining = 499;
+    loader.load("john", "token", OrganizationStructure.builder());
+    assertThat(rateLimits.low("john").get().getRemaining()).isEqualTo(499);
+    assertThat(rateLimits.low("jane")).isEmpty();
+  }
+
+  @Test
+  public void shouldFailOnGraphQlErrors() {
+    assertThrows(
+        IOException.class,
+        () ->
+            GitHubGraphQlTeamsLoader.data(
+                json("{\"data\":null,\"errors\":[{\"message\":\"Bad credentials\"}]}")));
+  }
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private final List<ByteArrayOutputStream> requests = new ArrayList<>();
+  private final GitHubGroupsRateLimits rateLimits = new GitHubGroupsRateLimits();
+  private int rateLimitRemaining = 5000;
+
+  private GitHubGraphQlTeamsLoader loader(String username, String viewerLogin) throws Exception {
+    GitHubHttpConnector httpConnector = mock(GitHubHttpConnector.class);
+    when(httpConnector.connect(any()))
+        .thenAnswer(
+            invocation -> {
+              ByteArrayOutputStream request = new ByteArrayOutputStream();
+              requests.add(request);
+              HttpURLConnection conn = mock(HttpURLConnection.class);
+              when(conn.getOutputStream()).thenReturn(request);
+              when(conn.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+              when(conn.getHeaderFieldInt("X-RateLimit-Limit", -1)).thenReturn(5000);
+              when(conn.getHeaderFieldInt("X-RateLimit-Remaining", -1))
+                  .thenReturn(rateLimitRemaining);
+              when(conn.getHeaderFieldLong("X-RateLimit-Reset", 0))
+                  .thenReturn(Instant.now().plus(Duration.ofHours(1)).getEpochSecond());
+              when(conn.getInputStream())
+                  .thenAnswer(
+                      i ->
+                          new ByteArrayInputStream(
+                              ("{\"data\":{\"viewer\":{\"login\":\""
+                                      + viewerLogin
+                                      + "\",\"organizations\":{"
+                                      + "\"pageInfo\":{\"hasNextPage\":false,\"endCursor\":null},"
+                                      + "\"nodes\":[{\"login\":\"gerrit\",\"teams\":{"
+                                      + "\"pageInfo\":{\"hasNextPage\":false,\"endCursor\":null},"
+                                      + "\"nodes\":[{\"name\":\"maintainers\",\"parentTeam\":null}]"
+                                      + "}}]}}}}")
+                                  .getBytes(UTF_8)));
+              return conn;
+            });
+    Config gerritConfig = new Config();
+    gerritConfig.fromText(
+        "[auth]\n"
+            + "httpHeader = GITHUB\n"
+            + "type = HTTP\n"
+            + "[gerrit]\n"
+            + "basePath = /tmp\n"
+            + "[github-key \"default\"]\n"
+            + "current = true\n"
+            + "passwordDevice = /dev/zero\n"
+            + "[github]\n"
+            + "clientId = myclientid\n"
+            + "clientSecret = mysecret\n");
+    GitHubConfig config =
+        new GitHubConfig(
+            gerritConfig,
+            new SitePaths(tempFolder.getRoot().toPath()),
+            Providers.of(new AllProjectsName("All-Projects")));
+    return new GitHubGraphQlTeamsLoader(httpConnector, rateLimits, config);
+  }
+
+  private static String loginVariable(ByteArrayOutputStream request) {
+    return json(new String(request.toByteArray(), UTF_8))
+        .getAsJsonObject("variables")
+        .get("login")
+        .getAsString();
+  }
+
+  private static JsonObject json(String json) {
+    return JsonParser.parseString(json).getAsJsonObject();
+  }
+}
@@ -0,0 +1,98 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache.EVERYONE_TEAM_NAME;
+
+import com.google.gerrit.entities.AccountGroup;
+import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class GitHubGroupMembersIndexTest {
+  private static final String ORGANISATION = "someorg";
+  private static final AccountGroup.UUID ORG_UUID = GitHubOrganisationGroup.uuid(ORGANISATION);
+  private static final AccountGroup.UUID DEVELOPERS_UUID =
+      GitHubTeamGroup.uuid(ORG_UUID, "developers");
+
+  private final GitHubGroupMembersIndex index = new GitHubGroupMembersIndex();
+
+  @Test
+  public void shouldListMembersOfOrganisationsAndTeams() {
+    index.update("user1", orgsTeams("developers"));
+    index.update("user2", orgsTeams());
+
+    assertThat(index.getMembers(ORG_UUID)).containsExactly("user1", "user2");
+    assertThat(index.getMembers(DEVELOPERS_UUID)).containsExactly("user1");
+  }
+
+  @Test
+  public void shouldReplacePreviousMemberships() {
+    index.update("user1", orgsTeams("developers"));
+    index.update("user1", orgsTeams("admins"));
+
+    assertThat(index.getMembers(DEVELOPERS_UUID)).isEmpty();
+    assertThat(index.getMembers(GitHubTeamGroup.uuid(ORG_UUID, "admins"))).containsExactly("user1");
+  }
+
+  @Test
+  public void shouldForgetRemovedUsers() {
+    index.update("user1", orgsTeams("developers"));
+    index.update("user2", orgsTeams("developers"));
+    index.remove("user1");
+
+    assertThat(index.getMembers(DEVELOPERS_UUID)).containsExactly("user2");
+
+    index.clear();
+    assertThat(index.getMembers(ORG_UUID)).isEmpty();
+  }
+
+  @Test
+  public void shouldIndexUsersUpdatedConcurrently() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> updates = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        String username = "user" + i;
+        updates.add(executor.submit(() -> index.update(username, orgsTeams("developers"))));
+      }
+      for (Future<?> update : updates) {
+        update.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(index.getMembers(DEVELOPERS_UUID)).hasSize(1000);
+  }
+
+  @Test
+  public void shouldReturnNoMembersOfUnknownGroups() {
+    assertThat(index.getMembers(GitHubOrganisationGroup.uuid("otherorg"))).isEmpty();
+  }
+
+  private static OrganizationStructure orgsTeams(String... teams) {
+    OrganizationStructure.Builder orgsTeams =
+        OrganizationStructure.builder().put(ORGANISATION, EVERYONE_TEAM_NAME);
+    for (String team : teams) {
+      orgsTeams.put(ORGANISATION, team);
+    }
+    return orgsTeams.build();
+  }
+}
@@ -0,0 +1,99 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache.EVERYONE_TEAM_NAME;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.account.AccountCache;
+import com.google.gerrit.server.account.AccountState;
+import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GitHubGroupReviewerSuggestionTest {
+  private static final Project.NameKey PROJECT = Project.nameKey("myproject");
+
+  private GitHubGroupsCache groupsCache;
+  private AccountCache accountCache;
+  private GitHubGroupReviewerSuggestion suggestion;
+  private GitHubGroupMembersIndex membersIndex;
+
+  @Before
+  public void setUp() {
+    membersIndex = new GitHubGroupMembersIndex();
+    groupsCache = mock(GitHubGroupsCache.class);
+    when(groupsCache.getMembersOfGroup(any()))
+        .thenAnswer(invocation -> membersIndex.getMembers(invocation.getArgument(0)));
+    accountCache = mock(AccountCache.class);
+    when(accountCache.getByUsername(any())).thenReturn(Optional.empty());
+    suggestion = new GitHubGroupReviewerSuggestion(groupsCache, accountCache);
+
+    membersIndex.update("user1", orgsTeams("developers"));
+    membersIndex.update("user2", orgsTeams());
+    membersIndex.update("inactive", orgsTeams("developers"));
+    account("user1", 1, true);
+    account("user2", 2, true);
+    account("inactive", 3, false);
+  }
+
+  @Test
+  public void shouldSuggestActiveMembersOfTeam() {
+    assertThat(suggested("github/myorg/developers")).containsExactly(Account.id(1));
+  }
+
+  @Test
+  public void shouldSuggestActiveMembersOfOrganisation() {
+    assertThat(suggested("github/myorg")).containsExactly(Account.id(1), Account.id(2));
+  }
+
+  @Test
+  public void shouldSuggestNothingForOtherQueries() {
+    assertThat(suggested("github/")).isEmpty();
+    assertThat(suggested("user1")).isEmpty();
+    assertThat(suggested(null)).isEmpty();
+    assertThat(suggested("github/otherorg")).isEmpty();
+  }
+
+  private Set<Account.Id> suggested(String query) {
+    return suggestion.suggestReviewers(PROJECT, null, query, Set.of()).stream()
+        .map(reviewer -> reviewer.account)
+        .collect(Collectors.toSet());
+  }
+
+  private void account(String username, int id, boolean active) {
+    Account account = Account.builder(Account.id(id), Instant.EPOCH).setInactive(!active).build();
+    AccountState accountState = mock(AccountState.class);
+    when(accountState.account()).thenReturn(account);
+    when(accountCache.getByUsername(username)).thenReturn(Optional.of(accountState));
+  }
+
+  private static OrganizationStructure orgsTeams(String... teams) {
+    OrganizationStructure.Builder orgsTeams =
+        OrganizationStructure.builder().put("myorg", EVERYONE_TEAM_NAME);
+    for (String team : teams) {
+      orgsTeams.put("myorg", team);
+    }
+    return orgsTeams.build();
+  }
+}
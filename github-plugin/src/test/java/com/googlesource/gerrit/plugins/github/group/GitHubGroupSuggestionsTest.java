@@ -0,0 +1,81 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.stream.Collectors.toList;
+
+import com.google.gerrit.entities.GroupReference;
+import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GitHubGroupSuggestionsTest {
+  private static final int NO_LIMIT = Integer.MAX_VALUE;
+
+  private GitHubGroupSuggestions suggestions;
+
+  @Before
+  public void setUp() {
+    suggestions =
+        new GitHubGroupSuggestions(
+            OrganizationStructure.builder()
+                .put("Gerrit", "Maintainers")
+                .put("Gerrit", "developers")
+                .put("GerritForge", "developers")
+                .put("GitHub", "Everyone")
+                .build());
+  }
+
+  @Test
+  public void shouldSuggestOrganisationsByPrefixIgnoringCase() {
+    assertThat(names("ger", NO_LIMIT)).containsExactly("github/Gerrit", "github/GerritForge");
+    assertThat(names("", NO_LIMIT))
+        .containsExactly("github/Gerrit", "github/GerritForge", "github/GitHub")
+        .inOrder();
+  }
+
+  @Test
+  public void shouldSuggestTeamsOfAllMatchingOrganisations() {
+    assertThat(names("ger/dev", NO_LIMIT))
+        .containsExactly("github/Gerrit/developers", "github/GerritForge/developers")
+        .inOrder();
+  }
+
+  @Test
+  public void shouldSuggestAllTeamsOfAnOrganisation() {
+    assertThat(names("gerritforge/", NO_LIMIT)).containsExactly("github/GerritForge/developers");
+    assertThat(names("gerrit/m", NO_LIMIT)).containsExactly("github/Gerrit/Maintainers");
+  }
+
+  @Test
+  public void shouldLimitSuggestions() {
+    assertThat(names("g", 2)).containsExactly("github/Gerrit", "github/GerritForge");
+    assertThat(names("g/", 2))
+        .containsExactly("github/Gerrit/developers", "github/Gerrit/Maintainers");
+  }
+
+  @Test
+  public void shouldSuggestNothingWhenNoOrganisationMatches() {
+    assertThat(names("gitlab", NO_LIMIT)).isEmpty();
+    assertThat(names("gitlab/dev", NO_LIMIT)).isEmpty();
+  }
+
+  private List<String> names(String namePrefix, int limit) {
+    return suggestions.suggest(namePrefix, limit).stream()
+        .map(GroupReference::getName)
+        .collect(toList());
+  }
+}
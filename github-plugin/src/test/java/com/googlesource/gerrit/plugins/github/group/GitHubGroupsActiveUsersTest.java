@@ -0,0 +1,111 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GitHubGroupsActiveUsersTest {
+  private static final long ONE_DAY = TimeUnit.DAYS.toMillis(1);
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toMillis(100));
+  private Path pluginData;
+  private GitHubGroupsActiveUsers activeUsers;
+
+  @Before
+  public void setUp() {
+    pluginData = tempFolder.getRoot().toPath();
+    activeUsers = new GitHubGroupsActiveUsers(pluginData, now::get);
+  }
+
+  @Test
+  public void shouldListMostRecentlySeenUsersFirst() {
+    activeUsers.seen("user1");
+    now.addAndGet(1000);
+    activeUsers.seen("user2");
+    now.addAndGet(1000);
+    activeUsers.seen("user3");
+
+    assertThat(activeUsers.mostRecent(ONE_DAY, 2)).containsExactly("user3", "user2").inOrder();
+  }
+
+  @Test
+  public void shouldSkipUsersNotSeenWithinTheTimeWindow() {
+    activeUsers.seen("user1");
+    now.addAndGet(2 * ONE_DAY);
+    activeUsers.seen("user2");
+
+    assertThat(activeUsers.mostRecent(ONE_DAY, 10)).containsExactly("user2");
+  }
+
+  @Test
+  public void shouldReloadSavedUsers() {
+    activeUsers.seen("user1");
+    now.addAndGet(2 * ONE_DAY);
+    activeUsers.seen("user2");
+    activeUsers.save(ONE_DAY);
+
+    GitHubGroupsActiveUsers reloaded = new GitHubGroupsActiveUsers(pluginData, now::get);
+    reloaded.load();
+
+    assertThat(reloaded.mostRecent(10 * ONE_DAY, 10)).containsExactly("user2");
+  }
+
+  @Test
+  public void shouldTellUsersLoadedWithinTheTimeWindow() {
+    activeUsers.loaded("user1");
+    now.addAndGet(2 * ONE_DAY);
+    activeUsers.loaded("user2");
+
+    assertThat(activeUsers.loadedWithin("user1", ONE_DAY)).isFalse();
+    assertThat(activeUsers.loadedWithin("user2", ONE_DAY)).isTrue();
+    assertThat(activeUsers.loadedWithin("user3", ONE_DAY)).isFalse();
+  }
+
+  @Test
+  public void shouldForgetLoadedUsers() {
+    activeUsers.loaded("user1");
+    activeUsers.loaded("user2");
+
+    activeUsers.forgetLoaded("user1");
+    assertThat(activeUsers.loadedWithin("user1", ONE_DAY)).isFalse();
+    assertThat(activeUsers.loadedWithin("user2", ONE_DAY)).isTrue();
+
+    activeUsers.forgetAllLoaded();
+    assertThat(activeUsers.loadedWithin("user2", ONE_DAY)).isFalse();
+  }
+
+  @Test
+  public void shouldReloadSavedLoadTimesOfActiveUsers() {
+    activeUsers.seen("user1");
+    activeUsers.loaded("user1");
+    activeUsers.loaded("user2");
+    activeUsers.save(ONE_DAY);
+
+    GitHubGroupsActiveUsers reloaded = new GitHubGroupsActiveUsers(pluginData, now::get);
+    reloaded.load();
+
+    assertThat(reloaded.loadedWithin("user1", ONE_DAY)).isTrue();
+    assertThat(reloaded.loadedWithin("user2", ONE_DAY)).isFalse();
+  }
+}
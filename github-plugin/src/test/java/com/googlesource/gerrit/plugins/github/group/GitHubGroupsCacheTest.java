@@ -0,0 +1,185 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache.EVERYONE_TEAM_NAME;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.gerrit.metrics.DisabledMetricMaker;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache.NoGitHubLoginException;
+import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.jgit.lib.Config;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GitHubGroupsCacheTest {
+  private static final String USERNAME = "somegithubuser";
+  private static final String ORGANISATION = "someorg";
+  private static final String SERVICE_USER = "someserviceuser";
+  private static final long NEGATIVE_CACHE_TTL_MINS = 15;
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final AtomicInteger serviceUserLoads = new AtomicInteger();
+  private LoadingCache<String, OrganizationStructure> byUsername;
+  private LocalGroupsCacheBroadcast broadcast;
+  private GitHubGroupsCache groupsCache;
+  private OrganizationStructure cached;
+
+  @Before
+  public void setUp() {
+    byUsername =
+        CacheBuilder.newBuilder()
+            .build(
+                new CacheLoader<String, OrganizationStructure>() {
+                  @Override
+                  public OrganizationStructure load(String username) throws Exception {
+                    if (SERVICE_USER.equals(username)) {
+                      serviceUserLoads.incrementAndGet();
+                      throw new NoGitHubLoginException(username);
+                    }
+                    return new OrganizationStructure();
+                  }
+                });
+    broadcast = new LocalGroupsCacheBroadcast();
+    groupsCache =
+        new GitHubGroupsCache(
+            byUsername,
+            () -> USERNAME,
+            new GitHubGroupMembersIndex(),
+            broadcast,
+            new GitHubGroupsNegativeCache(
+                TimeUnit.MINUTES.toMillis(NEGATIVE_CACHE_TTL_MINS),
+                new Ticker() {
+                  @Override
+                  public long read() {
+                    return nanos.get();
+                  }
+                },
+                new DisabledMetricMaker()),
+            mock(GitHubGroupsActiveUsers.class));
+    groupsCache.start();
+    cached =
+        OrganizationStructure.builder()
+            .put(ORGANISATION, EVERYONE_TEAM_NAME)
+            .put(ORGANISATION, "developers")
+            .build();
+    byUsername.put(USERNAME, cached);
+  }
+
+  @Test
+  public void shouldAddTeamMemberWithoutChangingThePreviousValue() {
+    groupsCache.addTeamMember("otherorg", "admins", USERNAME);
+
+    assertThat(groupsCache.getOrganizationsForUser(USERNAME))
+        .containsExactly(ORGANISATION, "otherorg");
+    assertThat(groupsCache.getTeamsForUser("otherorg", USERNAME))
+        .containsExactly(EVERYONE_TEAM_NAME, "admins");
+    assertThat(cached.keySet()).containsExactly(ORGANISATION);
+  }
+
+  @Test
+  public void shouldRemoveTeamMember() {
+    groupsCache.removeTeamMember(ORGANISATION, "developers", USERNAME);
+
+    assertThat(groupsCache.getTeamsForUser(ORGANISATION, USERNAME))
+        .containsExactly(EVERYONE_TEAM_NAME);
+  }
+
+  @Test
+  public void shouldRemoveOrganisationMember() {
+    groupsCache.removeOrganisationMember(ORGANISATION, USERNAME);
+
+    assertThat(groupsCache.getOrganizationsForUser(USERNAME)).isEmpty();
+  }
+
+  @Test
+  public void shouldIndexMembersOfUpdatedTeams() {
+    groupsCache.addTeamMember(ORGANISATION, "admins", USERNAME);
+
+    assertThat(
+            groupsCache.getMembersOfGroup(
+                GitHubTeamGroup.uuid(GitHubOrganisationGroup.uuid(ORGANISATION), "admins")))
+        .containsExactly(USERNAME);
+  }
+
+  @Test
+  public void shouldNotLoadMembershipsOfUsersNotCached() {
+    groupsCache.addOrganisationMember(ORGANISATION, "otheruser");
+
+    assertThat(byUsername.getIfPresent("otheruser")).isNull();
+  }
+
+  @Test
+  public void shouldApplyUpdatesOfOtherNodes() {
+    LoadingCache<String, OrganizationStructure> otherByUsername =
+        CacheBuilder.newBuilder().build(CacheLoader.from(username -> new OrganizationStructure()));
+    GitHubGroupsCache otherNode =
+        new GitHubGroupsCache(
+            otherByUsername,
+            () -> USERNAME,
+            new GitHubGroupMembersIndex(),
+            broadcast.join(),
+            mock(GitHubGroupsNegativeCache.class),
+            mock(GitHubGroupsActiveUsers.class));
+    otherNode.start();
+
+    groupsCache.addTeamMember(ORGANISATION, "admins", USERNAME);
+    assertThat(otherNode.getTeamsForUser(ORGANISATION, USERNAME))
+        .containsExactly(EVERYONE_TEAM_NAME, "developers", "admins");
+
+    otherNode.invalidateAll();
+    assertThat(byUsername.getIfPresent(USERNAME)).isNull();
+  }
+
+  @Test
+  public void shouldCheckUsersWithoutGitHubLoginOncePerTtl() {
+    assertThat(groupsCache.getGroupsForUser(SERVICE_USER)).isEmpty();
+    assertThat(groupsCache.getGroupsForUser(SERVICE_USER)).isEmpty();
+    assertThat(serviceUserLoads.get()).isEqualTo(1);
+    assertThat(byUsername.getIfPresent(SERVICE_USER)).isNull();
+
+    nanos.addAndGet(TimeUnit.MINUTES.toNanos(NEGATIVE_CACHE_TTL_MINS + 1));
+    groupsCache.getGroupsForUser(SERVICE_USER);
+    assertThat(serviceUserLoads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldCheckUsersWithoutGitHubLoginAgainAfterInvalidation() {
+    groupsCache.getGroupsForUser(SERVICE_USER);
+
+    groupsCache.invalidateAll();
+    groupsCache.getGroupsForUser(SERVICE_USER);
+
+    assertThat(serviceUserLoads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldReadRefreshAfterWriteOfThePluginCache() throws Exception {
+    Config gerritConfig = new Config();
+    assertThat(GitHubGroupsCache.refreshAfterWriteMsec(gerritConfig, "github-plugin"))
+        .isEqualTo(TimeUnit.HOURS.toMillis(1));
+
+    gerritConfig.fromText("[cache \"github-plugin.groups\"]\nrefreshAfterWrite = 1 day\n");
+    assertThat(GitHubGroupsCache.refreshAfterWriteMsec(gerritConfig, "github-plugin"))
+        .isEqualTo(TimeUnit.DAYS.toMillis(1));
+  }
+}
@@ -0,0 +1,167 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.googlesource.gerrit.plugins.github.group;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.gerrit.server.config.AllProjectsName;
+import com.google.gerrit.server.config.SitePaths;
+import com.google.inject.util.Providers;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache.OrganisationLoader;
+import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
+import com.googlesource.gerrit.plugins.github.oauth.UserScopedProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.jgit.lib.Config;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kohsuke.github.GHRateLimit;
+
+public class GitHubGroupsCacheWarmUpTest {
+  private static final long RESET_EPOCH_SECONDS =
+      Instant.now().plus(Duration.ofHours(1)).getEpochSecond();
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toMillis(100));
+  private Path pluginData;
+  private GitHubGroupsActiveUsers activeUsers;
+  private GitHubGroupsRateLimits rateLimits;
+  private GitHubGroupsCache groupsCache;
+  private OrganisationLoader loader;
+  private GitHubGroupsCacheWarmUp warmUp;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() throws Exception {
+    pluginData = tempFolder.newFolder("data").toPath();
+    activeUsers = new GitHubGroupsActiveUsers(pluginData, now::get);
+    activeUsers.seen("user3");
+    now.addAndGet(1000);
+    activeUsers.seen("user2");
+    now.addAndGet(1000);
+    activeUsers.seen("user1");
+    rateLimits = new GitHubGroupsRateLimits();
+    groupsCache = mock(GitHubGroupsCache.class);
+    loader = mock(OrganisationLoader.class);
+    when(loader.load(anyString(), any())).thenReturn(new OrganizationStructure());
+
+    UserScopedProvider<GitHubLogin> ghLoginProvider = mock(UserScopedProvider.class);
+    when(ghLoginProvider.get(anyString())).thenReturn(mock(GitHubLogin.class));
+    GitHubGroupsRefreshExecutor refreshExecutor = mock(GitHubGroupsRefreshExecutor.class);
+    when(refreshExecutor.submit(any()))
+        .thenAnswer(
+            invocation ->
+                Futures.immediateFuture(((Callable<?>) invocation.getArgument(0)).call()));
+
+    Config gerritConfig = new Config();
+    gerritConfig.fromText(
+        "[auth]\n"
+            + "httpHeader = GITHUB\n"
+            + "type = HTTP\n"
+            + "[gerrit]\n"
+            + "basePath = /tmp\n"
+            + "[github-key \"default\"]\n"
+            + "current = true\n"
+            + "passwordDevice = /dev/zero\n"
+            + "[github]\n"
+            + "clientId = myclientid\n"
+            + "clientSecret = mysecret\n"
+            + "groupsRefreshThreads = 1\n");
+    GitHubConfig config =
+        new GitHubConfig(
+            gerritConfig,
+            new SitePaths(tempFolder.getRoot().toPath()),
+            Providers.of(new AllProjectsName("All-Projects")));
+    warmUp =
+        new GitHubGroupsCacheWarmUp(
+            activeUsers,
+            groupsCache,
+            loader,
+            rateLimits,
+            ghLoginProvider,
+            refreshExecutor,
+            config,
+            gerritConfig,
+            "github-plugin");
+  }
+
+  @Test
+  public void shouldLoadTheMostRecentlyActiveUsers() throws Exception {
+    warmUp.warmUp();
+
+    verify(groupsCache).put(eq("user1"), any());
+    verify(groupsCache).put(eq("user2"), any());
+    verify(groupsCache).put(eq("user3"), any());
+  }
+
+  @Test
+  public void shouldStopWhenTheRateLimitReturnedWithAUserIsLow() throws Exception {
+    when(loader.load(eq("user2"), any()))
+        .thenAnswer(
+            invocation -> {
+              rateLimits.update("user2", new GHRateLimit.Record(5000, 499, RESET_EPOCH_SECONDS));
+              return new OrganizationStructure();
+            });
+
+    warmUp.warmUp();
+
+    verify(groupsCache).put(eq("user1"), any());
+    verify(groupsCache).put(eq("user2"), any());
+    verify(groupsCache, never()).put(eq("user3"), any());
+  }
+
+  @Test
+  public void shouldNotLoadUsersWhoseRateLimitIsAlreadyLow() throws Exception {
+    rateLimits.update("user1", new GHRateLimit.Record(5000, 0, RESET_EPOCH_SECONDS));
+
+    warmUp.warmUp();
+
+    verify(loader, never()).load(anyString(), any());
+  }
+
+  @Test
+  public void shouldIgnoreLowRateLimitOnceReset() throws Exception {
+    rateLimits.update("user1", new GHRateLimit.Record(5000, 0, 0));
+
+    warmUp.warmUp();
+
+    verify(groupsCache).put(eq("user3"), any());
+  }
+
+  @Test
+  public void shouldSaveActiveUsersAfterWarmUp() {
+    warmUp.warmUp();
+
+    assertThat(Files.exists(pluginData.resolve("groups-active-users"))).isTrue();
+  }
+}
@@ -0,0 +1,162 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.gerrit.entities.AccountGroup;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache.NoGitHubLoginException;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache.OrganisationLoader;
+import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
+import com.googlesource.gerrit.plugins.github.oauth.UserScopedProvider;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.kohsuke.github.GHRateLimit;
+import org.kohsuke.github.GHTeam;
+import org.kohsuke.github.GitHub;
+
+public class OrganisationLoaderTest {
+  private static final String USERNAME = "somegithubuser";
+  private static final long REFRESH_MINS = 60;
+
+  private final AtomicLong nanos = new AtomicLong();
+  private SettableFuture<OrganizationStructure> reload;
+  private Callable<OrganizationStructure> reloadCall;
+  private LoadingCache<String, OrganizationStructure> cache;
+  private GitHub gitHub;
+  private GitHubGroupMembersIndex membersIndex;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() throws Exception {
+    UserScopedProvider<GitHubLogin> ghLoginProvider = mock(UserScopedProvider.class);
+    GitHubLogin ghLogin = mock(GitHubLogin.class);
+    gitHub = mock(GitHub.class);
+    when(ghLoginProvider.get(USERNAME)).thenReturn(ghLogin);
+    when(ghLogin.getHub()).thenReturn(gitHub);
+    when(gitHub.getMyTeams()).thenReturn(Collections.emptyMap());
+    GHRateLimit rateLimit = mock(GHRateLimit.class);
+    when(rateLimit.getCore()).thenReturn(new GHRateLimit.Record(5000, 5000, 0));
+    when(gitHub.lastRateLimit()).thenReturn(rateLimit);
+    GitHubGroupsRefreshExecutor refreshExecutor = mock(GitHubGroupsRefreshExecutor.class);
+    reload = SettableFuture.create();
+    when(refreshExecutor.<OrganizationStructure>submit(any()))
+        .thenAnswer(
+            invocation -> {
+              reloadCall = invocation.getArgument(0);
+              return reload;
+            });
+
+    membersIndex = new GitHubGroupMembersIndex();
+    cache =
+        CacheBuilder.newBuilder()
+            .ticker(
+                new Ticker() {
+                  @Override
+                  public long read() {
+                    return nanos.get();
+                  }
+                })
+            .refreshAfterWrite(REFRESH_MINS, TimeUnit.MINUTES)
+            .build(
+                new OrganisationLoader(
+                    ghLoginProvider,
+                    refreshExecutor,
+                    mock(GitHubGraphQlTeamsLoader.class),
+                    new GitHubGroupsRateLimits(),
+                    new LocalGroupsCacheBroadcast(),
+                    mock(GitHubGroupsActiveUsers.class),
+                    membersIndex,
+                    mock(GitHubConfig.class)));
+  }
+
+  @Test
+  public void shouldServeCachedValueWhilstReloading() throws Exception {
+    OrganizationStructure cached = cache.get(USERNAME);
+    nanos.addAndGet(TimeUnit.MINUTES.toNanos(REFRESH_MINS + 1));
+
+    assertThat(cache.get(USERNAME)).isSameInstanceAs(cached);
+
+    OrganizationStructure reloaded = new OrganizationStructure();
+    reload.set(reloaded);
+    assertThat(cache.get(USERNAME)).isSameInstanceAs(reloaded);
+  }
+
+  @Test
+  public void shouldNotCacheUsersWithoutGitHubLogin() {
+    ExecutionException e =
+        assertThrows(ExecutionException.class, () -> cache.get("someserviceuser"));
+
+    assertThat(e).hasCauseThat().isInstanceOf(NoGitHubLoginException.class);
+    assertThat(cache.getIfPresent("someserviceuser")).isNull();
+  }
+
+  @Test
+  public void shouldKeepCachedValueWhenReloadFails() throws Exception {
+    OrganizationStructure cached = cache.get(USERNAME);
+    nanos.addAndGet(TimeUnit.MINUTES.toNanos(REFRESH_MINS + 1));
+
+    cache.get(USERNAME);
+    reload.setException(new IOException("GitHub is unreachable"));
+
+    assertThat(cache.get(USERNAME)).isSameInstanceAs(cached);
+  }
+
+  @Test
+  public void shouldDropCachedValueWhenGitHubLoginIsGone() throws Exception {
+    OrganizationStructure.Builder orgsTeams = OrganizationStructure.builder();
+    orgsTeams.put("myorg", GitHubGroupsCache.EVERYONE_TEAM_NAME);
+    cache.put("formeruser", orgsTeams.build());
+    nanos.addAndGet(TimeUnit.MINUTES.toNanos(REFRESH_MINS + 1));
+
+    cache.get("formeruser");
+    reload.set(reloadCall.call());
+
+    assertThat(cache.get("formeruser").keySet()).isEmpty();
+  }
+
+  @Test
+  public void shouldIndexLoadedMembershipsOnly() throws Exception {
+    GHTeam developers = mock(GHTeam.class);
+    when(developers.getName()).thenReturn("developers");
+    when(gitHub.getMyTeams()).thenReturn(Map.of("myorg", Set.of(developers)));
+
+    cache.get(USERNAME);
+    AccountGroup.UUID developersUUID =
+        GitHubTeamGroup.uuid(GitHubOrganisationGroup.uuid("myorg"), "developers");
+    assertThat(membersIndex.getMembers(developersUUID)).containsExactly(USERNAME);
+
+    membersIndex.remove(USERNAME);
+    cache.get(USERNAME);
+    assertThat(membersIndex.getMembers(developersUUID)).isEmpty();
+  }
+}
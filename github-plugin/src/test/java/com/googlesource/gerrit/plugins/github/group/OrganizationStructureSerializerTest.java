@@ -0,0 +1,79 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.group;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.googlesource.gerrit.plugins.github.groups.OrganizationStructure;
+import org.junit.Test;
+
+public class OrganizationStructureSerializerTest {
+  private static final OrganizationStructureSerializer SERIALIZER =
+      OrganizationStructureSerializer.INSTANCE;
+
+  @Test
+  public void shouldRoundTripOrganisationsAndTeams() {
+    OrganizationStructure orgsTeams =
+        OrganizationStructure.builder()
+            .put("someorg", "Everyone")
+            .put("someorg", "developers")
+            .put("otherorg", "Everyone")
+            .put("emptyorg")
+            .build();
+
+    OrganizationStructure deserialized = SERIALIZER.deserialize(SERIALIZER.serialize(orgsTeams));
+
+    assertThat(deserialized.keySet()).containsExactly("someorg", "otherorg", "emptyorg").inOrder();
+    assertThat(deserialized.get("someorg")).containsExactly("Everyone", "developers").inOrder();
+    assertThat(deserialized.get("otherorg")).containsExactly("Everyone");
+    assertThat(deserialized.get("emptyorg")).isEmpty();
+  }
+
+  @Test
+  public void shouldRoundTripParentTeams() {
+    OrganizationStructure orgsTeams =
+        OrganizationStructure.builder()
+            .put("someorg", "maintainers")
+            .putParentTeam("someorg", "maintainers", "developers")
+            .build();
+
+    OrganizationStructure deserialized = SERIALIZER.deserialize(SERIALIZER.serialize(orgsTeams));
+
+    assertThat(deserialized.getDirectTeams("someorg")).containsExactly("maintainers");
+    assertThat(deserialized.get("someorg")).containsExactly("maintainers", "developers").inOrder();
+    assertThat(deserialized.getParentTeams("someorg")).containsExactly("maintainers", "developers");
+  }
+
+  @Test
+  public void shouldRoundTripEmptyStructure() {
+    assertThat(SERIALIZER.deserialize(SERIALIZER.serialize(new OrganizationStructure())).keySet())
+        .isEmpty();
+  }
+
+  @Test
+  public void shouldShareNamesAmongstDeserializedStructures() {
+    byte[] serialized =
+        SERIALIZER.serialize(OrganizationStructure.builder().put("someorg", "Everyone").build());
+
+    assertThat(SERIALIZER.deserialize(serialized).keySet().iterator().next())
+        .isSameInstanceAs(SERIALIZER.deserialize(serialized).keySet().iterator().next());
+  }
+
+  @Test
+  public void shouldRejectUnknownFormatVersion() {
+    assertThrows(
+        IllegalArgumentException.class, () -> SERIALIZER.deserialize(new byte[] {(byte) 3}));
+  }
+}
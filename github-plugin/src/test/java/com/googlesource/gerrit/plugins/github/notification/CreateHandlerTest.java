@@ -0,0 +1,97 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.git.RepositoryRefsSync;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
+import com.googlesource.gerrit.plugins.github.oauth.UserScopedProvider;
+import java.io.StringReader;
+import org.junit.Before;
+import org.junit.Test;
+import org.kohsuke.github.GHEventPayload.Create;
+import org.kohsuke.github.GitHub;
+
+public class CreateHandlerTest {
+  private RepositoryRefsSync refsSync;
+  private GitHubLogin login;
+  private CreateHandler handler;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    refsSync = mock(RepositoryRefsSync.class);
+    login = mock(GitHubLogin.class);
+    UserScopedProvider<GitHubLogin> loginProvider = mock(UserScopedProvider.class);
+    when(loginProvider.get(any())).thenReturn(login);
+    handler = new CreateHandler(refsSync, loginProvider, mock(GitHubConfig.class));
+  }
+
+  @Test
+  public void refNameOfBranch() {
+    assertThat(CreateHandler.refName("branch", "feature/x")).hasValue("refs/heads/feature/x");
+  }
+
+  @Test
+  public void refNameOfTag() {
+    assertThat(CreateHandler.refName("tag", "v1.0")).hasValue("refs/tags/v1.0");
+  }
+
+  @Test
+  public void refNameOfRepository() {
+    assertThat(CreateHandler.refName("repository", null)).isEmpty();
+  }
+
+  @Test
+  public void createdBranchIsFetched() throws Exception {
+    when(refsSync.update(any(), any(), any(), any(), anyBoolean(), any())).thenReturn(true);
+
+    assertThat(handler.doAction(create("branch", "feature"))).isTrue();
+
+    verify(refsSync).update("myorg", "myrepo", "refs/heads/feature", null, false, login);
+  }
+
+  @Test
+  public void createdTagIsFetched() throws Exception {
+    handler.doAction(create("tag", "v1.0"));
+
+    verify(refsSync).update("myorg", "myrepo", "refs/tags/v1.0", null, false, login);
+  }
+
+  @Test
+  public void createdRepositoryIsSkipped() throws Exception {
+    assertThat(handler.doAction(create("repository", "myrepo"))).isFalse();
+
+    verifyNoInteractions(refsSync);
+  }
+
+  private static Create create(String refType, String ref) throws Exception {
+    String json =
+        "{\"ref\":\""
+            + ref
+            + "\",\"ref_type\":\""
+            + refType
+            + "\",\"repository\":{\"name\":\"myrepo\",\"full_name\":\"myorg/myrepo\","
+            + "\"owner\":{\"login\":\"myorg\"}}}";
+    return GitHub.offline().parseEventPayload(new StringReader(json), Create.class);
+  }
+}
@@ -0,0 +1,72 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.googlesource.gerrit.plugins.github.git.RepositoryRefsSync;
+import java.io.StringReader;
+import org.junit.Before;
+import org.junit.Test;
+import org.kohsuke.github.GHEventPayload.Delete;
+import org.kohsuke.github.GitHub;
+
+public class DeleteHandlerTest {
+  private RepositoryRefsSync refsSync;
+  private DeleteHandler handler;
+
+  @Before
+  public void setUp() {
+    refsSync = mock(RepositoryRefsSync.class);
+    handler = new DeleteHandler(refsSync);
+  }
+
+  @Test
+  public void deletedBranchIsDeleted() throws Exception {
+    when(refsSync.delete(any(), any(), any())).thenReturn(true);
+
+    assertThat(handler.doAction(delete("branch", "feature"))).isTrue();
+
+    verify(refsSync).delete("myorg", "myrepo", "refs/heads/feature");
+  }
+
+  @Test
+  public void deletedTagIsDeleted() throws Exception {
+    handler.doAction(delete("tag", "v1.0"));
+
+    verify(refsSync).delete("myorg", "myrepo", "refs/tags/v1.0");
+  }
+
+  @Test
+  public void refusedDeletionIsReported() throws Exception {
+    when(refsSync.delete(any(), any(), any())).thenReturn(false);
+
+    assertThat(handler.doAction(delete("branch", "main"))).isFalse();
+  }
+
+  private static Delete delete(String refType, String ref) throws Exception {
+    String json =
+        "{\"ref\":\""
+            + ref
+            + "\",\"ref_type\":\""
+            + refType
+            + "\",\"repository\":{\"name\":\"myrepo\",\"full_name\":\"myorg/myrepo\","
+            + "\"owner\":{\"login\":\"myorg\"}}}";
+    return GitHub.offline().parseEventPayload(new StringReader(json), Delete.class);
+  }
+}
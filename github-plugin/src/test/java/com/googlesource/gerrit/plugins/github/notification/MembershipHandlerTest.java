@@ -0,0 +1,95 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.gson.Gson;
+import com.googlesource.gerrit.plugins.github.git.GitHubAccountResolver;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache;
+import com.googlesource.gerrit.plugins.github.notification.MembershipHandler.Membership;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MembershipHandlerTest {
+  private GitHubGroupsCache groupsCache;
+  private GitHubAccountResolver accountResolver;
+  private MembershipHandler handler;
+
+  @Before
+  public void setUp() throws Exception {
+    groupsCache = mock(GitHubGroupsCache.class);
+    accountResolver = mock(GitHubAccountResolver.class);
+    when(accountResolver.findUsername("gh-john")).thenReturn(Optional.of("john"));
+    when(accountResolver.findUsername("gh-unknown")).thenReturn(Optional.empty());
+    handler = new MembershipHandler(groupsCache, accountResolver);
+  }
+
+  @Test
+  public void addedTeamMemberIsAddedByGerritUsername() throws Exception {
+    assertThat(handler.doAction(membership("added", "team", "gh-john"))).isTrue();
+
+    verify(groupsCache).addTeamMember("myorg", "myteam", "john");
+  }
+
+  @Test
+  public void removedTeamMemberIsRemovedByGerritUsername() throws Exception {
+    assertThat(handler.doAction(membership("removed", "team", "gh-john"))).isTrue();
+
+    verify(groupsCache).removeTeamMember("myorg", "myteam", "john");
+  }
+
+  @Test
+  public void memberWithoutGerritAccountIsIgnored() throws Exception {
+    assertThat(handler.doAction(membership("added", "team", "gh-unknown"))).isFalse();
+
+    verify(groupsCache, never()).addTeamMember(any(), any(), any());
+  }
+
+  @Test
+  public void eventWithoutActionIsIgnored() throws Exception {
+    assertThat(handler.doAction(membership(null, "team", "gh-john"))).isFalse();
+  }
+
+  @Test
+  public void eventWithoutOrganizationIsIgnored() throws Exception {
+    Membership payload = membership("added", "team", "gh-john");
+    payload.organization = null;
+
+    assertThat(handler.doAction(payload)).isFalse();
+  }
+
+  @Test
+  public void organizationScopeIsIgnored() throws Exception {
+    assertThat(handler.doAction(membership("added", "organization", "gh-john"))).isFalse();
+  }
+
+  private static Membership membership(String action, String scope, String login) {
+    String json =
+        "{"
+            + (action == null ? "" : "\"action\":\"" + action + "\",")
+            + "\"scope\":\""
+            + scope
+            + "\",\"member\":{\"login\":\""
+            + login
+            + "\"},\"team\":{\"name\":\"myteam\"},\"organization\":{\"login\":\"myorg\"}}";
+    return new Gson().fromJson(json, Membership.class);
+  }
+}
@@ -0,0 +1,96 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.gson.Gson;
+import com.googlesource.gerrit.plugins.github.git.GitHubAccountResolver;
+import com.googlesource.gerrit.plugins.github.group.GitHubGroupsCache;
+import com.googlesource.gerrit.plugins.github.notification.OrganizationHandler.Organization;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OrganizationHandlerTest {
+  private GitHubGroupsCache groupsCache;
+  private GitHubAccountResolver accountResolver;
+  private OrganizationHandler handler;
+
+  @Before
+  public void setUp() throws Exception {
+    groupsCache = mock(GitHubGroupsCache.class);
+    accountResolver = mock(GitHubAccountResolver.class);
+    when(accountResolver.findUsername("gh-john")).thenReturn(Optional.of("john"));
+    when(accountResolver.findUsername("gh-unknown")).thenReturn(Optional.empty());
+    handler = new OrganizationHandler(groupsCache, accountResolver);
+  }
+
+  @Test
+  public void addedMemberIsAddedByGerritUsername() throws Exception {
+    assertThat(handler.doAction(organization("member_added", "gh-john"))).isTrue();
+
+    verify(groupsCache).addOrganisationMember("myorg", "john");
+  }
+
+  @Test
+  public void removedMemberIsRemovedByGerritUsername() throws Exception {
+    assertThat(handler.doAction(organization("member_removed", "gh-john"))).isTrue();
+
+    verify(groupsCache).removeOrganisationMember("myorg", "john");
+  }
+
+  @Test
+  public void memberWithoutGerritAccountIsIgnored() throws Exception {
+    assertThat(handler.doAction(organization("member_removed", "gh-unknown"))).isFalse();
+
+    verify(groupsCache, never()).removeOrganisationMember(any(), any());
+  }
+
+  @Test
+  public void eventWithoutOrganizationIsIgnored() throws Exception {
+    Organization payload = organization("member_added", "gh-john");
+    payload.organization = null;
+
+    assertThat(handler.doAction(payload)).isFalse();
+  }
+
+  @Test
+  public void renamedOrganizationDropsAllMemberships() throws Exception {
+    assertThat(handler.doAction(organization("renamed", null))).isTrue();
+
+    verify(groupsCache).invalidateAll();
+  }
+
+  @Test
+  public void eventWithoutActionIsIgnored() throws Exception {
+    assertThat(handler.doAction(organization(null, "gh-john"))).isFalse();
+
+    verify(groupsCache, never()).invalidateAll();
+  }
+
+  private static Organization organization(String action, String login) {
+    String json =
+        "{"
+            + (action == null ? "" : "\"action\":\"" + action + "\",")
+            + (login == null ? "" : "\"membership\":{\"user\":{\"login\":\"" + login + "\"}},")
+            + "\"organization\":{\"login\":\"myorg\"}}";
+    return new Gson().fromJson(json, Organization.class);
+  }
+}
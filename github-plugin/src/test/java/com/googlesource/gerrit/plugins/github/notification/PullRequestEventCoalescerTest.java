@@ -0,0 +1,117 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.base.Ticker;
+import com.googlesource.gerrit.plugins.github.git.GitJob;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class PullRequestEventCoalescerTest {
+  private static final String REPOSITORY = "myorg/myrepo";
+
+  @Test
+  public void newerHeadSupersedesPendingOne() throws Exception {
+    PullRequestEventCoalescer coalescer = new PullRequestEventCoalescer(60000);
+    PullRequestEventCoalescer.Ticket first = coalescer.register(REPOSITORY, 1, "sha1");
+    PullRequestEventCoalescer.Ticket second = coalescer.register(REPOSITORY, 1, "sha2");
+
+    assertThat(first.isSuperseded()).isTrue();
+    assertThat(second.isSuperseded()).isFalse();
+    assertThat(coalescer.start(first, mock(GitJob.class))).isFalse();
+  }
+
+  @Test
+  public void importOfLatestHeadIsDebouncedFromItsRegistration() {
+    AtomicLong nanos = new AtomicLong();
+    PullRequestEventCoalescer coalescer =
+        new PullRequestEventCoalescer(
+            1000,
+            new Ticker() {
+              @Override
+              public long read() {
+                return nanos.get();
+              }
+            });
+    coalescer.register(REPOSITORY, 1, "sha1");
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+
+    assertThat(coalescer.remainingDebounceMsec(REPOSITORY, 1, "sha1")).isEqualTo(600);
+    assertThat(coalescer.remainingDebounceMsec(REPOSITORY, 1, "sha0")).isEqualTo(0);
+
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+    assertThat(coalescer.remainingDebounceMsec(REPOSITORY, 1, "sha1")).isEqualTo(0);
+  }
+
+  @Test
+  public void supersededHeadCannotBeClaimed() {
+    PullRequestEventCoalescer coalescer = new PullRequestEventCoalescer(0);
+    coalescer.register(REPOSITORY, 1, "sha1");
+    coalescer.register(REPOSITORY, 1, "sha2");
+
+    assertThat(coalescer.claim(REPOSITORY, 1, "sha1")).isEmpty();
+    assertThat(coalescer.claim(REPOSITORY, 1, "sha2")).isPresent();
+  }
+
+  @Test
+  public void unregisteredHeadIsClaimed() {
+    PullRequestEventCoalescer coalescer = new PullRequestEventCoalescer(0);
+
+    assertThat(coalescer.claim(REPOSITORY, 1, "sha1")).isPresent();
+  }
+
+  @Test
+  public void newerHeadCancelsRunningImport() {
+    PullRequestEventCoalescer coalescer = new PullRequestEventCoalescer(0);
+    GitJob job = mock(GitJob.class);
+    PullRequestEventCoalescer.Ticket first = coalescer.claim(REPOSITORY, 1, "sha1").get();
+    assertThat(coalescer.start(first, job)).isTrue();
+
+    coalescer.register(REPOSITORY, 1, "sha2");
+
+    verify(job).cancel();
+  }
+
+  @Test
+  public void sameHeadIsImportedOnce() {
+    PullRequestEventCoalescer coalescer = new PullRequestEventCoalescer(0);
+    GitJob job = mock(GitJob.class);
+    coalescer.register(REPOSITORY, 1, "sha1");
+    coalescer.register(REPOSITORY, 1, "sha1");
+    PullRequestEventCoalescer.Ticket ticket = coalescer.claim(REPOSITORY, 1, "sha1").get();
+    coalescer.start(ticket, job);
+
+    assertThat(coalescer.claim(REPOSITORY, 1, "sha1")).isEmpty();
+    verify(job, never()).cancel();
+
+    coalescer.finish(ticket);
+    assertThat(coalescer.claim(REPOSITORY, 1, "sha1")).isPresent();
+  }
+
+  @Test
+  public void pullRequestsAreCoalescedSeparately() {
+    PullRequestEventCoalescer coalescer = new PullRequestEventCoalescer(0);
+    PullRequestEventCoalescer.Ticket first = coalescer.register(REPOSITORY, 1, "sha1");
+    coalescer.register(REPOSITORY, 2, "sha2");
+    coalescer.register("myorg/other", 1, "sha3");
+
+    assertThat(first.isSuperseded()).isFalse();
+  }
+}
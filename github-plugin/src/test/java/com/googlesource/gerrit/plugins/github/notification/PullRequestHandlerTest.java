@@ -0,0 +1,205 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.gerrit.entities.Project;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.git.GitJobStatus;
+import com.googlesource.gerrit.plugins.github.git.PullRequestChangesCache;
+import com.googlesource.gerrit.plugins.github.git.PullRequestImportJob;
+import com.googlesource.gerrit.plugins.github.git.PullRequestLifecycle;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
+import com.googlesource.gerrit.plugins.github.oauth.UserScopedProvider;
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.Before;
+import org.junit.Test;
+import org.kohsuke.github.GHEventPayload.PullRequest;
+import org.kohsuke.github.GitHub;
+
+public class PullRequestHandlerTest {
+  private static final Project.NameKey PROJECT = Project.nameKey("myorg/myrepo");
+  private static final String HTML_URL = "https://github.com/myorg/myrepo/pull/42";
+  private static final String HEAD_SHA = "2222222222222222222222222222222222222222";
+
+  private PullRequestImportJob.Factory importJobFactory;
+  private PullRequestChangesCache changesCache;
+  private PullRequestLifecycle lifecycle;
+  private UserScopedProvider<GitHubLogin> loginProvider;
+  private PullRequestHandler handler;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    importJobFactory = mock(PullRequestImportJob.Factory.class);
+    changesCache = mock(PullRequestChangesCache.class);
+    lifecycle = mock(PullRequestLifecycle.class);
+    loginProvider = mock(UserScopedProvider.class);
+    when(loginProvider.get(any())).thenReturn(mock(GitHubLogin.class));
+    handler = newHandler(new PullRequestEventCoalescer(0));
+  }
+
+  @Test
+  public void closedPullRequestIsAbandoned() throws Exception {
+    assertThat(handler.doAction(pullRequest("closed", false))).isTrue();
+
+    verify(lifecycle).abandon(PROJECT, 42, "Pull request closed on GitHub: " + HTML_URL);
+  }
+
+  @Test
+  public void mergedPullRequestIsAbandoned() throws Exception {
+    assertThat(handler.doAction(pullRequest("closed", true))).isTrue();
+
+    verify(lifecycle).abandon(PROJECT, 42, "Pull request merged on GitHub: " + HTML_URL);
+  }
+
+  @Test
+  public void reopenedPullRequestIsRestored() throws Exception {
+    assertThat(handler.doAction(pullRequest("reopened", false))).isTrue();
+
+    verify(lifecycle).restore(PROJECT, 42, "Pull request reopened on GitHub: " + HTML_URL);
+  }
+
+  @Test
+  public void editedPullRequestIsAddedAsMessage() throws Exception {
+    assertThat(handler.doAction(pullRequest("edited", false))).isTrue();
+
+    verify(lifecycle)
+        .addMessage(
+            PROJECT,
+            42,
+            "GitHub Pull Request edited: " + HTML_URL + "\n\nNew title\n\nNew description");
+  }
+
+  @Test
+  public void draftPullRequestIsSetWorkInProgress() throws Exception {
+    assertThat(handler.doAction(pullRequest("converted_to_draft", false))).isTrue();
+
+    verify(lifecycle).setWorkInProgress(PROJECT, 42, true);
+  }
+
+  @Test
+  public void pullRequestReadyForReviewIsSetReady() throws Exception {
+    assertThat(handler.doAction(pullRequest("ready_for_review", false))).isTrue();
+
+    verify(lifecycle).setWorkInProgress(PROJECT, 42, false);
+  }
+
+  @Test
+  public void otherActionsAreSkipped() throws Exception {
+    assertThat(handler.doAction(pullRequest("labeled", false))).isFalse();
+    assertThat(handler.doAction(pullRequest(null, false))).isFalse();
+
+    verifyNoInteractions(lifecycle, importJobFactory);
+  }
+
+  @Test
+  public void pullRequestImportedAtSameHeadIsSkipped() throws Exception {
+    when(changesCache.isImported("myorg", "myrepo", 42, HEAD_SHA)).thenReturn(true);
+
+    assertThat(handler.doAction(pullRequest("synchronize", false))).isTrue();
+
+    verifyNoInteractions(importJobFactory);
+  }
+
+  @Test
+  public void ticketOfPullRequestImportedAtSameHeadIsFinished() throws Exception {
+    handler = newHandler(new PullRequestEventCoalescer(60000));
+    PullRequest payload = pullRequest("synchronize", false);
+    handler.onAccepted(payload);
+    assertThat(handler.deferMsec(payload)).isGreaterThan(0L);
+    when(changesCache.isImported("myorg", "myrepo", 42, HEAD_SHA)).thenReturn(true);
+
+    assertThat(handler.doAction(payload)).isTrue();
+
+    assertThat(handler.deferMsec(payload)).isEqualTo(0L);
+    verifyNoInteractions(importJobFactory);
+  }
+
+  @Test
+  public void onlyImportsAreDeferred() throws Exception {
+    handler = newHandler(new PullRequestEventCoalescer(60000));
+    PullRequest payload = pullRequest("edited", false);
+    handler.onAccepted(payload);
+
+    assertThat(handler.deferMsec(payload)).isEqualTo(0L);
+  }
+
+  @Test
+  public void openedPullRequestIsImported() throws Exception {
+    PullRequestImportJob job = importJob(GitJobStatus.Code.COMPLETE);
+    PullRequest payload = pullRequest("opened", false);
+    handler.onAccepted(payload);
+
+    assertThat(handler.doAction(payload)).isTrue();
+
+    verify(job).run();
+  }
+
+  @Test
+  public void failedImportIsReported() throws Exception {
+    importJob(GitJobStatus.Code.FAILED);
+    PullRequest payload = pullRequest("opened", false);
+    handler.onAccepted(payload);
+
+    assertThrows(IOException.class, () -> handler.doAction(payload));
+  }
+
+  private PullRequestHandler newHandler(PullRequestEventCoalescer coalescer) {
+    return new PullRequestHandler(
+        importJobFactory,
+        changesCache,
+        loginProvider,
+        mock(GitHubConfig.class),
+        coalescer,
+        lifecycle);
+  }
+
+  private PullRequestImportJob importJob(GitJobStatus.Code code) {
+    PullRequestImportJob job = mock(PullRequestImportJob.class);
+    GitJobStatus status = new GitJobStatus(0);
+    status.update(code);
+    when(job.getStatus()).thenReturn(status);
+    when(importJobFactory.create(anyInt(), anyString(), anyString(), anyInt(), any(), any()))
+        .thenReturn(job);
+    return job;
+  }
+
+  private static PullRequest pullRequest(String action, boolean merged) throws Exception {
+    String json =
+        "{"
+            + (action == null ? "" : "\"action\":\"" + action + "\",")
+            + "\"number\":42,"
+            + "\"pull_request\":{\"number\":42,\"html_url\":\""
+            + HTML_URL
+            + "\",\"title\":\"New title\",\"body\":\"New description\",\"merged\":"
+            + merged
+            + ",\"mergeable_state\":\"clean\",\"head\":{\"sha\":\""
+            + HEAD_SHA
+            + "\"}},"
+            + "\"repository\":{\"name\":\"myrepo\",\"full_name\":\"myorg/myrepo\","
+            + "\"owner\":{\"login\":\"myorg\"}}}";
+    return GitHub.offline().parseEventPayload(new StringReader(json), PullRequest.class);
+  }
+}
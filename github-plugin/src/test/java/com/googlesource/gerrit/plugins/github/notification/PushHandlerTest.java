@@ -0,0 +1,101 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.git.RepositoryRefsSync;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
+import com.googlesource.gerrit.plugins.github.oauth.UserScopedProvider;
+import java.io.StringReader;
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.kohsuke.github.GHEventPayload.Push;
+import org.kohsuke.github.GitHub;
+
+public class PushHandlerTest {
+  private static final String BEFORE = "1111111111111111111111111111111111111111";
+  private static final String AFTER = "2222222222222222222222222222222222222222";
+
+  private RepositoryRefsSync refsSync;
+  private GitHubLogin login;
+  private PushHandler handler;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    refsSync = mock(RepositoryRefsSync.class);
+    login = mock(GitHubLogin.class);
+    UserScopedProvider<GitHubLogin> loginProvider = mock(UserScopedProvider.class);
+    when(loginProvider.get(any())).thenReturn(login);
+    handler = new PushHandler(refsSync, loginProvider, mock(GitHubConfig.class));
+  }
+
+  @Test
+  public void pushedBranchIsFastForwarded() throws Exception {
+    when(refsSync.update(any(), any(), any(), any(), anyBoolean(), any())).thenReturn(true);
+
+    assertThat(handler.doAction(push("refs/heads/main", AFTER, false, false))).isTrue();
+
+    verify(refsSync)
+        .update("myorg", "myrepo", "refs/heads/main", ObjectId.fromString(AFTER), false, login);
+  }
+
+  @Test
+  public void forcePushedBranchIsForced() throws Exception {
+    handler.doAction(push("refs/heads/main", AFTER, true, false));
+
+    verify(refsSync)
+        .update("myorg", "myrepo", "refs/heads/main", ObjectId.fromString(AFTER), true, login);
+  }
+
+  @Test
+  public void branchDeletedByPushIsDeleted() throws Exception {
+    when(refsSync.delete(any(), any(), any())).thenReturn(true);
+
+    assertThat(handler.doAction(push("refs/heads/main", ObjectId.zeroId().name(), false, true)))
+        .isTrue();
+
+    verify(refsSync).delete("myorg", "myrepo", "refs/heads/main");
+    verify(refsSync, never())
+        .update(anyString(), anyString(), anyString(), any(), anyBoolean(), any());
+  }
+
+  private static Push push(String ref, String after, boolean forced, boolean deleted)
+      throws Exception {
+    String json =
+        "{\"ref\":\""
+            + ref
+            + "\",\"before\":\""
+            + BEFORE
+            + "\",\"after\":\""
+            + after
+            + "\",\"forced\":"
+            + forced
+            + ",\"deleted\":"
+            + deleted
+            + ",\"repository\":{\"name\":\"myrepo\",\"full_name\":\"myorg/myrepo\","
+            + "\"owner\":{\"login\":\"myorg\"}}}";
+    return GitHub.offline().parseEventPayload(new StringReader(json), Push.class);
+  }
+}
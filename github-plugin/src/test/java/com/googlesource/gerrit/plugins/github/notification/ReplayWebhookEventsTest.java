@@ -0,0 +1,117 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.gerrit.extensions.restapi.AuthException;
+import com.google.gerrit.extensions.restapi.BadRequestException;
+import com.google.gerrit.extensions.restapi.ResourceConflictException;
+import com.google.gerrit.server.permissions.GlobalPermission;
+import com.google.gerrit.server.permissions.PermissionBackend;
+import com.googlesource.gerrit.plugins.github.notification.WebhookJournal.Event;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReplayWebhookEventsTest {
+  private WebhookJournal journal;
+  private WebhookEventReplayer replayer;
+  private PermissionBackend.WithUser currentUser;
+  private ReplayWebhookEvents replay;
+
+  @Before
+  public void setUp() {
+    journal = mock(WebhookJournal.class);
+    replayer = new WebhookEventReplayer();
+    PermissionBackend permissionBackend = mock(PermissionBackend.class);
+    currentUser = mock(PermissionBackend.WithUser.class);
+    when(permissionBackend.currentUser()).thenReturn(currentUser);
+    replay = new ReplayWebhookEvents(journal, replayer, permissionBackend);
+  }
+
+  @Test
+  public void eventIsReplayedByDeliveryId() throws Exception {
+    Event event = event(42);
+    when(journal.getByDeliveryId("delivery-1")).thenReturn(Optional.of(event));
+    WebhookEventProcessor processor = mock(WebhookEventProcessor.class);
+    when(processor.replay(List.of(event))).thenReturn(1);
+    replayer.attach(processor);
+
+    ReplayWebhookEvents.Result result = replay.apply(null, input(null, "delivery-1")).value();
+
+    assertThat(result.offsets).containsExactly(42L);
+    assertThat(result.replayed).isEqualTo(1);
+  }
+
+  @Test
+  public void eventsAreReplayedFromOffset() throws Exception {
+    List<Event> events = List.of(event(42), event(43));
+    when(journal.getFrom(42)).thenReturn(events);
+    WebhookEventProcessor processor = mock(WebhookEventProcessor.class);
+    when(processor.replay(events)).thenReturn(2);
+    replayer.attach(processor);
+
+    ReplayWebhookEvents.Result result = replay.apply(null, input(42L, null)).value();
+
+    assertThat(result.offsets).containsExactly(42L, 43L).inOrder();
+    assertThat(result.replayed).isEqualTo(2);
+  }
+
+  @Test
+  public void offsetOrDeliveryIsRequired() {
+    assertThrows(BadRequestException.class, () -> replay.apply(null, input(null, null)));
+  }
+
+  @Test
+  public void replayIsRejectedWhenProcessingIsStopped() {
+    when(journal.getFrom(42)).thenReturn(List.of(event(42)));
+    replayer.attach(mock(WebhookEventProcessor.class));
+    replayer.detach();
+
+    assertThrows(ResourceConflictException.class, () -> replay.apply(null, input(42L, null)));
+  }
+
+  @Test
+  public void replayIsReservedToAdministrators() throws Exception {
+    doThrow(new AuthException("administrate server not permitted"))
+        .when(currentUser)
+        .check(any(GlobalPermission.class));
+
+    assertThrows(AuthException.class, () -> replay.apply(null, input(42L, null)));
+    verify(currentUser).check(GlobalPermission.ADMINISTRATE_SERVER);
+    verifyNoInteractions(journal);
+  }
+
+  private static ReplayWebhookEvents.Input input(Long offset, String delivery) {
+    ReplayWebhookEvents.Input input = new ReplayWebhookEvents.Input();
+    input.offset = offset;
+    input.delivery = delivery;
+    return input;
+  }
+
+  private static Event event(long offset) {
+    Event event = new Event();
+    event.offset = offset;
+    return event;
+  }
+}
@@ -0,0 +1,72 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.base.Ticker;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WebhookDeliveriesTest {
+  private static final long WINDOW_MSEC = TimeUnit.MINUTES.toMillis(10);
+
+  private final AtomicLong nanos = new AtomicLong();
+  private WebhookDeliveries deliveries;
+
+  @Before
+  public void setup() {
+    deliveries =
+        new WebhookDeliveries(
+            WINDOW_MSEC,
+            2,
+            new Ticker() {
+              @Override
+              public long read() {
+                return nanos.get();
+              }
+            });
+  }
+
+  @Test
+  public void redeliveryIsDetected() {
+    assertThat(deliveries.add("delivery-1")).isTrue();
+    assertThat(deliveries.add("delivery-1")).isFalse();
+    assertThat(deliveries.add("delivery-2")).isTrue();
+  }
+
+  @Test
+  public void redeliveryAfterTimeWindowIsAccepted() {
+    deliveries.add("delivery-1");
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW_MSEC + 1));
+
+    assertThat(deliveries.add("delivery-1")).isTrue();
+  }
+
+  @Test
+  public void removedDeliveryIsAcceptedAgain() {
+    deliveries.add("delivery-1");
+    deliveries.remove("delivery-1");
+
+    assertThat(deliveries.add("delivery-1")).isTrue();
+  }
+
+  @Test
+  public void deliveriesWithoutIdAreNeverDropped() {
+    assertThat(deliveries.add(null)).isTrue();
+    assertThat(deliveries.add(null)).isTrue();
+  }
+}
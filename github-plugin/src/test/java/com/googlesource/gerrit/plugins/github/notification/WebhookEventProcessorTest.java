@@ -0,0 +1,264 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.gerrit.extensions.registration.DynamicMap;
+import com.google.gerrit.server.config.AllProjectsName;
+import com.google.gerrit.server.config.SitePaths;
+import com.google.gson.Gson;
+import com.google.inject.util.Providers;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.notification.WebhookJournal.Event;
+import com.googlesource.gerrit.plugins.github.replication.GerritGsonProvider;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.jgit.lib.Config;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kohsuke.github.GHEventPayload;
+
+public class WebhookEventProcessorTest {
+  private static final String REPOSITORY = "myorg/myrepo";
+  private static final String PLUGIN_NAME = "github-plugin";
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private ExecutorService worker;
+  private volatile boolean workersBusy;
+  private WebhookJournal journal;
+  private DynamicMap<WebhookEventHandler<?>> handlers;
+  private WebhookEventProcessor processor;
+  private PushHandler handler;
+
+  /** Records the refs of the pushes, failing once on the ones configured. */
+  private static class PushHandler implements WebhookEventHandler<GHEventPayload.Push> {
+    final List<String> processed = Collections.synchronizedList(new ArrayList<>());
+    final Set<String> failOnce = Collections.synchronizedSet(new HashSet<>());
+    final Set<String> deferOnce = Collections.synchronizedSet(new HashSet<>());
+    final List<String> accepted = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch done;
+
+    @Override
+    public Class<GHEventPayload.Push> getPayloadType() {
+      return GHEventPayload.Push.class;
+    }
+
+    @Override
+    public void onAccepted(GHEventPayload.Push payload) {
+      accepted.add(payload.getRef());
+    }
+
+    @Override
+    public long deferMsec(GHEventPayload.Push payload) {
+      return deferOnce.remove(payload.getRef()) ? 50 : 0;
+    }
+
+    @Override
+    public boolean doAction(GHEventPayload.Push payload) throws IOException {
+      assertThat(accepted).contains(payload.getRef());
+      processed.add(payload.getRef());
+      if (failOnce.remove(payload.getRef())) {
+        throw new IOException("Failure of " + payload.getRef());
+      }
+      done.countDown();
+      return true;
+    }
+  }
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() throws Exception {
+    GitHubConfig config = newConfig();
+    Gson gson = new GerritGsonProvider().get();
+    worker = Executors.newSingleThreadExecutor();
+    WebhookExecutor executor = mock(WebhookExecutor.class);
+    when(executor.submit(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              if (workersBusy) {
+                return false;
+              }
+              worker.execute(invocation.getArgument(1));
+              return true;
+            });
+    journal = new WebhookJournal(tempFolder.newFolder().toPath(), gson, config);
+    handlers = mock(DynamicMap.class);
+    processor =
+        new WebhookEventProcessor(
+            PLUGIN_NAME, handlers, gson, journal, executor, new WebhookEventReplayer(), config);
+    processor.start();
+    handler = new PushHandler();
+  }
+
+  @After
+  public void tearDown() {
+    worker.shutdownNow();
+    processor.stop();
+  }
+
+  @Test
+  public void failedEventIsRetriedBeforeNewerEventsOfItsRepository() throws Exception {
+    handler.done = new CountDownLatch(3);
+    handler.failOnce.add("refs/heads/first");
+
+    List<Event> events = new ArrayList<>();
+    for (String ref : List.of("refs/heads/first", "refs/heads/second", "refs/heads/third")) {
+      events.add(submit(ref));
+    }
+
+    assertThat(handler.done.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(handler.processed)
+        .containsExactly(
+            "refs/heads/first", "refs/heads/first", "refs/heads/second", "refs/heads/third")
+        .inOrder();
+    worker.shutdown();
+    assertThat(worker.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(journal.getUnfinished(5)).isEmpty();
+    assertThat(journal.getAttempts(events.get(0).getOffset())).isEqualTo(2);
+  }
+
+  @Test
+  public void eventsHeldBackAreRetriedInOrderToo() throws Exception {
+    handler.done = new CountDownLatch(3);
+    handler.failOnce.add("refs/heads/first");
+    handler.failOnce.add("refs/heads/second");
+
+    for (String ref : List.of("refs/heads/first", "refs/heads/second", "refs/heads/third")) {
+      submit(ref);
+    }
+
+    assertThat(handler.done.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(handler.processed)
+        .containsExactly(
+            "refs/heads/first",
+            "refs/heads/first",
+            "refs/heads/second",
+            "refs/heads/second",
+            "refs/heads/third")
+        .inOrder();
+  }
+
+  @Test
+  public void deferredEventIsProcessedBeforeNewerEventsOfItsRepository() throws Exception {
+    handler.done = new CountDownLatch(2);
+    handler.deferOnce.add("refs/heads/first");
+
+    Event first = submit("refs/heads/first");
+    submit("refs/heads/second");
+
+    assertThat(handler.done.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(handler.processed)
+        .containsExactly("refs/heads/first", "refs/heads/second")
+        .inOrder();
+    worker.shutdown();
+    assertThat(worker.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(journal.getUnfinished(5)).isEmpty();
+    assertThat(journal.getAttempts(first.getOffset())).isEqualTo(1);
+  }
+
+  @Test
+  public void rejectedEventIsNotNotifiedAsAccepted() throws Exception {
+    workersBusy = true;
+
+    Event event = append("refs/heads/first");
+    assertThat(processor.submit(handler, event, decode(event))).isFalse();
+
+    assertThat(handler.accepted).isEmpty();
+    assertThat(journal.getUnfinished(5)).isEmpty();
+  }
+
+  @Test
+  public void acceptedEventsAreNotifiedInOrderBeforeProcessing() throws Exception {
+    handler.done = new CountDownLatch(2);
+
+    submit("refs/heads/first");
+    submit("refs/heads/second");
+
+    assertThat(handler.done.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(handler.accepted).containsExactly("refs/heads/first", "refs/heads/second").inOrder();
+  }
+
+  @Test
+  public void handlerOfThisPluginIsLookedUpFirst() {
+    WebhookEventHandler<?> otherHandler = new PushHandler();
+    when(handlers.plugins()).thenReturn(new TreeSet<>(List.of("another-plugin", PLUGIN_NAME)));
+    doReturn(otherHandler).when(handlers).get("another-plugin", "push");
+    doReturn(handler).when(handlers).get(PLUGIN_NAME, "push");
+    doReturn(otherHandler).when(handlers).get("another-plugin", "fork");
+
+    assertThat(processor.getWebhookHandler("push")).isSameInstanceAs(handler);
+    assertThat(processor.getWebhookHandler("fork")).isSameInstanceAs(otherHandler);
+    assertThat(processor.getWebhookHandler("watch")).isNull();
+  }
+
+  private Event submit(String ref) throws IOException {
+    Event event = append(ref);
+    assertThat(processor.submit(handler, event, decode(event))).isTrue();
+    return event;
+  }
+
+  private Event append(String ref) throws IOException {
+    String json =
+        "{\"ref\":\""
+            + ref
+            + "\",\"repository\":{\"name\":\"myrepo\",\"full_name\":\""
+            + REPOSITORY
+            + "\"}}";
+    return journal.append(null, "push", json);
+  }
+
+  private GHEventPayload.Push decode(Event event) {
+    return processor.decode(handler, event.getPayload().getBytes(UTF_8));
+  }
+
+  private GitHubConfig newConfig() throws Exception {
+    Config gerritConfig = new Config();
+    gerritConfig.fromText(
+        "[auth]\n"
+            + "httpHeader = GITHUB\n"
+            + "type = HTTP\n"
+            + "[gerrit]\n"
+            + "basePath = /tmp\n"
+            + "[github-key \"default\"]\n"
+            + "current = true\n"
+            + "passwordDevice = /dev/zero\n"
+            + "[github]\n"
+            + "clientId = myclientid\n"
+            + "clientSecret = mysecret\n"
+            + "webhookRetryBackoff = 10ms\n");
+    return new GitHubConfig(
+        gerritConfig,
+        new SitePaths(tempFolder.getRoot().toPath()),
+        Providers.of(new AllProjectsName("All-Projects")));
+  }
+}
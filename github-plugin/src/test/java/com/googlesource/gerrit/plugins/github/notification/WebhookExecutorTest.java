@@ -0,0 +1,155 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.server.account.AccountCache;
+import com.google.gerrit.server.account.AccountState;
+import com.google.gerrit.server.config.AllProjectsName;
+import com.google.gerrit.server.config.SitePaths;
+import com.google.gerrit.server.util.ManualRequestContext;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import com.google.inject.util.Providers;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.jgit.lib.Config;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WebhookExecutorTest {
+  private static final String WEBHOOK_USER = "webhook";
+  private static final String REPOSITORY = "myorg/myrepo";
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private final CountDownLatch unblock = new CountDownLatch(1);
+  private WebhookExecutor executor;
+
+  @After
+  public void tearDown() {
+    unblock.countDown();
+    if (executor != null) {
+      executor.stop();
+    }
+  }
+
+  @Test
+  public void eventsOfSameRepositoryAreProcessedInOrder() throws Exception {
+    executor = newExecutor(4, 100);
+    List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch done = new CountDownLatch(50);
+
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      int event = i;
+      expected.add(event);
+      assertThat(
+              executor.submit(
+                  REPOSITORY,
+                  () -> {
+                    processed.add(event);
+                    done.countDown();
+                  }))
+          .isTrue();
+    }
+
+    assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(processed).containsExactlyElementsIn(expected).inOrder();
+  }
+
+  @Test
+  public void eventIsRejectedWhenItsShardQueueIsFull() throws Exception {
+    executor = newExecutor(1, 1);
+    CountDownLatch started = new CountDownLatch(1);
+    assertThat(executor.submit(REPOSITORY, () -> block(started))).isTrue();
+    assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(executor.submit(REPOSITORY, () -> {})).isTrue();
+    assertThat(executor.submit(REPOSITORY, () -> {})).isFalse();
+  }
+
+  @Test
+  public void eventsWithoutRepositoryHaveTheirOwnShard() throws Exception {
+    executor = newExecutor(1, 1);
+    CountDownLatch started = new CountDownLatch(1);
+    assertThat(executor.submit(REPOSITORY, () -> block(started))).isTrue();
+    assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(executor.submit(REPOSITORY, () -> {})).isTrue();
+
+    CountDownLatch processed = new CountDownLatch(1);
+    assertThat(executor.submit(null, processed::countDown)).isTrue();
+    assertThat(processed.await(10, TimeUnit.SECONDS)).isTrue();
+  }
+
+  private void block(CountDownLatch started) {
+    started.countDown();
+    try {
+      unblock.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private WebhookExecutor newExecutor(int threads, int queueSize) throws Exception {
+    Config gerritConfig = new Config();
+    gerritConfig.fromText(
+        "[auth]\n"
+            + "httpHeader = GITHUB\n"
+            + "type = HTTP\n"
+            + "[gerrit]\n"
+            + "basePath = /tmp\n"
+            + "[github-key \"default\"]\n"
+            + "current = true\n"
+            + "passwordDevice = /dev/zero\n"
+            + "[github]\n"
+            + "clientId = myclientid\n"
+            + "clientSecret = mysecret\n"
+            + "webhookUser = "
+            + WEBHOOK_USER
+            + "\n"
+            + "webhookThreads = "
+            + threads
+            + "\n"
+            + "webhookQueueSize = "
+            + queueSize
+            + "\n");
+    GitHubConfig config =
+        new GitHubConfig(
+            gerritConfig,
+            new SitePaths(tempFolder.getRoot().toPath()),
+            Providers.of(new AllProjectsName("All-Projects")));
+
+    AccountCache accountCache = mock(AccountCache.class);
+    when(accountCache.getByUsername(WEBHOOK_USER))
+        .thenReturn(
+            Optional.of(
+                AccountState.forAccount(Account.builder(Account.id(1000), Instant.now()).build())));
+    OneOffRequestContext requestContext = mock(OneOffRequestContext.class);
+    when(requestContext.openAs(any())).thenReturn(mock(ManualRequestContext.class));
+    return new WebhookExecutor(requestContext, accountCache, config);
+  }
+}
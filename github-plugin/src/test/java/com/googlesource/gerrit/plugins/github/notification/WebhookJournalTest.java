@@ -0,0 +1,174 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.gerrit.server.config.AllProjectsName;
+import com.google.gerrit.server.config.SitePaths;
+import com.google.inject.util.Providers;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.notification.WebhookJournal.Event;
+import com.googlesource.gerrit.plugins.github.notification.WebhookJournal.State;
+import com.googlesource.gerrit.plugins.github.replication.GerritGsonProvider;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.eclipse.jgit.lib.Config;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WebhookJournalTest {
+  private static final String PAYLOAD = "{\"zen\":\"Keep it logically awesome.\"}";
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Path pluginData;
+  private WebhookJournal journal;
+
+  @Before
+  public void setup() throws Exception {
+    pluginData = tempFolder.newFolder().toPath();
+    journal = newJournal("");
+  }
+
+  @After
+  public void tearDown() {
+    journal.close();
+  }
+
+  @Test
+  public void appendedEventsAreUnfinishedUntilDone() throws Exception {
+    Event first = journal.append("delivery-1", "ping", PAYLOAD);
+    Event second = journal.append("delivery-2", "ping", PAYLOAD);
+    journal.update(first.getOffset(), State.DONE, 1);
+
+    assertThat(offsets(journal.getUnfinished(5))).containsExactly(second.getOffset());
+  }
+
+  @Test
+  public void failedEventsAreUnfinishedUntilMaxAttempts() throws Exception {
+    Event event = journal.append("delivery-1", "ping", PAYLOAD);
+
+    journal.update(event.getOffset(), State.FAILED, 1);
+    assertThat(offsets(journal.getUnfinished(2))).containsExactly(event.getOffset());
+
+    journal.update(event.getOffset(), State.FAILED, 2);
+    assertThat(journal.getUnfinished(2)).isEmpty();
+  }
+
+  @Test
+  public void stateIsRecoveredAfterReopening() throws Exception {
+    Event done = journal.append("delivery-1", "ping", PAYLOAD);
+    Event failed = journal.append("delivery-2", "ping", PAYLOAD);
+    journal.update(done.getOffset(), State.DONE, 1);
+    journal.update(failed.getOffset(), State.FAILED, 1);
+    journal.close();
+
+    journal = newJournal("");
+    assertThat(offsets(journal.getUnfinished(5))).containsExactly(failed.getOffset());
+    assertThat(journal.getAttempts(failed.getOffset())).isEqualTo(1);
+    assertThat(journal.append("delivery-3", "ping", PAYLOAD).getOffset())
+        .isGreaterThan(failed.getOffset());
+  }
+
+  @Test
+  public void eventsAreFoundByOffsetAndDeliveryId() throws Exception {
+    journal.append("delivery-1", "ping", PAYLOAD);
+    Event second = journal.append("delivery-2", "pull_request", PAYLOAD);
+    Event third = journal.append("delivery-3", "ping", PAYLOAD);
+
+    assertThat(offsets(journal.getFrom(second.getOffset())))
+        .containsExactly(second.getOffset(), third.getOffset())
+        .inOrder();
+    Event found = journal.getByDeliveryId("delivery-2").get();
+    assertThat(found.getEventName()).isEqualTo("pull_request");
+    assertThat(found.getPayload()).isEqualTo(PAYLOAD);
+  }
+
+  @Test
+  public void eventsAreFoundAcrossSegmentsAfterReopening() throws Exception {
+    journal.close();
+    journal = newJournal("webhookJournalSegmentSize = 1\nwebhookJournalMaxSegments = 10\n");
+    Event first = journal.append("delivery-1", "ping", PAYLOAD);
+    Event second = journal.append("delivery-2", "pull_request", PAYLOAD);
+    journal.update(first.getOffset(), State.DONE, 1);
+    journal.close();
+
+    journal = newJournal("webhookJournalSegmentSize = 1\nwebhookJournalMaxSegments = 10\n");
+    assertThat(journal.getByDeliveryId("delivery-2").get().getOffset())
+        .isEqualTo(second.getOffset());
+    assertThat(journal.getByDeliveryId("delivery-3")).isEmpty();
+    assertThat(offsets(journal.getFrom(second.getOffset()))).containsExactly(second.getOffset());
+    assertThat(offsets(journal.getUnfinished(5))).containsExactly(second.getOffset());
+  }
+
+  @Test
+  public void oldestSegmentsAreDroppedOnRotation() throws Exception {
+    journal.close();
+    journal = newJournal("webhookJournalSegmentSize = 1\nwebhookJournalMaxSegments = 2\n");
+
+    Event first = journal.append("delivery-1", "ping", PAYLOAD);
+    journal.update(first.getOffset(), State.DONE, 1);
+    Event second = journal.append("delivery-2", "ping", PAYLOAD);
+    Event third = journal.append("delivery-3", "ping", PAYLOAD);
+
+    assertThat(journal.getByDeliveryId("delivery-1")).isEmpty();
+    assertThat(offsets(journal.getFrom(0))).containsExactly(second.getOffset(), third.getOffset());
+  }
+
+  @Test
+  public void closedJournalRejectsWrites() throws Exception {
+    Event event = journal.append("delivery-1", "ping", PAYLOAD);
+    journal.close();
+
+    assertThrows(IOException.class, () -> journal.append("delivery-2", "ping", PAYLOAD));
+    assertThrows(IOException.class, () -> journal.update(event.getOffset(), State.DONE, 1));
+  }
+
+  private WebhookJournal newJournal(String githubConfig) throws Exception {
+    Config gerritConfig = new Config();
+    gerritConfig.fromText(
+        "[auth]\n"
+            + "httpHeader = GITHUB\n"
+            + "type = HTTP\n"
+            + "[gerrit]\n"
+            + "basePath = /tmp\n"
+            + "[github-key \"default\"]\n"
+            + "current = true\n"
+            + "passwordDevice = /dev/zero\n"
+            + "[github]\n"
+            + "clientId = myclientid\n"
+            + "clientSecret = mysecret\n"
+            + githubConfig);
+    GitHubConfig config =
+        new GitHubConfig(
+            gerritConfig,
+            new SitePaths(tempFolder.getRoot().toPath()),
+            Providers.of(new AllProjectsName("All-Projects")));
+    WebhookJournal newJournal =
+        new WebhookJournal(pluginData, new GerritGsonProvider().get(), config);
+    newJournal.open();
+    return newJournal;
+  }
+
+  private static List<Long> offsets(List<Event> events) {
+    return events.stream().map(Event::getOffset).collect(Collectors.toList());
+  }
+}
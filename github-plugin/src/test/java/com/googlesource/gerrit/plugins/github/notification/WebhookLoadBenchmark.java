@@ -0,0 +1,801 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.annotations.Exports;
+import com.google.gerrit.extensions.registration.DynamicMap;
+import com.google.gerrit.server.account.AccountCache;
+import com.google.gerrit.server.account.AccountState;
+import com.google.gerrit.server.config.AllProjectsName;
+import com.google.gerrit.server.config.SitePaths;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.project.ProjectState;
+import com.google.gerrit.server.util.ManualRequestContext;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.util.Providers;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.git.GitHubAccountResolver;
+import com.googlesource.gerrit.plugins.github.git.GitHubRepository;
+import com.googlesource.gerrit.plugins.github.git.GitHubRepositoryMirrors;
+import com.googlesource.gerrit.plugins.github.git.GitJobStatus;
+import com.googlesource.gerrit.plugins.github.git.PullRequestChangesCache;
+import com.googlesource.gerrit.plugins.github.git.PullRequestCreateChange;
+import com.googlesource.gerrit.plugins.github.git.PullRequestImportJob;
+import com.googlesource.gerrit.plugins.github.git.PullRequestLifecycle;
+import com.googlesource.gerrit.plugins.github.git.PullRequestRefs;
+import com.googlesource.gerrit.plugins.github.git.PullRequestsFetch;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
+import com.googlesource.gerrit.plugins.github.oauth.UserScopedProvider;
+import com.googlesource.gerrit.plugins.github.replication.GerritGsonProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.log4j.BasicConfigurator;
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.errors.RepositoryNotFoundException;
+import org.eclipse.jgit.http.server.GitServlet;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.Config;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load generator measuring how the {@link WebhookServlet} and the {@link PullRequestHandler} behave
+ * under bursts of pull request events.
+ *
+ * <p>Synthetic {@code synchronize} payloads, or recorded {@code pull_request} payloads, are signed
+ * and posted over HTTP at a configurable rate to the webhook servlet, running in an embedded Jetty
+ * server together with a stand-in of the GitHub API and a git server. Every delivery pushes a new
+ * commit as the head of its pull request, which is then imported by the real {@link
+ * PullRequestImportJob}: the pull request is read from the API stand-in and its head is fetched
+ * over HTTP into a local repository. Only the creation of the Gerrit changes, which needs a running
+ * Gerrit server, is left out.
+ *
+ * <p>Reports the acknowledgement latency of the deliveries, the end-to-end latency from the
+ * delivery of the latest head of a pull request to the end of its import, and the throughput.
+ *
+ * <p>Options, all optional, are given as {@code --name=value}:
+ *
+ * <ul>
+ *   <li>{@code events}: number of deliveries (default 2000)
+ *   <li>{@code rate}: deliveries per second (default 200)
+ *   <li>{@code clients}: concurrent delivering clients (default 8)
+ *   <li>{@code repositories}: number of repositories (default 10)
+ *   <li>{@code pullRequests}: pull requests per repository (default 20)
+ *   <li>{@code threads}, {@code queueSize}, {@code debounce}: webhook workers, queue size and
+ *       debounce in milliseconds (default to the plugin ones)
+ *   <li>{@code payloads}: directory of recorded {@code pull_request} JSON payloads to replay,
+ *       instead of the synthetic ones. Their heads are replaced by the commits pushed to the
+ *       stand-in repositories.
+ * </ul>
+ *
+ * <p>Run with {@code bazelisk run plugins/github/github-plugin:webhook-load-benchmark --
+ * [options]}.
+ */
+public class WebhookLoadBenchmark {
+  private static final Logger logger = LoggerFactory.getLogger(WebhookLoadBenchmark.class);
+  private static final String SECRET = "benchmark-secret";
+  private static final String WEBHOOK_USER = "benchmark";
+  private static final String BOT_LOGIN = "benchmark-bot";
+  private static final String CONTRIBUTOR_LOGIN = "contributor";
+  private static final String BASE_BRANCH = "master";
+
+  private final Map<String, String> options;
+  private final Gson gson = new GerritGsonProvider().get();
+  private final Map<String, StandInRepository> repositories = new ConcurrentHashMap<>();
+  private final Map<String, Long> latestDeliveryNanosByPullRequest = new ConcurrentHashMap<>();
+  private final List<Long> ackLatencies = Collections.synchronizedList(new ArrayList<>());
+  private final List<Long> importLatencies = Collections.synchronizedList(new ArrayList<>());
+  private final Map<Integer, AtomicInteger> countByStatus = new ConcurrentHashMap<>();
+  private final AtomicInteger imports = new AtomicInteger();
+  private final AtomicInteger failedImports = new AtomicInteger();
+  private final AtomicLong lastImportNanos = new AtomicLong();
+  private final AtomicInteger changeIds = new AtomicInteger();
+
+  private WebhookLoadBenchmark(Map<String, String> options) {
+    this.options = options;
+  }
+
+  public static void main(String[] args) throws Exception {
+    BasicConfigurator.configure();
+    LogManager.getRootLogger().setLevel(Level.ERROR);
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      String[] nameValue = arg.replaceFirst("^--", "").split("=", 2);
+      options.put(nameValue[0], nameValue.length > 1 ? nameValue[1] : "true");
+    }
+    new WebhookLoadBenchmark(options).run();
+  }
+
+  private int intOption(String name, int defaultValue) {
+    return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+  }
+
+  private void run() throws Exception {
+    int events = intOption("events", 2000);
+    int rate = intOption("rate", 200);
+    int clients = intOption("clients", 8);
+
+    Path workDir = Files.createTempDirectory("webhook-benchmark");
+    Server server = new Server();
+    ServerConnector connector = new ServerConnector(server);
+    connector.setHost("127.0.0.1");
+    server.addConnector(connector);
+    ServletContextHandler context = new ServletContextHandler();
+    server.setHandler(context);
+    WebhookEventProcessor processor = null;
+    try {
+      server.start();
+      String baseUrl = "http://127.0.0.1:" + connector.getLocalPort();
+      List<Delivery> deliveries = prepareDeliveries(workDir, events);
+      GitHubLogin login = newLogin(baseUrl + "/api");
+
+      GitHubConfig config = newConfig(workDir);
+      WebhookJournal journal = new WebhookJournal(workDir.resolve("data"), gson, config);
+      WebhookExecutor executor = newExecutor(config);
+      PullRequestHandler handler =
+          new PullRequestHandler(
+              newImportJobFactory(baseUrl + "/git"),
+              mock(PullRequestChangesCache.class),
+              newLoginProvider(login),
+              config,
+              new PullRequestEventCoalescer(config.webhookPullRequestDebounceMsec),
+              mock(PullRequestLifecycle.class));
+      processor =
+          new WebhookEventProcessor(
+              "github-plugin",
+              newHandlers(handler),
+              gson,
+              journal,
+              executor,
+              new WebhookEventReplayer(),
+              config);
+      WebhookServlet servlet =
+          new WebhookServlet(
+              newLoginProvider(login), config, processor, journal, new WebhookDeliveries(config));
+      context.addServlet(new ServletHolder(servlet), "/webhook");
+      context.addServlet(new ServletHolder(new GitHubApiStandIn(baseUrl + "/api")), "/api/*");
+      context.addServlet(new ServletHolder(newGitServlet()), "/git/*");
+
+      processor.start();
+      URI webhookUri = URI.create(baseUrl + "/webhook");
+      HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+      ExecutorService clientPool = Executors.newFixedThreadPool(clients);
+      long periodNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+      long startNanos = System.nanoTime();
+      for (int i = 0; i < events; i++) {
+        long dueNanos = startNanos + i * periodNanos;
+        long waitNanos = dueNanos - System.nanoTime();
+        if (waitNanos > 0) {
+          TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        Delivery delivery = deliveries.get(i);
+        clientPool.execute(() -> deliver(client, webhookUri, delivery));
+      }
+      clientPool.shutdown();
+      clientPool.awaitTermination(1, TimeUnit.HOURS);
+      long ackEndNanos = System.nanoTime();
+
+      executor.stop();
+      report(events, startNanos, ackEndNanos);
+    } finally {
+      if (processor != null) {
+        processor.stop();
+      }
+      server.stop();
+      for (StandInRepository repository : repositories.values()) {
+        repository.close();
+      }
+      MoreFiles.deleteRecursively(workDir, RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+  }
+
+  private void deliver(HttpClient client, URI webhookUri, Delivery delivery) {
+    try {
+      long startNanos = System.nanoTime();
+      delivery.repository.push(delivery.prNumber, delivery.head);
+      latestDeliveryNanosByPullRequest.put(delivery.pullRequestKey(), startNanos);
+      HttpResponse<Void> response =
+          client.send(
+              HttpRequest.newBuilder(webhookUri)
+                  .header("Content-Type", "application/json")
+                  .header("X-GitHub-Event", "pull_request")
+                  .header("X-GitHub-Delivery", UUID.randomUUID().toString())
+                  .header("X-Hub-Signature-256", delivery.signature)
+                  .POST(HttpRequest.BodyPublishers.ofByteArray(delivery.payload))
+                  .build(),
+              HttpResponse.BodyHandlers.discarding());
+      ackLatencies.add(System.nanoTime() - startNanos);
+      countByStatus
+          .computeIfAbsent(response.statusCode(), s -> new AtomicInteger())
+          .incrementAndGet();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      logger.error("Delivery of {} failed", delivery.pullRequestKey(), e);
+    }
+  }
+
+  private void report(int events, long startNanos, long ackEndNanos) {
+    double ackSeconds = (ackEndNanos - startNanos) / 1e9;
+    double importSeconds = (lastImportNanos.get() - startNanos) / 1e9;
+    System.out.printf(
+        "Deliveries:         %d in %.2fs (%.1f/s)%n", events, ackSeconds, events / ackSeconds);
+    System.out.printf("Responses:          %s%n", countByStatus);
+    System.out.printf("Ack latency:        %s%n", percentiles(ackLatencies));
+    System.out.printf(
+        "Imports:            %d in %.2fs (%.1f/s), %d failed%n",
+        imports.get(), importSeconds, imports.get() / importSeconds, failedImports.get());
+    System.out.printf("End-to-end latency: %s%n", percentiles(importLatencies));
+  }
+
+  private static String percentiles(List<Long> latencies) {
+    List<Long> sorted;
+    synchronized (latencies) {
+      sorted = new ArrayList<>(latencies);
+    }
+    if (sorted.isEmpty()) {
+      return "n/a";
+    }
+    Collections.sort(sorted);
+    return String.format(
+        "p50=%.2fms p99=%.2fms max=%.2fms",
+        percentile(sorted, 50), percentile(sorted, 99), sorted.get(sorted.size() - 1) / 1e6);
+  }
+
+  private static double percentile(List<Long> sorted, int percentile) {
+    int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+    return sorted.get(Math.max(index, 0)) / 1e6;
+  }
+
+  /**
+   * Create the stand-in repositories and a new head commit for every delivery, so that the
+   * deliveries only have to push it.
+   */
+  private List<Delivery> prepareDeliveries(Path workDir, int events) throws Exception {
+    List<JsonObject> templates = loadPayloads(events);
+    List<Delivery> deliveries = new ArrayList<>(events);
+    for (int i = 0; i < events; i++) {
+      JsonObject payload = templates.get(i % templates.size()).deepCopy();
+      JsonObject repository = payload.getAsJsonObject("repository");
+      String owner = repository.getAsJsonObject("owner").get("login").getAsString();
+      String name = repository.get("name").getAsString();
+      StandInRepository standIn = repositories.get(owner + "/" + name);
+      if (standIn == null) {
+        standIn = new StandInRepository(workDir, owner, name);
+        repositories.put(owner + "/" + name, standIn);
+      }
+
+      int prNumber = payload.get("number").getAsInt();
+      RevCommit head = standIn.newHead(prNumber, i);
+      payload
+          .getAsJsonObject("pull_request")
+          .getAsJsonObject("head")
+          .addProperty("sha", head.name());
+      deliveries.add(new Delivery(standIn, prNumber, head, gson.toJson(payload).getBytes(UTF_8)));
+    }
+    return deliveries;
+  }
+
+  private List<JsonObject> loadPayloads(int events) throws IOException {
+    List<JsonObject> payloads = new ArrayList<>();
+    if (options.containsKey("payloads")) {
+      try (DirectoryStream<Path> files =
+          Files.newDirectoryStream(Paths.get(options.get("payloads")), "*.json")) {
+        for (Path file : files) {
+          payloads.add(JsonParser.parseString(Files.readString(file)).getAsJsonObject());
+        }
+      }
+      if (payloads.isEmpty()) {
+        throw new IllegalArgumentException("No *.json payloads in " + options.get("payloads"));
+      }
+      return payloads;
+    }
+
+    // Every synthetic event pushes a new head, as a burst of synchronize events would do
+    int repositories = intOption("repositories", 10);
+    int pullRequests = intOption("pullRequests", 20);
+    for (int i = 0; i < events; i++) {
+      payloads.add(
+          syntheticPayload("repo" + (i % repositories), 1 + (i / repositories) % pullRequests));
+    }
+    return payloads;
+  }
+
+  private static JsonObject syntheticPayload(String repository, int prNumber) {
+    JsonObject head = new JsonObject();
+    JsonObject pullRequest = new JsonObject();
+    pullRequest.addProperty("number", prNumber);
+    pullRequest.add("head", head);
+    JsonObject owner = new JsonObject();
+    owner.addProperty("login", "benchmark");
+    JsonObject repo = new JsonObject();
+    repo.addProperty("name", repository);
+    repo.addProperty("full_name", "benchmark/" + repository);
+    repo.add("owner", owner);
+    JsonObject payload = new JsonObject();
+    payload.addProperty("action", "synchronize");
+    payload.addProperty("number", prNumber);
+    payload.add("pull_request", pullRequest);
+    payload.add("repository", repo);
+    return payload;
+  }
+
+  private static String sign(byte[] payload) {
+    try {
+      Mac hmac = Mac.getInstance("HmacSHA256");
+      hmac.init(new SecretKeySpec(SECRET.getBytes(UTF_8), "HmacSHA256"));
+      return "sha256=" + Hex.encodeHexString(hmac.doFinal(payload));
+    } catch (Exception e) {
+      throw new IllegalStateException("Unable to sign the payload", e);
+    }
+  }
+
+  private GitHubConfig newConfig(Path site) throws Exception {
+    StringBuilder github = new StringBuilder();
+    github.append("webhookUser = ").append(WEBHOOK_USER).append('\n');
+    github.append("webhookSecret = ").append(SECRET).append('\n');
+    if (options.containsKey("threads")) {
+      github.append("webhookThreads = ").append(options.get("threads")).append('\n');
+    }
+    if (options.containsKey("queueSize")) {
+      github.append("webhookQueueSize = ").append(options.get("queueSize")).append('\n');
+    }
+    if (options.containsKey("debounce")) {
+      github.append("webhookPullRequestDebounce = ").append(options.get("debounce")).append("ms\n");
+    }
+
+    Config gerritConfig = new Config();
+    gerritConfig.fromText(
+        "[auth]\n"
+            + "httpHeader = GITHUB\n"
+            + "type = HTTP\n"
+            + "[gerrit]\n"
+            + "basePath = /tmp\n"
+            + "[github-key \"default\"]\n"
+            + "current = true\n"
+            + "passwordDevice = /dev/zero\n"
+            + "[github]\n"
+            + "clientId = myclientid\n"
+            + "clientSecret = mysecret\n"
+            + github);
+    return new GitHubConfig(
+        gerritConfig, new SitePaths(site), Providers.of(new AllProjectsName("All-Projects")));
+  }
+
+  private static WebhookExecutor newExecutor(GitHubConfig config) {
+    Account account = mock(Account.class);
+    when(account.id()).thenReturn(Account.id(1000000));
+    AccountState accountState = mock(AccountState.class);
+    when(accountState.account()).thenReturn(account);
+    AccountCache accountCache = mock(AccountCache.class);
+    when(accountCache.getByUsername(WEBHOOK_USER)).thenReturn(Optional.of(accountState));
+    OneOffRequestContext requestContext = mock(OneOffRequestContext.class);
+    when(requestContext.openAs(any())).thenReturn(mock(ManualRequestContext.class));
+    return new WebhookExecutor(requestContext, accountCache, config);
+  }
+
+  /** Login of the webhook user, connected to the GitHub API stand-in. */
+  private static GitHubLogin newLogin(String apiUrl) throws IOException {
+    GitHub hub = new GitHubBuilder().withEndpoint(apiUrl).withOAuthToken("benchmark-token").build();
+    GitHubLogin login = mock(GitHubLogin.class);
+    when(login.isLoggedIn()).thenReturn(true);
+    when(login.getAccessToken()).thenReturn("benchmark-token");
+    when(login.getHub()).thenReturn(hub);
+    when(login.getMyself()).thenAnswer(invocation -> hub.getMyself());
+    return login;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static UserScopedProvider<GitHubLogin> newLoginProvider(GitHubLogin login) {
+    UserScopedProvider<GitHubLogin> loginProvider = mock(UserScopedProvider.class);
+    when(loginProvider.get(anyString())).thenReturn(login);
+    return loginProvider;
+  }
+
+  private static DynamicMap<WebhookEventHandler<?>> newHandlers(PullRequestHandler handler) {
+    return Guice.createInjector(
+            new AbstractModule() {
+              @Override
+              protected void configure() {
+                DynamicMap.mapOf(binder(), WebhookEventHandlerApiModule.HANDLER_TYPE);
+                bind(WebhookEventHandlerApiModule.HANDLER_TYPE)
+                    .annotatedWith(Exports.named("pull_request"))
+                    .toInstance(handler);
+              }
+            })
+        .getInstance(Key.get(new TypeLiteral<DynamicMap<WebhookEventHandler<?>>>() {}));
+  }
+
+  private GitServlet newGitServlet() {
+    GitServlet gitServlet = new GitServlet();
+    gitServlet.setRepositoryResolver(
+        (req, name) -> {
+          StandInRepository repository = repositories.get(name.replaceFirst("\\.git$", ""));
+          if (repository == null) {
+            throw new RepositoryNotFoundException(name);
+          }
+          repository.gitHub.incrementOpen();
+          return repository.gitHub;
+        });
+    return gitServlet;
+  }
+
+  /**
+   * Factory of the real import jobs, fetching from the git server stand-in into the local
+   * repositories. The Gerrit changes are not created, as they need a running Gerrit server.
+   */
+  private PullRequestImportJob.Factory newImportJobFactory(String gitUrl) throws Exception {
+    GitRepositoryManager repoManager = mock(GitRepositoryManager.class);
+    ProjectCache projectCache = mock(ProjectCache.class);
+    for (StandInRepository repository : repositories.values()) {
+      Project.NameKey project = Project.nameKey(repository.fullName());
+      when(repoManager.openRepository(project))
+          .thenAnswer(
+              invocation -> {
+                repository.gerrit.incrementOpen();
+                return repository.gerrit;
+              });
+      ProjectState projectState = mock(ProjectState.class);
+      when(projectState.getProject()).thenReturn(Project.builder(project).build());
+      when(projectCache.get(project)).thenReturn(Optional.of(projectState));
+    }
+    PullRequestCreateChange createChange = mock(PullRequestCreateChange.class);
+    when(createChange.addCommitToChange(any(), any(), any(), any(), any(), any(), any()))
+        .thenAnswer(invocation -> Change.id(changeIds.incrementAndGet()));
+    GitHubRepository.Factory ghRepoFactory =
+        new GitHubRepository.Factory() {
+          @Override
+          public GitHubRepository create(String organisation, String repository) {
+            throw new UnsupportedOperationException("Imports run with an explicit login");
+          }
+
+          @Override
+          public GitHubRepository create(
+              String organisation, String repository, GitHubLogin ghLogin) {
+            try {
+              return new GitHubRepository(gitUrl, organisation, repository, ghLogin);
+            } catch (IOException e) {
+              throw new IllegalStateException(e);
+            }
+          }
+        };
+    GitHubAccountResolver accountResolver = mock(GitHubAccountResolver.class);
+    PullRequestChangesCache changesCache = mock(PullRequestChangesCache.class);
+    GitHubRepositoryMirrors mirrors = mock(GitHubRepositoryMirrors.class);
+    PullRequestRefs pullRequestRefs = new PullRequestRefs();
+
+    return new PullRequestImportJob.Factory() {
+      @Override
+      public PullRequestImportJob create(
+          int jobIndex,
+          String organisation,
+          String repository,
+          int pullRequestId,
+          PullRequestsFetch pullRequestsFetch) {
+        throw new UnsupportedOperationException("Imports run with an explicit login");
+      }
+
+      @Override
+      public PullRequestImportJob create(
+          int jobIndex,
+          String organisation,
+          String repository,
+          int pullRequestId,
+          PullRequestsFetch pullRequestsFetch,
+          GitHubLogin ghLogin) {
+        return new PullRequestImportJob(
+            repoManager,
+            createChange,
+            projectCache,
+            accountResolver,
+            ghRepoFactory,
+            changesCache,
+            mirrors,
+            pullRequestRefs,
+            jobIndex,
+            organisation,
+            repository,
+            pullRequestId,
+            pullRequestsFetch,
+            ghLogin) {
+          @Override
+          public void run() {
+            super.run();
+            onImportDone(organisation + "/" + repository + "#" + pullRequestId, getStatus());
+          }
+        };
+      }
+    };
+  }
+
+  private void onImportDone(String pullRequest, GitJobStatus status) {
+    long endNanos = System.nanoTime();
+    switch (status.getStatus()) {
+      case COMPLETE:
+        importLatencies.add(endNanos - latestDeliveryNanosByPullRequest.get(pullRequest));
+        imports.incrementAndGet();
+        lastImportNanos.accumulateAndGet(endNanos, Math::max);
+        break;
+      case FAILED:
+        logger.error("Import of {} failed: {}", pullRequest, status.getValue());
+        failedImports.incrementAndGet();
+        break;
+      default:
+        break;
+    }
+  }
+
+  private static class Delivery {
+    final StandInRepository repository;
+    final int prNumber;
+    final RevCommit head;
+    final byte[] payload;
+    final String signature;
+
+    Delivery(StandInRepository repository, int prNumber, RevCommit head, byte[] payload) {
+      this.repository = repository;
+      this.prNumber = prNumber;
+      this.head = head;
+      this.payload = payload;
+      this.signature = sign(payload);
+    }
+
+    String pullRequestKey() {
+      return repository.fullName() + "#" + prNumber;
+    }
+  }
+
+  /** Repository on the GitHub stand-in, with its copy imported into Gerrit. */
+  private static class StandInRepository {
+    final String owner;
+    final String name;
+    final Repository gitHub;
+    final Repository gerrit;
+    final TestRepository<Repository> testRepo;
+    final RevCommit base;
+    final Map<Integer, ObjectId> headByPullRequest = new ConcurrentHashMap<>();
+
+    StandInRepository(Path workDir, String owner, String name) throws Exception {
+      this.owner = owner;
+      this.name = name;
+      gitHub = createRepository(workDir.resolve("github").resolve(owner).resolve(name + ".git"));
+      gerrit = createRepository(workDir.resolve("gerrit").resolve(owner).resolve(name + ".git"));
+      testRepo = new TestRepository<>(gitHub);
+      base = testRepo.branch(BASE_BRANCH).commit().message("Initial commit").create();
+      try (Git git = Git.wrap(gerrit)) {
+        git.fetch()
+            .setRemote(gitHub.getDirectory().toURI().toString())
+            .setRefSpecs("refs/heads/*:refs/heads/*")
+            .call();
+      }
+    }
+
+    String fullName() {
+      return owner + "/" + name;
+    }
+
+    synchronized RevCommit newHead(int prNumber, int event) throws Exception {
+      return testRepo
+          .commit()
+          .parent(base)
+          .add("pr-" + prNumber, "Event " + event)
+          .message("Pull request " + prNumber + " at event " + event)
+          .create();
+    }
+
+    synchronized void push(int prNumber, ObjectId head) throws IOException {
+      RefUpdate refUpdate = gitHub.updateRef("refs/pull/" + prNumber + "/head");
+      refUpdate.setNewObjectId(head);
+      refUpdate.setForceUpdate(true);
+      RefUpdate.Result result = refUpdate.update();
+      if (result != RefUpdate.Result.NEW && result != RefUpdate.Result.FORCED) {
+        throw new IOException("Unable to push " + head.name() + ": " + result);
+      }
+      headByPullRequest.put(prNumber, head);
+    }
+
+    void close() {
+      testRepo.close();
+      gerrit.close();
+    }
+
+    private static Repository createRepository(Path gitDir) throws IOException {
+      Repository repo = new FileRepositoryBuilder().setGitDir(gitDir.toFile()).setBare().build();
+      repo.create(true);
+      return repo;
+    }
+  }
+
+  /** Stand-in of the GitHub API, serving the requests of the import of a pull request. */
+  private class GitHubApiStandIn extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private final Pattern userPath = Pattern.compile("/users?(?:/([^/]+))?");
+    private final Pattern orgPath = Pattern.compile("/orgs/([^/]+)");
+    private final Pattern repoPath =
+        Pattern.compile("/repos/([^/]+)/([^/]+)(?:/pulls/(\\d+)(/commits)?)?");
+    private final String apiUrl;
+
+    GitHubApiStandIn(String apiUrl) {
+      this.apiUrl = apiUrl;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+      String path = req.getPathInfo();
+      Object body = null;
+      Matcher matcher;
+      if ((matcher = userPath.matcher(path)).matches()) {
+        body = user(matcher.group(1) == null ? BOT_LOGIN : matcher.group(1));
+      } else if ((matcher = orgPath.matcher(path)).matches()) {
+        body = organisation(matcher.group(1));
+      } else if ((matcher = repoPath.matcher(path)).matches()) {
+        StandInRepository repository = repositories.get(matcher.group(1) + "/" + matcher.group(2));
+        if (repository != null && matcher.group(3) == null) {
+          body = repository(repository);
+        } else if (repository != null) {
+          int prNumber = Integer.parseInt(matcher.group(3));
+          ObjectId head = repository.headByPullRequest.get(prNumber);
+          if (head != null) {
+            body =
+                matcher.group(4) == null ? pullRequest(repository, prNumber, head) : commits(head);
+          }
+        }
+      }
+
+      if (body == null) {
+        resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+        return;
+      }
+      resp.setContentType("application/json");
+      resp.setCharacterEncoding(UTF_8.name());
+      resp.getWriter().write(body.toString());
+    }
+
+    private JsonObject user(String login) {
+      JsonObject user = new JsonObject();
+      user.addProperty("login", login);
+      user.addProperty("id", login.hashCode() & Integer.MAX_VALUE);
+      user.addProperty("type", "User");
+      user.addProperty("name", login);
+      user.addProperty("email", login + "@example.com");
+      user.addProperty("url", apiUrl + "/users/" + login);
+      user.addProperty("created_at", "2020-01-01T00:00:00Z");
+      return user;
+    }
+
+    private JsonObject organisation(String login) {
+      JsonObject organisation = new JsonObject();
+      organisation.addProperty("login", login);
+      organisation.addProperty("id", login.hashCode() & Integer.MAX_VALUE);
+      organisation.addProperty("type", "Organization");
+      organisation.addProperty("url", apiUrl + "/orgs/" + login);
+      return organisation;
+    }
+
+    private JsonObject repository(StandInRepository repository) {
+      JsonObject owner = organisation(repository.owner);
+      JsonObject json = new JsonObject();
+      json.addProperty("id", repository.fullName().hashCode() & Integer.MAX_VALUE);
+      json.addProperty("name", repository.name);
+      json.addProperty("full_name", repository.fullName());
+      json.add("owner", owner);
+      json.addProperty("url", apiUrl + "/repos/" + repository.fullName());
+      json.addProperty("default_branch", BASE_BRANCH);
+      return json;
+    }
+
+    private JsonObject pullRequest(StandInRepository repository, int prNumber, ObjectId head) {
+      JsonObject headRef = new JsonObject();
+      headRef.addProperty("ref", "pr-" + prNumber);
+      headRef.addProperty("sha", head.name());
+      JsonObject baseRef = new JsonObject();
+      baseRef.addProperty("ref", BASE_BRANCH);
+      baseRef.addProperty("sha", repository.base.name());
+      JsonObject json = new JsonObject();
+      json.addProperty("id", prNumber);
+      json.addProperty("number", prNumber);
+      json.addProperty("state", "open");
+      json.addProperty("title", "Pull request " + prNumber);
+      json.addProperty("body", "Benchmark pull request");
+      json.addProperty("url", apiUrl + "/repos/" + repository.fullName() + "/pulls/" + prNumber);
+      json.addProperty(
+          "html_url", "https://github.com/" + repository.fullName() + "/pull/" + prNumber);
+      json.addProperty("mergeable_state", "clean");
+      json.add("user", user(CONTRIBUTOR_LOGIN));
+      json.add("head", headRef);
+      json.add("base", baseRef);
+      return json;
+    }
+
+    private JsonArray commits(ObjectId head) {
+      JsonObject author = new JsonObject();
+      author.addProperty("name", CONTRIBUTOR_LOGIN);
+      author.addProperty("email", CONTRIBUTOR_LOGIN + "@example.com");
+      author.addProperty("date", Instant.now().truncatedTo(ChronoUnit.SECONDS).toString());
+      JsonObject commit = new JsonObject();
+      commit.addProperty("message", "Benchmark commit");
+      commit.add("author", author);
+      commit.add("committer", author);
+      JsonObject detail = new JsonObject();
+      detail.addProperty("sha", head.name());
+      detail.add("commit", commit);
+      JsonArray commits = new JsonArray();
+      commits.add(detail);
+      return commits;
+    }
+  }
+}
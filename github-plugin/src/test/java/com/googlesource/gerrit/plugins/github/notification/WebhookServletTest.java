@@ -0,0 +1,351 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.googlesource.gerrit.plugins.github.notification;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.gerrit.server.config.AllProjectsName;
+import com.google.gerrit.server.config.SitePaths;
+import com.google.inject.util.Providers;
+import com.googlesource.gerrit.plugins.github.GitHubConfig;
+import com.googlesource.gerrit.plugins.github.oauth.GitHubLogin;
+import com.googlesource.gerrit.plugins.github.oauth.UserScopedProvider;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.codec.binary.Hex;
+import org.eclipse.jgit.lib.Config;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WebhookServletTest {
+  private static final String WEBHOOK_USER = "webhook";
+  private static final String EVENT_NAME = "ping";
+  private static final String PAYLOAD = "{\"zen\":\"Keep it logically awesome.\"}";
+  private static final String SECRET = "mywebhooksecret";
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private WebhookEventProcessor processor;
+  private WebhookJournal journal;
+  private WebhookEventHandler<Object> handler;
+  private UserScopedProvider<GitHubLogin> loginProvider;
+  private WebhookServlet servlet;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() throws Exception {
+    processor = mock(WebhookEventProcessor.class);
+    journal = mock(WebhookJournal.class);
+    handler = mock(WebhookEventHandler.class);
+    doReturn(handler).when(processor).getWebhookHandler(EVENT_NAME);
+    when(processor.decode(eq(handler), any(byte[].class))).thenReturn(new Object());
+    when(journal.append(any(), any(), any())).thenReturn(new WebhookJournal.Event());
+
+    GitHubLogin login = mock(GitHubLogin.class);
+    when(login.isLoggedIn()).thenReturn(true);
+    loginProvider = mock(UserScopedProvider.class);
+    when(loginProvider.get(WEBHOOK_USER)).thenReturn(login);
+
+    servlet = newServlet("");
+  }
+
+  @Test
+  public void acceptedEventIsAcknowledged() throws Exception {
+    when(processor.submit(eq(handler), any(), any())).thenReturn(true);
+    HttpServletResponse resp = mock(HttpServletResponse.class);
+
+    servlet.doPost(request("delivery-1", PAYLOAD), resp);
+
+    verify(resp).setStatus(HttpServletResponse.SC_ACCEPTED);
+  }
+
+  @Test
+  public void eventRejectedByFullQueueIsAnsweredWithServiceUnavailable() throws Exception {
+    when(processor.submit(eq(handler), any(), any())).thenReturn(false);
+    HttpServletResponse resp = mock(HttpServletResponse.class);
+
+    servlet.doPost(request("delivery-1", PAYLOAD), resp);
+
+    verify(resp).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    verify(resp).setHeader(eq("Retry-After"), any());
+  }
+
+  @Test
+  public void eventRejectedByFullQueueCanBeRedelivered() throws Exception {
+    when(processor.submit(eq(handler), any(), any())).thenReturn(false).thenReturn(true);
+    HttpServletResponse rejected = mock(HttpServletResponse.class);
+    HttpServletResponse redelivered = mock(HttpServletResponse.class);
+
+    servlet.doPost(request("delivery-1", PAYLOAD), rejected);
+    servlet.doPost(request("delivery-1", PAYLOAD), redelivered);
+
+    verify(rejected).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    verify(redelivered).setStatus(HttpServletResponse.SC_ACCEPTED);
+    verify(redelivered, never()).sendError(anyInt());
+  }
+
+  @Test
+  public void sha256SignatureIsVerifiedWhilstStreaming() throws Exception {
+    servlet = newServlet("webhookSecret = " + SECRET + "\n");
+    when(processor.submit(eq(handler), any(), any())).thenReturn(true);
+    byte[] body = largePayload();
+    HttpServletResponse resp = mock(HttpServletResponse.class);
+
+    servlet.doPost(
+        signedRequest("X-Hub-Signature-256", "sha256=" + hmac("HmacSHA256", body), body, -1), resp);
+
+    verify(resp).setStatus(HttpServletResponse.SC_ACCEPTED);
+    verify(processor).decode(eq(handler), aryEq(body));
+  }
+
+  @Test
+  public void sha1SignatureIsVerifiedWhilstStreaming() throws Exception {
+    servlet = newServlet("webhookSecret = " + SECRET + "\n");
+    when(processor.submit(eq(handler), any(), any())).thenReturn(true);
+    byte[] body = PAYLOAD.getBytes(UTF_8);
+    HttpServletResponse resp = mock(HttpServletResponse.class);
+
+    servlet.doPost(
+        signedRequest("X-Hub-Signature", "sha1=" + hmac("HmacSHA1", body), body, body.length),
+        resp);
+
+    verify(resp).setStatus(HttpServletResponse.SC_ACCEPTED);
+  }
+
+  @Test
+  public void signatureOfCrLfBodyIsVerifiedOnRawBytes() throws Exception {
+    servlet = newServlet("webhookSecret = " + SECRET + "\n");
+    when(processor.submit(eq(handler), any(), any())).thenReturn(true);
+    byte[] body = "{\r\n  \"zen\": \"Design for failure.\"\r\n}\r\n".getBytes(UTF_8);
+    HttpServletResponse resp = mock(HttpServletResponse.class);
+
+    servlet.doPost(
+        signedRequest(
+            "X-Hub-Signature-256", "sha256=" + hmac("HmacSHA256", body), body, body.length),
+        resp);
+
+    verify(resp).setStatus(HttpServletResponse.SC_ACCEPTED);
+    verify(processor).decode(eq(handler), aryEq(body));
+  }
+
+  @Test
+  public void invalidSignatureIsForbidden() throws Exception {
+    servlet = newServlet("webhookSecret = " + SECRET + "\n");
+    byte[] body = PAYLOAD.getBytes(UTF_8);
+    byte[] tampered = (PAYLOAD + " ").getBytes(UTF_8);
+    HttpServletResponse resp = mock(HttpServletResponse.class);
+
+    servlet.doPost(
+        signedRequest("X-Hub-Signature-256", "sha256=" + hmac("HmacSHA256", body), tampered, -1),
+        resp);
+
+    verify(resp).sendError(HttpServletResponse.SC_FORBIDDEN);
+    verify(processor, never()).submit(any(), any(), any());
+  }
+
+  @Test
+  public void payloadBeyondMaxSizeIsRejected() throws Exception {
+    Map<String, String> headers = new HashMap<>();
+    headers.put("X-Github-Event", EVENT_NAME);
+    HttpServletRequest req = mock(HttpServletRequest.class);
+    when(req.getHeader(any())).thenAnswer(invocation -> headers.get(invocation.getArgument(0)));
+    when(req.getContentLength()).thenReturn(-1);
+    when(req.getInputStream()).thenReturn(new ZerosInputStream(WebhookServlet.MAX_BUFFER_SIZE + 1));
+    HttpServletResponse resp = mock(HttpServletResponse.class);
+
+    servlet.doPost(req, resp);
+
+    verify(resp).sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+    verify(processor, never()).decode(any(), any(byte[].class));
+  }
+
+  @Test
+  public void declaredLengthBeyondMaxSizeIsRejected() throws Exception {
+    HttpServletRequest req = request("delivery-1", PAYLOAD);
+    when(req.getContentLength()).thenReturn(WebhookServlet.MAX_BUFFER_SIZE + 1);
+    HttpServletResponse resp = mock(HttpServletResponse.class);
+
+    servlet.doPost(req, resp);
+
+    verify(resp).sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+  }
+
+  private HttpServletRequest signedRequest(
+      String signatureHeader, String signature, byte[] body, int contentLength) throws IOException {
+    Map<String, String> headers = new HashMap<>();
+    headers.put("X-Github-Event", EVENT_NAME);
+    headers.put("X-GitHub-Delivery", "delivery-1");
+    headers.put(signatureHeader, signature);
+    HttpServletRequest req = request(headers, body);
+    when(req.getContentLength()).thenReturn(contentLength);
+    return req;
+  }
+
+  private static String hmac(String algorithm, byte[] body) throws Exception {
+    Mac mac = Mac.getInstance(algorithm);
+    mac.init(new SecretKeySpec(SECRET.getBytes(UTF_8), algorithm));
+    return Hex.encodeHexString(mac.doFinal(body));
+  }
+
+  /** Payload larger than the initial read buffer, so that it is read in several chunks. */
+  private static byte[] largePayload() {
+    StringBuilder payload = new StringBuilder("{\"commits\":[");
+    for (int i = 0; i < 1000; i++) {
+      payload.append(i == 0 ? "" : ",").append("{\"message\":\"Commit ").append(i).append("\"}");
+    }
+    return payload.append("]}").toString().getBytes(UTF_8);
+  }
+
+  private HttpServletRequest request(String deliveryId, String body) throws IOException {
+    Map<String, String> headers = new HashMap<>();
+    headers.put("X-Github-Event", EVENT_NAME);
+    headers.put("X-GitHub-Delivery", deliveryId);
+    return request(headers, body.getBytes(UTF_8));
+  }
+
+  private static HttpServletRequest request(Map<String, String> headers, byte[] body)
+      throws IOException {
+    HttpServletRequest req = mock(HttpServletRequest.class);
+    when(req.getHeader(any())).thenAnswer(invocation -> headers.get(invocation.getArgument(0)));
+    when(req.getContentLength()).thenReturn(body.length);
+    when(req.getInputStream()).thenReturn(new BodyInputStream(body));
+    return req;
+  }
+
+  private static class BodyInputStream extends ServletInputStream {
+    private final ByteArrayInputStream body;
+
+    BodyInputStream(byte[] body) {
+      this.body = new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public int read() {
+      return body.read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      return body.read(b, off, len);
+    }
+
+    @Override
+    public boolean isFinished() {
+      return body.available() == 0;
+    }
+
+    @Override
+    public boolean isReady() {
+      return true;
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private static class ZerosInputStream extends ServletInputStream {
+    private long remaining;
+
+    ZerosInputStream(long size) {
+      this.remaining = size;
+    }
+
+    @Override
+    public int read() {
+      if (remaining == 0) {
+        return -1;
+      }
+      remaining--;
+      return 0;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (remaining == 0) {
+        return -1;
+      }
+      int read = (int) Math.min(len, remaining);
+      Arrays.fill(b, off, off + read, (byte) 0);
+      remaining -= read;
+      return read;
+    }
+
+    @Override
+    public boolean isFinished() {
+      return remaining == 0;
+    }
+
+    @Override
+    public boolean isReady() {
+      return true;
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private WebhookServlet newServlet(String githubConfig) throws Exception {
+    GitHubConfig config = newConfig(githubConfig);
+    return new WebhookServlet(
+        loginProvider, config, processor, journal, new WebhookDeliveries(config));
+  }
+
+  private GitHubConfig newConfig(String githubConfig) throws Exception {
+    Config gerritConfig = new Config();
+    gerritConfig.fromText(
+        "[auth]\n"
+            + "httpHeader = GITHUB\n"
+            + "type = HTTP\n"
+            + "[gerrit]\n"
+            + "basePath = /tmp\n"
+            + "[github-key \"default\"]\n"
+            + "current = true\n"
+            + "passwordDevice = /dev/zero\n"
+            + "[github]\n"
+            + "clientId = myclientid\n"
+            + "clientSecret = mysecret\n"
+            + "webhookUser = "
+            + WEBHOOK_USER
+            + "\n"
+            + githubConfig);
+    return new GitHubConfig(
+        gerritConfig,
+        new SitePaths(tempFolder.getRoot().toPath()),
+        Providers.of(new AllProjectsName("All-Projects")));
+  }
+}